@@ -1,23 +1,79 @@
 package com.csci513.finalproject;
 
 import com.csci513.finalproject.core.GameManager;
+import com.csci513.finalproject.core.GameServer;
+import com.csci513.finalproject.core.GameSessionRegistry;
+import com.csci513.finalproject.core.MapTemplateCache;
+import com.csci513.finalproject.core.MoveJournal;
+import com.csci513.finalproject.core.VirtualThreadWebServer;
 import com.csci513.finalproject.core.WebServer;
+import com.csci513.finalproject.logging.Logger;
+import com.csci513.finalproject.model.map.MapFile;
 
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
 
 public class Main {
 
+    private static final Logger LOG = Logger.get(Main.class);
+
+    private static final int PORT = 8080;
+
     public static void main(String[] args) {
         try {
-            // Create the game manager instance
-            GameManager gameManager = new GameManager();
+            // Journal moves so games survive a restart; -Djournal.dir= (empty) turns journaling off
+            String journalDir = System.getProperty("journal.dir", "journal");
+            MoveJournal journal = journalDir.isEmpty() ? null : new MoveJournal(Paths.get(journalDir),
+                    Long.getLong("journal.segmentBytes", MoveJournal.DEFAULT_MAX_SEGMENT_BYTES));
+
+            // Create the registry holding one game per session, sized by optional system properties
+            long memoryBudgetMb = Long.getLong("sessions.memoryBudgetMb", 0);
+            Long worldSeed = Long.getLong("map.seed"); // Every session plays this world's layout; random if unset
+            // Maps of a million cells or more get clustered islands; from 4096x4096 up to 100000x100000
+            // they are generated lazily in chunks
+            int mapWidth = Integer.getInteger("map.width", GameManager.DEFAULT_MAP_WIDTH);
+            int mapHeight = Integer.getInteger("map.height", GameManager.DEFAULT_MAP_HEIGHT);
+            String mapFilePath = System.getProperty("map.file", "");
+            if (!mapFilePath.isEmpty()) { // A prebuilt world (see MapExportTool) replaces map.seed and the map size
+                MapFile mapFile = MapFile.open(Paths.get(mapFilePath));
+                MapTemplateCache.shared().pin(mapFile.getWorldSeed(), mapFile.getMap());
+                worldSeed = mapFile.getWorldSeed();
+                mapWidth = mapFile.getMap().getWidth();
+                mapHeight = mapFile.getMap().getHeight();
+                LOG.info("Opened map {} ({}x{}) from {}", mapFile.getMap().getMapId(), mapWidth, mapHeight, mapFilePath);
+            }
+            GameManager.checkMapSize(mapWidth, mapHeight); // Fail at startup rather than on the first session
+            GameSessionRegistry sessions = new GameSessionRegistry(
+                    Integer.getInteger("sessions.max", GameSessionRegistry.DEFAULT_MAX_SESSIONS),
+                    memoryBudgetMb > 0 ? memoryBudgetMb * 1024 * 1024 : GameSessionRegistry.defaultMemoryBudget(),
+                    Duration.ofSeconds(Long.getLong("sessions.idleTimeoutSeconds", GameSessionRegistry.DEFAULT_IDLE_TIMEOUT.toSeconds())),
+                    journal,
+                    mapWidth,
+                    mapHeight,
+                    worldSeed);
+            if (journal != null) {
+                LOG.info("Recovered {} sessions from {}", sessions.recoverSessions(), journal.getDirectory());
+            }
 
-            // Start the web server, passing the game manager
-            new WebServer(8080, gameManager); // Listen on port 8080
+            // Pick the server backend: "virtual" (default) or "nano", via the first argument or -Dserver.backend
+            String backend = args.length > 0 ? args[0] : System.getProperty("server.backend", "virtual");
+            GameServer server = startServer(backend, sessions);
 
-            System.out.println("Backend server started.");
+            LOG.info("Backend server started ({}) on port {}.", backend, server.getPort());
         } catch (IOException ioe) {
-            System.err.println("Couldn't start server:\n" + ioe);
+            LOG.error("Couldn't start server", ioe);
+        }
+    }
+
+    private static GameServer startServer(String backend, GameSessionRegistry sessions) throws IOException {
+        switch (backend) {
+            case "nano":
+                return new WebServer(PORT, sessions); // Thread per connection
+            case "virtual":
+                return new VirtualThreadWebServer(PORT, sessions); // Virtual thread per request, keep-alive
+            default:
+                throw new IllegalArgumentException("Unknown server backend '" + backend + "', expected 'virtual' or 'nano'");
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package com.csci513.finalproject;
+
+import com.csci513.finalproject.core.MapTemplateCache;
+import com.csci513.finalproject.model.map.MapFile;
+import com.csci513.finalproject.model.map.OceanMap;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Writes the map of a world to a map file, so servers can open it with -Dmap.file instead of generating it.
+// The map is the one games of that size and world seed play. Run with:
+//   mvn -q compile exec:java -Dexec.mainClass=com.csci513.finalproject.MapExportTool -Dexec.args="<width> <height> <worldSeed> <file>"
+public class MapExportTool {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            System.err.println("Usage: MapExportTool <width> <height> <worldSeed> <file>");
+            System.exit(2);
+        }
+        int width = Integer.parseInt(args[0]);
+        int height = Integer.parseInt(args[1]);
+        long worldSeed = Long.parseLong(args[2]);
+        Path file = Paths.get(args[3]);
+
+        long start = System.nanoTime();
+        OceanMap map = MapTemplateCache.shared().get(width, height, worldSeed);
+        long generated = System.nanoTime();
+        MapFile.write(map, worldSeed, file);
+        long written = System.nanoTime();
+        System.out.printf("Map %s (%dx%d, seed %d) generated in %d ms, written to %s in %d ms%n", map.getMapId(),
+                width, height, worldSeed, (generated - start) / 1_000_000, file, (written - generated) / 1_000_000);
+    }
+}
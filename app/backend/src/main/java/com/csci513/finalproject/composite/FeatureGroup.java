@@ -1,11 +1,15 @@
 package com.csci513.finalproject.composite;
 
+import com.csci513.finalproject.logging.Logger;
+
 import java.util.ArrayList;
 import java.util.List;
 
 // Composite class for grouping OceanFeatures (e.g., SeaMonsters, Whirlpools).
 public class FeatureGroup implements OceanFeature {
 
+    private static final Logger LOG = Logger.get(FeatureGroup.class);
+
     private List<OceanFeature> features = new ArrayList<>();
     private String groupName;
 
@@ -23,7 +27,7 @@ public class FeatureGroup implements OceanFeature {
 
     @Override
     public void activate() {
-        System.out.println("Activating feature group: " + groupName);
+        LOG.info("Activating feature group: {}", groupName);
         for (OceanFeature feature : features) {
             feature.activate();
         }
@@ -31,7 +35,7 @@ public class FeatureGroup implements OceanFeature {
 
     @Override
     public void deactivate() {
-        System.out.println("Deactivating feature group: " + groupName);
+        LOG.info("Deactivating feature group: {}", groupName);
         for (OceanFeature feature : features) {
             feature.deactivate();
         }
@@ -0,0 +1,171 @@
+package com.csci513.finalproject.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Decides cheaply, before any game lock is taken, whether a request may run.
+// Bounds the requests being handled at once (503 when full) and rate limits each client
+// address and each session's actions with token buckets (429 when empty).
+// Everything here is lock-free, so rejecting a flood costs almost nothing.
+// At most maxTrackedKeys buckets are kept per table. A full table drops its full (idle) buckets in one
+// sweep, at most once per SWEEP_INTERVAL; a new key that finds the table still full is rejected until
+// then, so a flood of new addresses costs one bounded scan per interval rather than one per request.
+public class AdmissionController {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 256;
+    public static final double DEFAULT_CLIENT_RATE = 50;  // Requests per second per client address
+    public static final int DEFAULT_CLIENT_BURST = 100;
+    public static final double DEFAULT_SESSION_RATE = 20; // Actions per second per session
+    public static final int DEFAULT_SESSION_BURST = 40;
+    public static final int DEFAULT_MAX_TRACKED_KEYS = 10_000; // Per table; full buckets are dropped past this many
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // Outcome of a rate limit check: null from checkClient/checkSession means admitted
+    public static class Rejection {
+        private final int status;
+        private final long retryAfterSeconds;
+
+        Rejection(int status, long retryAfterSeconds) {
+            this.status = status;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+
+    // Token buckets by key, all with the same rate and burst
+    private static final class BucketTable {
+        final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        final double rate;
+        final int burst;
+        final AtomicLong nextSweepNanos;
+
+        BucketTable(double rate, int burst, long now) {
+            this.rate = rate;
+            this.burst = burst;
+            this.nextSweepNanos = new AtomicLong(now);
+        }
+    }
+
+    private final int maxInFlight;
+    private final int maxTrackedKeys;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final BucketTable clientBuckets;
+    private final BucketTable sessionBuckets;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejectedOverload = new LongAdder();
+    private final LongAdder rejectedClientRate = new LongAdder();
+    private final LongAdder rejectedSessionRate = new LongAdder();
+
+    public AdmissionController() {
+        this(DEFAULT_MAX_IN_FLIGHT, DEFAULT_CLIENT_RATE, DEFAULT_CLIENT_BURST, DEFAULT_SESSION_RATE, DEFAULT_SESSION_BURST);
+    }
+
+    public AdmissionController(int maxInFlight, double clientRate, int clientBurst, double sessionRate, int sessionBurst) {
+        this(maxInFlight, clientRate, clientBurst, sessionRate, sessionBurst, DEFAULT_MAX_TRACKED_KEYS);
+    }
+
+    public AdmissionController(int maxInFlight, double clientRate, int clientBurst, double sessionRate, int sessionBurst,
+                               int maxTrackedKeys) {
+        long now = System.nanoTime();
+        this.maxInFlight = maxInFlight;
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.clientBuckets = new BucketTable(clientRate, clientBurst, now);
+        this.sessionBuckets = new BucketTable(sessionRate, sessionBurst, now);
+    }
+
+    // Claims an in-flight slot; every successful call must be paired with exit()
+    public boolean tryEnter() {
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            rejectedOverload.increment();
+            return false;
+        }
+        admitted.increment();
+        return true;
+    }
+
+    public void exit() {
+        inFlight.decrementAndGet();
+    }
+
+    // Takes a token from the client's bucket; returns null if admitted
+    public Rejection checkClient(String clientAddress) {
+        Rejection rejection = take(clientBuckets, clientAddress == null ? "unknown" : clientAddress);
+        if (rejection != null) {
+            rejectedClientRate.increment();
+        }
+        return rejection;
+    }
+
+    // Takes a token from the session's action bucket; returns null if admitted
+    public Rejection checkSession(String sessionId) {
+        Rejection rejection = take(sessionBuckets, sessionId);
+        if (rejection != null) {
+            rejectedSessionRate.increment();
+        }
+        return rejection;
+    }
+
+    private Rejection take(BucketTable table, String key) {
+        long now = System.nanoTime();
+        TokenBucket bucket = table.buckets.get(key);
+        if (bucket == null) {
+            if (table.buckets.size() >= maxTrackedKeys && !sweep(table, now)) {
+                long untilSweep = Math.max(0, table.nextSweepNanos.get() - now);
+                return new Rejection(429, retryAfterSeconds(untilSweep));
+            }
+            bucket = table.buckets.computeIfAbsent(key, k -> new TokenBucket(table.rate, table.burst));
+        }
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos == 0) {
+            return null;
+        }
+        return new Rejection(429, retryAfterSeconds(waitNanos));
+    }
+
+    // Drops idle buckets if a sweep is due and no other thread claimed it; returns true once there is room
+    private boolean sweep(BucketTable table, long now) {
+        long due = table.nextSweepNanos.get();
+        if (now - due >= 0 && table.nextSweepNanos.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) {
+            table.buckets.values().removeIf(b -> b.isFull(now)); // Idle keys hold no state worth keeping
+        }
+        return table.buckets.size() < maxTrackedKeys;
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getAdmittedCount() {
+        return admitted.sum();
+    }
+
+    public long getRejectedOverloadCount() {
+        return rejectedOverload.sum();
+    }
+
+    public long getRejectedClientRateCount() {
+        return rejectedClientRate.sum();
+    }
+
+    public long getRejectedSessionRateCount() {
+        return rejectedSessionRate.sum();
+    }
+}
@@ -0,0 +1,84 @@
+package com.csci513.finalproject.core;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// Transport-neutral view of an HTTP request, built by each server backend and handled by GameApi.
+public class ApiRequest {
+
+    // Reads the request body on demand, so GET requests never touch the input stream
+    public interface BodyReader {
+        String read() throws IOException;
+    }
+
+    private final String method;
+    private final String path;
+    private final Map<String, String> headers; // Lower-case names
+    private final Map<String, String> query;
+    private final String remoteAddress;
+    private final BodyReader bodyReader;
+    private String body;
+
+    public ApiRequest(String method, String path, Map<String, String> headers, Map<String, String> query,
+                      String remoteAddress, BodyReader bodyReader) {
+        this.method = method.toUpperCase();
+        this.path = path;
+        this.headers = lowerCaseKeys(headers);
+        this.query = Collections.unmodifiableMap(query);
+        this.remoteAddress = remoteAddress;
+        this.bodyReader = bodyReader;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    // Header lookup is case-insensitive
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase());
+    }
+
+    public String getQueryParameter(String name) {
+        return query.get(name);
+    }
+
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    public String getBody() throws IOException {
+        if (body == null) {
+            body = bodyReader == null ? "" : bodyReader.read();
+        }
+        return body;
+    }
+
+    // Parses "a=1&b=2" into a map; later duplicates win
+    public static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static Map<String, String> lowerCaseKeys(Map<String, String> headers) {
+        Map<String, String> lowered = new HashMap<>();
+        headers.forEach((name, value) -> lowered.put(name.toLowerCase(), value));
+        return lowered;
+    }
+}
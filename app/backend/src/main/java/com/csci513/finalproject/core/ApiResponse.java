@@ -0,0 +1,77 @@
+package com.csci513.finalproject.core;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Transport-neutral HTTP response produced by GameApi: either a fixed body or an open-ended stream.
+public class ApiResponse {
+
+    public static final String TEXT_PLAIN = "text/plain";
+    public static final String EVENT_STREAM = "text/event-stream";
+    private static final byte[] EMPTY = new byte[0];
+
+    private final int status;
+    private final String contentType;
+    private final byte[] body;
+    private final InputStream stream;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+
+    private ApiResponse(int status, String contentType, byte[] body, InputStream stream) {
+        this.status = status;
+        this.contentType = contentType;
+        this.body = body;
+        this.stream = stream;
+    }
+
+    public static ApiResponse of(int status, String contentType, byte[] body) {
+        return new ApiResponse(status, contentType, body, null);
+    }
+
+    public static ApiResponse text(int status, String message) {
+        return new ApiResponse(status, TEXT_PLAIN, message.getBytes(StandardCharsets.UTF_8), null);
+    }
+
+    // A response without a body, e.g. 304 Not Modified or a CORS preflight
+    public static ApiResponse empty(int status, String contentType) {
+        return new ApiResponse(status, contentType, EMPTY, null);
+    }
+
+    // A body of unknown length that is written until the stream ends (sent chunked)
+    public static ApiResponse stream(int status, String contentType, InputStream stream) {
+        return new ApiResponse(status, contentType, null, stream);
+    }
+
+    public ApiResponse header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public boolean isStreaming() {
+        return stream != null;
+    }
+
+    // Fixed body; null for streaming responses
+    public byte[] getBody() {
+        return body;
+    }
+
+    // Streaming body; null for fixed responses
+    public InputStream getStream() {
+        return stream;
+    }
+
+    public Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+}
@@ -0,0 +1,158 @@
+package com.csci513.finalproject.core;
+
+import com.csci513.finalproject.model.characters.PirateShip;
+import com.csci513.finalproject.model.characters.SeaMonster;
+import com.csci513.finalproject.model.map.OceanMap;
+import com.csci513.finalproject.utils.Position;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+// Compact binary alternative to the JSON /state and /map payloads (content type StateSnapshot.BINARY).
+// Coordinates are sent as cell indices (y * width + x) in unsigned LEB128 varints.
+//
+// State:  'C' 'S' formatVersion varint(worldVersion) varint(width) varint(height) string(mapId)
+//         varint(playerCell) varint(treasureCell) byte(flags: bit0 = game over) string(message)
+//         varint(pirateCount) { byte(type) [string(className) if type == OTHER] varint(cell) }
+//         varint(activeMonsterCount) { varint(cell) }
+// Map:    'C' 'M' formatVersion string(mapId) varint(width) varint(height)
+//         byte(islandEncoding) islands cells(switchers)
+//         islands are either cells(...) (SPARSE) or a bitset of width*height bits, LSB first (BITSET),
+//         whichever is smaller. A tiled map (OceanMap.isTiled()) is too large for either: its encoding is
+//         TILED followed by varint(tileSize) and nothing else, and its terrain is read from /map/{id}/tiles.
+// cells:  varint(count) then the sorted cell indices, each as a varint delta from the previous one
+// string: varint(byteLength) UTF-8 bytes
+public class BinaryStateEncoder {
+
+    public static final int FORMAT_VERSION = 1;
+
+    public static final int PIRATE_PATROL = 0;
+    public static final int PIRATE_CHASER = 1;
+    public static final int PIRATE_OTHER = 255;
+
+    public static final int ISLANDS_SPARSE = 0;
+    public static final int ISLANDS_BITSET = 1;
+    public static final int ISLANDS_TILED = 2;
+
+    // Must be called while holding the GameManager's lock so the snapshot is consistent
+    public byte[] encodeState(GameManager gameManager) {
+        OceanMap map = gameManager.getOceanMap();
+        int width = map.getWidth();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        out.write('C');
+        out.write('S');
+        out.write(FORMAT_VERSION);
+        writeVarLong(out, gameManager.getVersion());
+        writeVarLong(out, width);
+        writeVarLong(out, map.getHeight());
+        writeString(out, map.getMapId());
+        writeVarLong(out, cellIndex(gameManager.getColumbusShip().getPosition(), width));
+        writeVarLong(out, cellIndex(map.getTreasurePosition(), width));
+        out.write(gameManager.getGameState().isGameOver() ? 1 : 0);
+        writeString(out, gameManager.getGameState().getStatusMessage());
+
+        List<PirateShip> pirates = gameManager.getPirateShips();
+        writeVarLong(out, pirates.size());
+        for (PirateShip pirate : pirates) {
+            String type = pirate.getClass().getSimpleName();
+            if ("PatrolPirateShip".equals(type)) {
+                out.write(PIRATE_PATROL);
+            } else if ("ChaserPirateShip".equals(type)) {
+                out.write(PIRATE_CHASER);
+            } else {
+                out.write(PIRATE_OTHER);
+                writeString(out, type);
+            }
+            writeVarLong(out, cellIndex(pirate.getPosition(), width));
+        }
+
+        int activeMonsters = 0;
+        for (SeaMonster monster : gameManager.getSeaMonsters()) {
+            if (monster.isActive()) {
+                activeMonsters++;
+            }
+        }
+        writeVarLong(out, activeMonsters);
+        for (SeaMonster monster : gameManager.getSeaMonsters()) {
+            if (monster.isActive()) { // Only send active monsters
+                writeVarLong(out, cellIndex(monster.getPosition(), width));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public byte[] encodeMap(OceanMap map) {
+        int width = map.getWidth();
+        int height = map.getHeight();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        out.write('C');
+        out.write('M');
+        out.write(FORMAT_VERSION);
+        writeString(out, map.getMapId());
+        writeVarLong(out, width);
+        writeVarLong(out, height);
+        if (map.isTiled()) {
+            out.write(ISLANDS_TILED);
+            writeVarLong(out, MapTileCache.MAX_TILE_SIZE);
+            return out.toByteArray();
+        }
+
+        ByteArrayOutputStream sparse = new ByteArrayOutputStream();
+        writeCells(sparse, map.getIslandPositions(), width);
+        long bitsetBytes = ((long) width * height + 7) / 8;
+        if (sparse.size() <= bitsetBytes) {
+            out.write(ISLANDS_SPARSE);
+            out.write(sparse.toByteArray(), 0, sparse.size());
+        } else {
+            out.write(ISLANDS_BITSET);
+            byte[] bits = new byte[(int) bitsetBytes];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (map.isIsland(x, y)) {
+                        int cell = y * width + x;
+                        bits[cell >>> 3] |= (byte) (1 << (cell & 7));
+                    }
+                }
+            }
+            out.write(bits, 0, bits.length);
+        }
+
+        writeCells(out, map.getStrategySwitcherPositions(), width);
+        return out.toByteArray();
+    }
+
+    private static long cellIndex(Position position, int width) {
+        return (long) position.getY() * width + position.getX();
+    }
+
+    private static void writeCells(ByteArrayOutputStream out, List<Position> positions, int width) {
+        long[] cells = new long[positions.size()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = cellIndex(positions.get(i), width);
+        }
+        Arrays.sort(cells);
+        writeVarLong(out, cells.length);
+        long previous = 0;
+        for (long cell : cells) {
+            writeVarLong(out, cell - previous);
+            previous = cell;
+        }
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    // Unsigned LEB128: 7 bits per byte, high bit set on all but the last byte
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7fL) != 0) {
+            out.write((int) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
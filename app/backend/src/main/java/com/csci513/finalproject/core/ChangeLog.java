@@ -0,0 +1,106 @@
+package com.csci513.finalproject.core;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+// Fixed-size ring of per-tick change records, used to answer "what changed since version N".
+// Not thread-safe: every call must happen while holding the owning GameManager's lock.
+public class ChangeLog {
+
+    // What changed during one tick (or, when merged, across several ticks)
+    public static class ChangeSet {
+        private final long version;
+        private boolean playerMoved;
+        private boolean statusChanged;
+        private final BitSet movedPirates = new BitSet();
+        private final BitSet movedMonsters = new BitSet();
+
+        public ChangeSet(long version) {
+            this.version = version;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public boolean isPlayerMoved() {
+            return playerMoved;
+        }
+
+        public void setPlayerMoved(boolean playerMoved) {
+            this.playerMoved = playerMoved;
+        }
+
+        public boolean isStatusChanged() {
+            return statusChanged;
+        }
+
+        public void setStatusChanged(boolean statusChanged) {
+            this.statusChanged = statusChanged;
+        }
+
+        // Indices into GameManager.getPirateShips()
+        public BitSet getMovedPirates() {
+            return movedPirates;
+        }
+
+        // Indices into GameManager.getSeaMonsters()
+        public BitSet getMovedMonsters() {
+            return movedMonsters;
+        }
+
+        private void mergeFrom(ChangeSet other) {
+            playerMoved |= other.playerMoved;
+            statusChanged |= other.statusChanged;
+            movedPirates.or(other.movedPirates);
+            movedMonsters.or(other.movedMonsters);
+        }
+    }
+
+    private final ChangeSet[] ring;
+    private long baseVersion; // Oldest version a delta can be computed from
+
+    public ChangeLog(int capacity) {
+        this.ring = new ChangeSet[capacity];
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    // Forgets all history, e.g. after a restart; deltas older than baseVersion need a full snapshot
+    public void reset(long baseVersion) {
+        Arrays.fill(ring, null);
+        this.baseVersion = baseVersion;
+    }
+
+    // Records the changes of the tick that produced change.getVersion(); versions must be consecutive
+    public void record(ChangeSet change) {
+        ring[slot(change.getVersion())] = change;
+        long oldestRetained = change.getVersion() - ring.length;
+        if (baseVersion < oldestRetained) {
+            baseVersion = oldestRetained;
+        }
+    }
+
+    // Merges every change after sinceVersion up to currentVersion,
+    // or returns null if that range is no longer (or not yet) covered by the ring
+    public ChangeSet since(long sinceVersion, long currentVersion) {
+        if (sinceVersion < baseVersion || sinceVersion > currentVersion) {
+            return null;
+        }
+        ChangeSet merged = new ChangeSet(currentVersion);
+        for (long v = sinceVersion + 1; v <= currentVersion; v++) {
+            ChangeSet change = ring[slot(v)];
+            if (change == null || change.getVersion() != v) {
+                return null;
+            }
+            merged.mergeFrom(change);
+        }
+        return merged;
+    }
+
+    private int slot(long version) {
+        return (int) Math.floorMod(version, (long) ring.length);
+    }
+}
@@ -0,0 +1,472 @@
+package com.csci513.finalproject.core;
+
+import com.csci513.finalproject.logging.Logger;
+import com.csci513.finalproject.metrics.GameMetrics;
+import com.csci513.finalproject.metrics.MetricsRegistry;
+import com.csci513.finalproject.model.map.OceanMap;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Routes and handles the game's HTTP API independently of the server backend serving it.
+// Requests are routed to a game session chosen by the "/games/{id}/..." path prefix
+// or the X-Session-Id header; requests without either use the default session.
+public class GameApi {
+
+    private static final Logger LOG = Logger.get(GameApi.class);
+
+    public static final String SESSION_HEADER = "x-session-id";
+    private static final String SESSION_PATH_PREFIX = "/games/";
+    private static final String REPLAY_PATH_PREFIX = "/replay/";
+
+    private static final int MAX_BATCH_MOVES = 1000; // Bounds how long one batch can hold a game's lock
+    // Routes reported as metric labels as-is; anything else is "/map/{id}" or "other" to bound label cardinality
+    private static final Set<String> KNOWN_ROUTES = Set.of("/state", "/map", "/map/tiles", "/events", "/action/move",
+            "/action/moves", "/action/restart", "/metrics");
+
+    private final GameSessionRegistry sessions;
+    private final AdmissionController admission;
+    private final GameStateSerializer serializer = new GameStateSerializer();
+    private final GameReplay replay = new GameReplay();
+
+    public GameApi(GameSessionRegistry sessions) {
+        this(sessions, new AdmissionController());
+    }
+
+    public GameApi(GameSessionRegistry sessions, AdmissionController admission) {
+        this.sessions = sessions;
+        this.admission = admission;
+        registerGauges(MetricsRegistry.getDefault());
+    }
+
+    // Gauges are read only when /metrics is scraped
+    private void registerGauges(MetricsRegistry metrics) {
+        metrics.gauge("columbus_sessions_active", "Game sessions currently held in memory", sessions::size);
+        metrics.gauge("columbus_entities", "Entities across all sessions, by kind",
+                () -> sessions.getGames().stream().mapToLong(game -> game.getPirateShips().size()).sum(), "kind", "pirate");
+        metrics.gauge("columbus_entities", "Entities across all sessions, by kind",
+                () -> sessions.getGames().stream().mapToLong(game -> game.getSeaMonsters().size()).sum(), "kind", "sea_monster");
+        metrics.gauge("columbus_event_stream_subscribers", "Open /events streams across all sessions",
+                () -> sessions.getGames().stream().mapToLong(GameManager::getSubscriberCount).sum());
+        metrics.gauge("columbus_sessions_memory_estimated_bytes", "Estimated heap held by all sessions",
+                sessions::getEstimatedMemoryBytes);
+        metrics.gauge("columbus_session_memory_estimated_bytes", "Estimated heap held by one session, on average",
+                sessions::getEstimatedBytesPerSession);
+        String evictedHelp = "Sessions evicted, by reason";
+        metrics.counterFunction("columbus_sessions_evicted_total", evictedHelp, sessions::getEvictedIdleCount, "reason", "idle");
+        metrics.counterFunction("columbus_sessions_evicted_total", evictedHelp,
+                sessions::getEvictedOverCapacityCount, "reason", "capacity");
+        metrics.gauge("columbus_http_requests_in_flight", "HTTP requests being handled", admission::getInFlight);
+        String rejectedHelp = "Requests rejected by admission control, by reason";
+        metrics.counterFunction("columbus_http_requests_rejected_total", rejectedHelp,
+                admission::getRejectedOverloadCount, "reason", "overload");
+        metrics.counterFunction("columbus_http_requests_rejected_total", rejectedHelp,
+                admission::getRejectedClientRateCount, "reason", "client_rate");
+        metrics.counterFunction("columbus_http_requests_rejected_total", rejectedHelp,
+                admission::getRejectedSessionRateCount, "reason", "session_rate");
+    }
+
+    public AdmissionController getAdmissionController() {
+        return admission;
+    }
+
+    public ApiResponse handle(ApiRequest request) {
+        long start = System.nanoTime();
+        ApiResponse response;
+        // Shed load before doing any work once too many requests are being handled
+        if (!admission.tryEnter()) {
+            response = ApiResponse.text(503, "Server busy, please retry.").header("Retry-After", "1");
+        } else {
+            try {
+                response = route(request);
+            } finally {
+                admission.exit();
+            }
+        }
+        String route = routeLabel(request.getPath());
+        GameMetrics.requestDuration(route).recordSince(start);
+        GameMetrics.requests(route, response.getStatus()).increment();
+        // Allow CORS requests from the frontend (adjust origin if needed)
+        return response.header("Access-Control-Allow-Origin", "*"); // Allow all origins for simplicity
+    }
+
+    private static String routeLabel(String path) {
+        if (path.startsWith(SESSION_PATH_PREFIX)) {
+            int slash = path.indexOf('/', SESSION_PATH_PREFIX.length());
+            path = slash < 0 ? "/" : path.substring(slash);
+        }
+        if (KNOWN_ROUTES.contains(path)) {
+            return path;
+        }
+        if (path.startsWith(REPLAY_PATH_PREFIX)) {
+            return "/replay/{id}";
+        }
+        if (path.startsWith("/map/")) {
+            return path.endsWith("/tiles") ? "/map/{id}/tiles" : "/map/{id}";
+        }
+        return "other";
+    }
+
+    private ApiResponse route(ApiRequest request) {
+        String uri = request.getPath();
+        String method = request.getMethod();
+
+        // Handle CORS preflight requests (OPTIONS)
+        if ("OPTIONS".equals(method)) {
+            return ApiResponse.of(200, StateSnapshot.JSON, "{}".getBytes(StandardCharsets.UTF_8))
+                    .header("Access-Control-Allow-Methods", "GET, POST, OPTIONS")
+                    .header("Access-Control-Allow-Headers", "Content-Type, Accept, X-Session-Id, If-None-Match");
+        }
+
+        AdmissionController.Rejection limited = admission.checkClient(request.getRemoteAddress());
+        if (limited != null) {
+            return rejected(limited);
+        }
+
+        LOG.debug("WebServer received: {} {}", method, uri);
+
+        // Server-wide metrics, independent of any session
+        if (uri.equals("/metrics") && "GET".equals(method)) {
+            byte[] body = MetricsRegistry.getDefault().scrape().getBytes(StandardCharsets.UTF_8);
+            return ApiResponse.of(200, MetricsRegistry.CONTENT_TYPE, body).header("Cache-Control", "no-cache");
+        }
+
+        // Replays read a session's current game without creating one
+        if (uri.startsWith(REPLAY_PATH_PREFIX) && "GET".equals(method)) {
+            return handleReplay(request, uri.substring(REPLAY_PATH_PREFIX.length()));
+        }
+
+        // Resolve which game session this request belongs to
+        String sessionId = request.getHeader(SESSION_HEADER);
+        if (sessionId == null) {
+            sessionId = GameSessionRegistry.DEFAULT_SESSION_ID;
+        }
+        if (uri.startsWith(SESSION_PATH_PREFIX)) {
+            int slash = uri.indexOf('/', SESSION_PATH_PREFIX.length());
+            sessionId = uri.substring(SESSION_PATH_PREFIX.length(), slash < 0 ? uri.length() : slash);
+            uri = slash < 0 ? "/" : uri.substring(slash);
+        }
+        if (!GameSessionRegistry.isValidSessionId(sessionId)) {
+            return ApiResponse.text(400, "Invalid session id.");
+        }
+        // Actions take the game's lock, so each session also gets its own action budget
+        if ("POST".equals(method) && uri.startsWith("/action/")) {
+            limited = admission.checkSession(sessionId);
+            if (limited != null) {
+                return rejected(limited);
+            }
+        }
+
+        try {
+            if (uri.equals("/state") && "GET".equals(method)) {
+                return getStateOrDelta(request, sessions.getOrCreate(sessionId));
+            } else if (uri.startsWith("/map/") && uri.endsWith("/tiles") && "GET".equals(method)) {
+                return getTile(request, uri, sessions.getOrCreate(sessionId));
+            } else if ((uri.equals("/map") || uri.startsWith("/map/")) && "GET".equals(method)) {
+                return getMap(request, uri, sessions.getOrCreate(sessionId));
+            } else if (uri.equals("/events") && "GET".equals(method)) {
+                return handleEventStream(sessions.getOrCreate(sessionId));
+            } else if (uri.equals("/action/move") && "POST".equals(method)) {
+                return handleMoveAction(request, sessions.getOrCreate(sessionId));
+            } else if (uri.equals("/action/moves") && "POST".equals(method)) {
+                return handleBatchMoveAction(request, sessions.getOrCreate(sessionId));
+            } else if (uri.equals("/action/restart") && "POST".equals(method)) {
+                return handleRestartAction(request, sessions.getOrCreate(sessionId));
+            }
+        } catch (Exception e) {
+            LOG.error("Error handling request: " + e.getMessage(), e);
+            return ApiResponse.text(500, "Internal Server Error: " + e.getMessage());
+        }
+
+        // Default response for unknown routes
+        return ApiResponse.text(404, "Not Found");
+    }
+
+    // Serves {"turn": t, "length": n, "state": {...}} for turn t (default: the latest) of the session's current game
+    private ApiResponse handleReplay(ApiRequest request, String sessionId) {
+        if (!GameSessionRegistry.isValidSessionId(sessionId)) {
+            return ApiResponse.text(400, "Invalid session id.");
+        }
+        GameManager gameManager = sessions.get(sessionId);
+        if (gameManager == null) {
+            return ApiResponse.text(404, "Unknown session.");
+        }
+        GameRecording recording = gameManager.getRecording();
+        int turn = recording.length();
+        String turnParameter = request.getQueryParameter("turn");
+        if (turnParameter != null && !turnParameter.isEmpty()) {
+            try {
+                turn = Integer.parseInt(turnParameter);
+            } catch (NumberFormatException e) {
+                turn = -1;
+            }
+            if (turn < 0 || turn > recording.length()) {
+                return ApiResponse.text(400, "Turn must be between 0 and " + recording.length() + ".");
+            }
+        }
+        byte[] state = serializer.toJsonBytes(replay.seek(recording, turn));
+        byte[] body = JsonByteWriter.acquire().beginObject()
+                .name("turn").value(turn)
+                .name("length").value(recording.length())
+                .name("state").rawValue(state)
+                .endObject()
+                .finish();
+        return jsonResponse(request, body).header("Cache-Control", "no-cache");
+    }
+
+    private ApiResponse rejected(AdmissionController.Rejection rejection) {
+        return ApiResponse.text(rejection.getStatus(), "Too many requests, please slow down.")
+                .header("Retry-After", Long.toString(rejection.getRetryAfterSeconds()));
+    }
+
+    private ApiResponse getState(ApiRequest request, GameManager gameManager) {
+        return stateResponse(request, gameManager.getStateSnapshot(negotiateContentType(request)));
+    }
+
+    // Picks the binary encoding when the client lists it in Accept, JSON otherwise
+    private String negotiateContentType(ApiRequest request) {
+        String accept = request.getHeader("accept");
+        return accept != null && accept.contains(StateSnapshot.BINARY) ? StateSnapshot.BINARY : StateSnapshot.JSON;
+    }
+
+    // Serves a cached snapshot, answering 304 when the client already holds this version.
+    // With ?since=<version> only the changes after that version are sent when still available
+    // (deltas are JSON only, so binary clients always get a full snapshot).
+    private ApiResponse getStateOrDelta(ApiRequest request, GameManager gameManager) {
+        String contentType = negotiateContentType(request);
+        Long since = parseSince(request.getQueryParameter("since"));
+        if (since != null && StateSnapshot.JSON.equals(contentType)) {
+            byte[] delta = gameManager.getDeltaJson(since);
+            if (delta != null) {
+                return deltaResponse(request, delta);
+            }
+        }
+        StateSnapshot snapshot = gameManager.getStateSnapshot(contentType);
+        if (snapshot.matchesETag(request.getHeader("if-none-match"))) {
+            return addCachingHeaders(ApiResponse.empty(304, contentType), snapshot);
+        }
+        return stateResponse(request, snapshot);
+    }
+
+    // Sends the snapshot in the client's preferred Content-Encoding, reusing bytes compressed for this version
+    private ApiResponse stateResponse(ApiRequest request, StateSnapshot snapshot) {
+        String encoding = negotiateEncoding(request, snapshot.getBody().length);
+        ApiResponse response = ApiResponse.of(200, snapshot.getContentType(), snapshot.getBody(encoding));
+        return addCachingHeaders(withEncoding(response, encoding), snapshot);
+    }
+
+    private String negotiateEncoding(ApiRequest request, int bodyLength) {
+        return ResponseCompression.negotiate(request.getHeader("accept-encoding"), bodyLength);
+    }
+
+    private ApiResponse withEncoding(ApiResponse response, String encoding) {
+        return encoding == null ? response : response.header("Content-Encoding", encoding);
+    }
+
+    // Serves the static map layer. "/map/{id}" is immutable and cacheable forever;
+    // "/map" always points at the session's current map and must be revalidated.
+    private ApiResponse getMap(ApiRequest request, String uri, GameManager gameManager) {
+        MapPayload payload = gameManager.getMapPayload(negotiateContentType(request));
+        boolean byId = uri.startsWith("/map/");
+        if (byId && !uri.substring("/map/".length()).equals(payload.getMapId())) {
+            return ApiResponse.text(404, "Unknown map id.");
+        }
+
+        ApiResponse response;
+        String ifNoneMatch = request.getHeader("if-none-match");
+        if (ifNoneMatch != null && ifNoneMatch.contains(payload.getETag())) {
+            response = ApiResponse.empty(304, payload.getContentType());
+        } else {
+            String encoding = negotiateEncoding(request, payload.getBody().length);
+            response = withEncoding(ApiResponse.of(200, payload.getContentType(), payload.getBody(encoding)), encoding);
+        }
+        return response.header("ETag", payload.getETag())
+                .header("Cache-Control", byId ? "public, max-age=31536000, immutable" : "no-cache")
+                .header("Vary", byId ? "Accept, Accept-Encoding" : "Accept, Accept-Encoding, X-Session-Id");
+    }
+
+    // Serves one rectangle of the map (?x=&y=&w=&h=, clipped at the map's edges).
+    // "/map/tiles" adds the characters inside it and is revalidated per world version;
+    // "/map/{id}/tiles" holds only the terrain, which never changes for a map id, so it is cacheable forever;
+    // besides the session's own map, it serves any map template still cached, e.g. a curated shared world.
+    private ApiResponse getTile(ApiRequest request, String uri, GameManager gameManager) {
+        OceanMap map = gameManager.getOceanMap();
+        String mapId = null;
+        if (!uri.equals("/map/tiles")) {
+            mapId = uri.substring("/map/".length(), uri.length() - "/tiles".length());
+            if (!mapId.equals(map.getMapId())) {
+                map = MapTemplateCache.shared().findByMapId(mapId);
+            }
+            if (map == null) {
+                return ApiResponse.text(404, "Unknown map id.");
+            }
+        }
+        int[] rect = parseTileRectangle(request, map);
+        if (rect == null) {
+            return ApiResponse.text(400, "Expected x and y inside the map and w, h between 1 and "
+                    + MapTileCache.MAX_TILE_SIZE + ".");
+        }
+        if (mapId == null) {
+            StateSnapshot tile = gameManager.getTile(rect[0], rect[1], rect[2], rect[3]);
+            if (tile.matchesETag(request.getHeader("if-none-match"))) {
+                return addCachingHeaders(ApiResponse.empty(304, StateSnapshot.JSON), tile);
+            }
+            return stateResponse(request, tile);
+        }
+        byte[] terrain = MapTileCache.shared().getTerrainJson(map, rect[0], rect[1], rect[2], rect[3]);
+        byte[] body = serializer.toTileJsonBytes(mapId, rect[0], rect[1], rect[2], rect[3], terrain, 0, null);
+        return jsonResponse(request, body).header("Cache-Control", "public, max-age=31536000, immutable");
+    }
+
+    // Returns {x, y, width, height} clipped to the map, or null when a parameter is missing or out of range
+    private int[] parseTileRectangle(ApiRequest request, OceanMap map) {
+        try {
+            int x = Integer.parseInt(request.getQueryParameter("x"));
+            int y = Integer.parseInt(request.getQueryParameter("y"));
+            int width = Integer.parseInt(request.getQueryParameter("w"));
+            int height = Integer.parseInt(request.getQueryParameter("h"));
+            if (x < 0 || y < 0 || x >= map.getWidth() || y >= map.getHeight()
+                    || width < 1 || height < 1 || width > MapTileCache.MAX_TILE_SIZE || height > MapTileCache.MAX_TILE_SIZE) {
+                return null;
+            }
+            return new int[]{x, y, Math.min(width, map.getWidth() - x), Math.min(height, map.getHeight() - y)};
+        } catch (NumberFormatException e) {
+            return null; // Also thrown for missing parameters
+        }
+    }
+
+    // Streams every new state of the game as Server-Sent Events until the client disconnects
+    private ApiResponse handleEventStream(GameManager gameManager) {
+        return ApiResponse.stream(200, ApiResponse.EVENT_STREAM, gameManager.subscribe())
+                .header("Cache-Control", "no-cache");
+    }
+
+    private ApiResponse deltaResponse(ApiRequest request, byte[] delta) {
+        return jsonResponse(request, delta).header("Cache-Control", "no-cache");
+    }
+
+    // Uncached JSON bodies are compressed per request when large enough
+    private ApiResponse jsonResponse(ApiRequest request, byte[] body) {
+        String encoding = negotiateEncoding(request, body.length);
+        byte[] encoded = encoding == null ? body : ResponseCompression.compress(body, encoding);
+        return withEncoding(ApiResponse.of(200, StateSnapshot.JSON, encoded), encoding).header("Vary", "Accept-Encoding");
+    }
+
+    // Parses the "since" version, ignoring missing or malformed values (the client then gets a full snapshot)
+    private Long parseSince(String since) {
+        if (since == null || since.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(since);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private ApiResponse addCachingHeaders(ApiResponse response, StateSnapshot snapshot) {
+        return response.header("Access-Control-Expose-Headers", "ETag")
+                .header("ETag", snapshot.getETag())
+                .header("Cache-Control", "no-cache") // Clients must revalidate, which is a cheap 304
+                .header("Vary", "Accept, Accept-Encoding, X-Session-Id");
+    }
+
+    private ApiResponse handleMoveAction(ApiRequest request, GameManager gameManager) throws IOException {
+        // Need to parse the POST body to get the direction
+        String postBody = request.getBody();
+
+        String direction = null;
+        Long since = parseSince(request.getQueryParameter("since")); // Opt-in delta response
+        try {
+             JSONObject jsonBody = new JSONObject(postBody);
+             if (jsonBody.has("direction")) {
+                  direction = jsonBody.getString("direction");
+             }
+             if (jsonBody.has("since")) {
+                  since = jsonBody.getLong("since");
+             }
+        } catch (Exception e) {
+             LOG.warn("Error parsing move action JSON: {}", e.getMessage());
+             return ApiResponse.text(400, "Invalid JSON format for move action.");
+        }
+
+
+        if (direction != null && !direction.isEmpty()) {
+            gameManager.processPlayerMove(direction);
+            // Return the changes since the client's version if requested and available
+            if (since != null) {
+                byte[] delta = gameManager.getDeltaJson(since);
+                if (delta != null) {
+                    return deltaResponse(request, delta);
+                }
+            }
+            // Otherwise return the new game state after the move
+            return getState(request, gameManager);
+        } else {
+            return ApiResponse.text(400, "Missing or invalid 'direction' parameter in request body.");
+        }
+    }
+
+    // Applies {"directions": [...]} in order under one lock acquisition and returns per-step outcomes
+    private ApiResponse handleBatchMoveAction(ApiRequest request, GameManager gameManager) throws IOException {
+        String postBody = request.getBody();
+
+        List<String> directions = new ArrayList<>();
+        try {
+             JSONArray directionsJson = new JSONObject(postBody).getJSONArray("directions");
+             for (int i = 0; i < directionsJson.length(); i++) {
+                  directions.add(directionsJson.getString(i));
+             }
+        } catch (Exception e) {
+             LOG.warn("Error parsing batch move JSON: {}", e.getMessage());
+             return ApiResponse.text(400, "Expected a JSON body like {\"directions\": [\"UP\", \"LEFT\"]}.");
+        }
+        if (directions.size() > MAX_BATCH_MOVES) {
+             return ApiResponse.text(400, "At most " + MAX_BATCH_MOVES + " directions per batch.");
+        }
+
+        byte[] body = serializer.toMoveBatchJsonBytes(gameManager.processPlayerMoves(directions));
+        return jsonResponse(request, body);
+    }
+
+    // Handles the restart action. An optional seed ({"seed": n} or ?seed=n) starts the world that seed determines,
+    // so everyone restarting with the same seed and making the same moves plays the same game.
+    private ApiResponse handleRestartAction(ApiRequest request, GameManager gameManager) throws IOException {
+        LOG.info("WebServer: Processing restart action...");
+        Long seed;
+        try {
+            seed = parseSeed(request);
+        } catch (RuntimeException e) { // JSONException or NumberFormatException
+            LOG.warn("Error parsing restart seed: {}", e.getMessage());
+            return ApiResponse.text(400, "Expected an integer seed, e.g. {\"seed\": 42}.");
+        }
+        if (seed == null) {
+            gameManager.restartGame();
+        } else {
+            gameManager.restartGame(seed);
+        }
+        // Return the new initial game state, with the seed that reproduces its world
+        return getState(request, gameManager)
+                .header("Access-Control-Expose-Headers", "ETag, X-World-Seed")
+                .header("X-World-Seed", Long.toString(gameManager.getSeed()));
+    }
+
+    // Reads the seed from ?seed= or the JSON body; null when neither gives one
+    private Long parseSeed(ApiRequest request) throws IOException {
+        String seed = request.getQueryParameter("seed");
+        if (seed != null) {
+            return Long.parseLong(seed);
+        }
+        String postBody = request.getBody();
+        if (postBody == null || postBody.isBlank()) {
+            return null;
+        }
+        JSONObject jsonBody = new JSONObject(postBody);
+        return jsonBody.has("seed") ? jsonBody.getLong("seed") : null;
+    }
+}
@@ -3,41 +3,159 @@ package com.csci513.finalproject.core;
 import com.csci513.finalproject.composite.FeatureGroup;
 import com.csci513.finalproject.factory.PirateShipFactory;
 import com.csci513.finalproject.factory.StandardPirateShipFactory;
+import com.csci513.finalproject.logging.Logger;
+import com.csci513.finalproject.metrics.GameMetrics;
+import com.csci513.finalproject.metrics.LatencyHistogram;
 import com.csci513.finalproject.model.characters.ColumbusShip;
+import com.csci513.finalproject.model.characters.GameCharacter;
 import com.csci513.finalproject.model.characters.PirateShip;
 import com.csci513.finalproject.model.characters.SeaMonster;
 import com.csci513.finalproject.model.map.OceanMap;
+import com.csci513.finalproject.model.map.OpenCellDraw;
 import com.csci513.finalproject.utils.Position;
+import com.csci513.finalproject.utils.SplitMix64;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
-import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 // Manages the game state and updates.
 public class GameManager {
 
-    private OceanMap oceanMap;
+    private static final Logger LOG = Logger.get(GameManager.class);
+
+    private volatile OceanMap oceanMap; // Replaced only when a restart asks for a new world seed
     private GameState gameState;
     private ColumbusShip columbusShip;
     private List<PirateShip> pirateShips;
     private List<SeaMonster> seaMonsters;
     private FeatureGroup monsterZone; 
-    private Random random = new Random();
-    private final int mapWidth = 20; // Define map size constants
-    private final int mapHeight = 20;
+    private SpatialIndex entityIndex; // Characters by map area, for tile queries; guarded by this
+    // Everything random is derived from seeds: the world seed generates the map and the first game's seed,
+    // and each game seed splits into independent streams for spawning and for every entity's patrol,
+    // so the same seeds and moves always play out the same way
+    private long seed;          // World seed, guarded by this
+    private long gameSeed;      // Seed of the current game, guarded by this
+    private long nextGameSeed;  // Drawn by a restart that keeps the map
+    private SplitMix64 spawnRandom;
+    private SplitMix64 entityRandom; // Split once per entity
+    private GameRecording recording; // Seeds and moves of the current game, guarded by this
+    private MoveJournal.SessionLog journal; // Guarded by this; null unless the game is journaled
+    private boolean metricsEnabled = true; // Off for games re-simulated by a replay; guarded by this
+    public static final int DEFAULT_MAP_WIDTH = 20; // Define map size constants
+    public static final int DEFAULT_MAP_HEIGHT = 20;
+    // Columbus, 2 pirates and 4 monsters spawn in the treasure's ocean region. From 5x5 up, 5 single-cell
+    // islands can seal off at most one cell, which never holds the start, so that region has 19 cells or more.
+    public static final int MIN_MAP_SIDE = 5;
+    private final int mapWidth;
+    private final int mapHeight;
+
+    // World version, bumped whenever a move or restart changes what clients see
+    private final String worldId = Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+    private volatile long version = 0;
+    private volatile StateSnapshot stateSnapshot;
+    private volatile StateSnapshot binaryStateSnapshot;
+    private final GameStateSerializer stateSerializer = new GameStateSerializer();
+    private final BinaryStateEncoder binaryEncoder = new BinaryStateEncoder();
+    static final int CHANGE_LOG_TICKS = 64; // Recent ticks available to delta requests
+    private final ChangeLog changeLog = new ChangeLog(CHANGE_LOG_TICKS);
+    private final GameUpdateBroadcaster broadcaster = new GameUpdateBroadcaster();
+    private volatile MapPayload mapPayload; // Static map layer, rebuilt only when the map changes
+    private volatile MapPayload binaryMapPayload;
+
+    // Rough per-object sizes for estimateMemoryBytes()
+    private static final long BASE_OVERHEAD_BYTES = 2048;  // GameManager, state, helpers and their buffers
+    private static final long ENTITY_BYTES = 128;          // Ship or monster with its Position and strategy
+    private static final long CHANGE_SET_BYTES = 128;      // ChangeSet with two small BitSets
 
     public GameManager() {
-        // Initialize map (using Singleton)
-        this.oceanMap = OceanMap.getInstance(mapWidth, mapHeight); 
-        initializeGame(); 
+        this(DEFAULT_MAP_WIDTH, DEFAULT_MAP_HEIGHT);
+    }
+
+    public GameManager(int mapWidth, int mapHeight) {
+        this(mapWidth, mapHeight, ThreadLocalRandom.current().nextLong());
+    }
+
+    // Builds the world determined by seed; equal seeds and moves always produce equal games
+    public GameManager(int mapWidth, int mapHeight, long seed) {
+        this(mapWidth, mapHeight, seed, firstGameSeed(seed));
+    }
+
+    // Rebuilds a game from the seeds recorded by a MoveJournal
+    GameManager(int mapWidth, int mapHeight, long seed, long gameSeed) {
+        checkMapSize(mapWidth, mapHeight);
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+        this.seed = seed;
+        // Maps never change once built, so games of the same world share one from the template cache
+        this.oceanMap = generateMap(seed);
+        initializeGame(gameSeed); 
+    }
+
+    // Independent copy of source at its current turn, sharing only the immutable map. The copy has no
+    // journal or subscribers, records its own moves, and later moves on either game do not affect the other.
+    GameManager(GameManager source) {
+        synchronized (source) {
+            this.mapWidth = source.mapWidth;
+            this.mapHeight = source.mapHeight;
+            this.seed = source.seed;
+            this.gameSeed = source.gameSeed;
+            this.nextGameSeed = source.nextGameSeed;
+            this.spawnRandom = source.spawnRandom.copy();
+            this.entityRandom = source.entityRandom.copy();
+            this.oceanMap = source.oceanMap;
+            this.metricsEnabled = source.metricsEnabled;
+            this.recording = source.recording.copy(); // Same game id, so a copy's recording replays like the source's
+            this.gameState = source.gameState.copy();
+            Position player = source.columbusShip.getPosition();
+            this.columbusShip = new ColumbusShip(player.getX(), player.getY(), oceanMap);
+            this.pirateShips = new ArrayList<>(source.pirateShips.size());
+            for (PirateShip pirate : source.pirateShips) {
+                pirateShips.add(pirate.copy());
+            }
+            this.seaMonsters = new ArrayList<>(source.seaMonsters.size());
+            this.monsterZone = new FeatureGroup("Shallow Monsters");
+            for (SeaMonster monster : source.seaMonsters) {
+                SeaMonster copy = monster.copy();
+                seaMonsters.add(copy);
+                monsterZone.addFeature(copy);
+            }
+            setupObservers();
+            buildEntityIndex();
+            this.version = source.version;
+            changeLog.reset(version);
+        }
+    }
+
+    // Rejects a size no game can be set up on, before any map is built for it
+    public static void checkMapSize(int mapWidth, int mapHeight) {
+        if (mapWidth < MIN_MAP_SIDE || mapHeight < MIN_MAP_SIDE
+                || mapWidth > OceanMap.MAX_DIMENSION || mapHeight > OceanMap.MAX_DIMENSION) {
+            throw new IllegalArgumentException("Map size must be between " + MIN_MAP_SIDE + "x" + MIN_MAP_SIDE
+                    + " and " + OceanMap.MAX_DIMENSION + "x" + OceanMap.MAX_DIMENSION + ", got " + mapWidth + "x" + mapHeight);
+        }
+    }
+
+    // The template cache splits a world seed into the map's stream; the value after that split seeds the first game
+    private OceanMap generateMap(long seed) {
+        return MapTemplateCache.shared().get(mapWidth, mapHeight, seed);
+    }
+
+    private static long firstGameSeed(long seed) {
+        SplitMix64 world = new SplitMix64(seed);
+        world.split();
+        return world.nextLong();
     }
 
     // Method to initialize or reset the game state
-    private synchronized void initializeGame() {
-        System.out.println("Initializing/Resetting game...");
-        this.oceanMap = OceanMap.getInstance(mapWidth, mapHeight);
+    private synchronized void initializeGame(long gameSeed) {
+        LOG.info("Initializing/Resetting game...");
+        SplitMix64 game = new SplitMix64(gameSeed);
+        this.gameSeed = gameSeed;
+        this.recording = new GameRecording(mapWidth, mapHeight, seed, gameSeed);
+        this.nextGameSeed = game.nextLong();
+        this.spawnRandom = game.split();
+        this.entityRandom = game.split();
         this.gameState = new GameState(); 
         this.pirateShips = new ArrayList<>();
         this.seaMonsters = new ArrayList<>();
@@ -47,33 +165,32 @@ public class GameManager {
         // Initialize characters and observers
         initializeCharacters();
         setupObservers();
+        buildEntityIndex();
 
         gameState.setStatusMessage("Game ready. Use controls to move Columbus.");
-        System.out.println("Game initialization complete.");
+        LOG.info("Game initialization complete.");
     }
 
 
     private void initializeCharacters() {
-        Set<Position> occupiedPositions = new HashSet<>();
+        // Every character gets its own open-water cell, drawn without retries
+        OpenCellDraw spawnCells = oceanMap.drawOpenCells();
 
-        // Place Columbus
-        // Ensure player starts at a valid position (not on potential future islands)
-        // let's use random position
-        Position columbusStart = getRandomValidPosition(occupiedPositions);
+        // Place Columbus at a random position
+        Position columbusStart = spawnCells.next(spawnRandom);
 
-        this.columbusShip = new ColumbusShip(columbusStart.getX(), columbusStart.getY());
-        occupiedPositions.add(columbusStart);
+        this.columbusShip = new ColumbusShip(columbusStart.getX(), columbusStart.getY(), oceanMap);
 
         // Place Pirates using Factory
-        PirateShipFactory factory = new StandardPirateShipFactory();
-        addPirate("PATROL", factory, occupiedPositions);
-        addPirate("PREDICTIVE_CHASER", factory, occupiedPositions);
+        PirateShipFactory factory = new StandardPirateShipFactory(entityRandom);
+        addPirate("PATROL", factory, spawnCells);
+        addPirate("PREDICTIVE_CHASER", factory, spawnCells);
 
         // Place Sea Monsters (Increased number)
-        addSeaMonster(occupiedPositions);
-        addSeaMonster(occupiedPositions);
-        addSeaMonster(occupiedPositions);
-        addSeaMonster(occupiedPositions); // Now 4 monsters
+        addSeaMonster(spawnCells);
+        addSeaMonster(spawnCells);
+        addSeaMonster(spawnCells);
+        addSeaMonster(spawnCells); // Now 4 monsters
 
         // Add monsters to the composite group
         for(SeaMonster monster : this.seaMonsters) {
@@ -83,79 +200,145 @@ public class GameManager {
     }
 
     // Helper to add a pirate at a unique random position
-    private void addPirate(String type, PirateShipFactory factory, Set<Position> occupied) {
-        Position pos;
-        do {
-            pos = getRandomValidPosition(occupied);
-        } while (occupied.contains(pos)); // Loop should be redundant if getRandomValidPosition works
-        occupied.add(pos);
-        PirateShip newPirate = factory.orderPirateShip(type, pos);
+    private void addPirate(String type, PirateShipFactory factory, OpenCellDraw spawnCells) {
+        Position pos = spawnCells.next(spawnRandom);
+        PirateShip newPirate = factory.orderPirateShip(type, pos, oceanMap);
         this.pirateShips.add(newPirate);
         // Re-register observer if observers are cleared during reset
         if (this.columbusShip != null) {
              this.columbusShip.registerObserver(newPirate);
         }
-        System.out.println("Placed " + type + " pirate at " + pos);
+        LOG.debug("Placed {} pirate at {}", type, pos);
     }
 
     // Helper to add a sea monster at a unique random position
-    private void addSeaMonster(Set<Position> occupied) {
-         Position pos;
-         do {
-             pos = getRandomValidPosition(occupied);
-         } while (occupied.contains(pos)); // Loop should be redundant if getRandomValidPosition works
-         occupied.add(pos);
-         SeaMonster monster = new SeaMonster(pos.getX(), pos.getY());
+    private void addSeaMonster(OpenCellDraw spawnCells) {
+         Position pos = spawnCells.next(spawnRandom);
+         SeaMonster monster = new SeaMonster(pos.getX(), pos.getY(), oceanMap, entityRandom.split());
          this.seaMonsters.add(monster);
-         System.out.println("Placed SeaMonster at " + pos);
+         LOG.debug("Placed SeaMonster at {}", pos);
     }
 
-    // Helper to get a random valid position (not occupied, not island)
-    private Position getRandomValidPosition(Set<Position> occupied) {
-        Position pos;
-        boolean positionIsValid;
-        do {
-             int x = random.nextInt(oceanMap.getWidth());
-             int y = random.nextInt(oceanMap.getHeight());
-             pos = new Position(x, y);
-             // Check if occupied or if it's an island
-             boolean isIsland = oceanMap.isIsland(x, y); // Use the OceanMap method
-             positionIsValid = !occupied.contains(pos) && !isIsland;
-        } while (!positionIsValid);
-        return pos;
-    }
 
+    private void buildEntityIndex() {
+        entityIndex = new SpatialIndex();
+        entityIndex.add(SpatialIndex.Kind.PLAYER, 0, columbusShip);
+        for (int i = 0; i < pirateShips.size(); i++) {
+            entityIndex.add(SpatialIndex.Kind.PIRATE, i, pirateShips.get(i));
+        }
+        for (int i = 0; i < seaMonsters.size(); i++) {
+            entityIndex.add(SpatialIndex.Kind.MONSTER, i, seaMonsters.get(i));
+        }
+    }
 
     private void setupObservers() {
         // Ensure Columbus exists before registering observers
         if (this.columbusShip == null) {
-            System.err.println("Attempted to setup observers before ColumbusShip was initialized!");
+            LOG.error("Attempted to setup observers before ColumbusShip was initialized!");
             return;
         }
         // Clear existing observers from Columbus first, in case of reset
         this.columbusShip.clearObservers(); // Need to add clearObservers() method to ColumbusShip
 
         // Register pirates to observe Columbus
-        System.out.println("Setting up observers...");
+        LOG.debug("Setting up observers...");
         for (PirateShip pirate : pirateShips) {
             this.columbusShip.registerObserver(pirate);
         }
-        System.out.println("Observers set up for " + pirateShips.size() + " pirates.");
+        LOG.debug("Observers set up for {} pirates.", pirateShips.size());
     }
 
     // Method called by the API controller when a move request comes in
     public synchronized void processPlayerMove(String direction) {
+        if (applyMove(direction)) {
+            publishUpdate();
+        }
+    }
+
+    // Applies the directions in order under a single lock acquisition, stopping early once the game is over.
+    // Subscribers receive one update for the whole batch; the returned snapshot is the state after the last step.
+    public synchronized MoveBatchResult processPlayerMoves(List<String> directions) {
+        List<MoveBatchResult.Step> steps = new ArrayList<>(directions.size());
+        for (String direction : directions) {
+            if (!applyMove(direction)) {
+                break; // Game over
+            }
+            steps.add(new MoveBatchResult.Step(direction, columbusShip.getPosition(),
+                    gameState.isGameOver(), version));
+        }
+        if (!steps.isEmpty()) {
+            publishUpdate();
+        }
+        return new MoveBatchResult(steps, getStateSnapshot());
+    }
+
+    // Runs one tick for the given player direction; returns false if the game was already over.
+    // Must be called while holding this GameManager's lock.
+    private boolean applyMove(String direction) {
         if (gameState.isGameOver()) {
-            System.out.println("GameManager: Game is over, ignoring move.");
-            return;
+            LOG.debug("GameManager: Game is over, ignoring move.");
+            return false;
         }
 
-        System.out.println("GameManager: Processing player move: " + direction);
+        LOG.debug("GameManager: Processing player move: {}", direction);
+        long tickStart = System.nanoTime();
+
+        // Remember where everything was so the tick's changes can be recorded
+        Position playerBefore = columbusShip.getPosition();
+        Position[] piratesBefore = positionsOf(pirateShips);
+        Position[] monstersBefore = positionsOf(seaMonsters);
+        boolean gameOverBefore = gameState.isGameOver();
+        String messageBefore = gameState.getStatusMessage();
 
+        long phaseStart = System.nanoTime();
         columbusShip.move(direction); // Modify ColumbusShip.move to accept direction
+        recordPhase(GameMetrics.COLUMBUS_MOVE, phaseStart);
 
+        phaseStart = System.nanoTime();
         moveNPCs();
+        recordPhase(GameMetrics.NPC_MOVE, phaseStart);
+
+        phaseStart = System.nanoTime();
         updateGameStatus();
+        recordPhase(GameMetrics.STATUS_UPDATE, phaseStart);
+        entityIndex.refresh();
+        version++;
+
+        ChangeLog.ChangeSet change = new ChangeLog.ChangeSet(version);
+        change.setPlayerMoved(!playerBefore.equals(columbusShip.getPosition()));
+        change.setStatusChanged(gameOverBefore != gameState.isGameOver()
+                || !messageBefore.equals(gameState.getStatusMessage()));
+        for (int i = 0; i < piratesBefore.length; i++) {
+            if (!piratesBefore[i].equals(pirateShips.get(i).getPosition())) {
+                change.getMovedPirates().set(i);
+            }
+        }
+        for (int i = 0; i < monstersBefore.length; i++) {
+            if (!monstersBefore[i].equals(seaMonsters.get(i).getPosition())) {
+                change.getMovedMonsters().set(i);
+            }
+        }
+        changeLog.record(change);
+        recording.append(direction);
+        if (journal != null) {
+            journal.appendMove(direction, gameState.isGameOver());
+        }
+        recordPhase(GameMetrics.TICK, tickStart);
+        return true;
+    }
+
+    private void recordPhase(LatencyHistogram histogram, long startNanos) {
+        if (metricsEnabled) {
+            histogram.recordSince(startNanos);
+        }
+    }
+
+    private static Position[] positionsOf(List<? extends GameCharacter> characters) {
+        Position[] positions = new Position[characters.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = characters.get(i).getPosition();
+        }
+        return positions;
     }
 
     // Helper to move all non-player characters
@@ -176,7 +359,7 @@ public class GameManager {
             if (columbusShip.getPosition().equals(pirate.getPosition())) {
                 gameState.setGameOver(true);
                 gameState.setStatusMessage("Caught by a pirate! Game Over.");
-                System.out.println("GameManager: Columbus caught by pirate at " + columbusShip.getPosition());
+                LOG.info("GameManager: Columbus caught by pirate at {}", columbusShip.getPosition());
                 return; // Game ends
             }
         }
@@ -187,7 +370,7 @@ public class GameManager {
             if (monster.isActive() && columbusShip.getPosition().equals(monster.getPosition())) {
                  gameState.setGameOver(true);
                  gameState.setStatusMessage("Caught by a Sea Monster! Game Over.");
-                 System.out.println("GameManager: Columbus caught by monster at " + columbusShip.getPosition());
+                 LOG.info("GameManager: Columbus caught by monster at {}", columbusShip.getPosition());
                  return; // Game ends
             }
         }
@@ -197,7 +380,7 @@ public class GameManager {
         if (treasurePos != null && columbusShip.getPosition().equals(treasurePos)) {
              gameState.setGameOver(true);
              gameState.setStatusMessage("Columbus found the treasure at [" + treasurePos.getX() + "," + treasurePos.getY() + "]! You Win!");
-             System.out.println("GameManager: Columbus won at " + columbusShip.getPosition());
+             LOG.info("GameManager: Columbus won at {}", columbusShip.getPosition());
              return; // Game ends
         }
 
@@ -207,12 +390,200 @@ public class GameManager {
         }
     }
 
-    // Method to restart the game
+    // Method to restart the game; the map is kept and the next game seed of this world is used
     public synchronized void restartGame() {
-        System.out.println("GameManager: Received restart request.");
-        initializeGame(); // Re-initialize the game state
+        LOG.info("GameManager: Received restart request.");
+        initializeGame(nextGameSeed); // Re-initialize the game state
+        finishRestart();
     }
 
+    // Restarts with the world determined by seed, exactly as new GameManager(width, height, seed) would build it
+    public synchronized void restartGame(long seed) {
+        LOG.info("GameManager: Received restart request with seed {}.", seed);
+        this.seed = seed;
+        this.oceanMap = generateMap(seed);
+        initializeGame(firstGameSeed(seed));
+        finishRestart();
+    }
+
+    private void finishRestart() {
+        if (journal != null) {
+            journal.beginGame(mapWidth, mapHeight, seed, gameSeed);
+        }
+        version++;
+        changeLog.reset(version); // Entities were replaced, so older deltas cannot apply
+        publishUpdate();
+    }
+
+    // Pushes the new state to event-stream subscribers, encoding it only if someone is listening
+    private void publishUpdate() {
+        if (broadcaster.hasSubscribers()) {
+            broadcaster.publish(getStateSnapshot());
+        }
+    }
+
+    // Opens an event stream for this game, starting with the current state
+    public GameUpdateBroadcaster.Subscription subscribe() {
+        return broadcaster.subscribe(getStateSnapshot());
+    }
+
+    // Keeps this game's ticks out of the process-wide metrics, which should only time live play.
+    // Copies made from it afterwards inherit the setting.
+    synchronized void disableMetrics() {
+        metricsEnabled = false;
+    }
+
+    // Journals this game from its first move on; a game that has already moved cannot start a journal
+    synchronized void startJournal(MoveJournal.SessionLog log) {
+        if (version != 0) {
+            throw new IllegalStateException("Game has already started");
+        }
+        log.beginGame(mapWidth, mapHeight, seed, gameSeed);
+        this.journal = log;
+    }
+
+    // Continues an existing journal, once the game has been rebuilt by replaying it
+    synchronized void resumeJournal(MoveJournal.SessionLog log) {
+        this.journal = log;
+    }
+
+    // Stops journaling and returns the journal that was in use, or null
+    synchronized MoveJournal.SessionLog detachJournal() {
+        MoveJournal.SessionLog detached = journal;
+        journal = null;
+        return detached;
+    }
+
+    public int getSubscriberCount() {
+        return broadcaster.getSubscriberCount();
+    }
+
+    // Called when the game is discarded: ends its event streams so clients reconnect to a live session
+    public void close() {
+        broadcaster.closeAll();
+    }
+
+    // Rough heap footprint of this game (map unless a cached template, entities, change log and cached payloads).
+    // Read without the lock, so it may be slightly stale; it is only used for budgeting.
+    public long estimateMemoryBytes() {
+        long bytes = estimateStateBytes();
+        if (!MapTemplateCache.shared().contains(oceanMap)) {
+            bytes += oceanMap.estimateMemoryBytes(); // Templates still cached are accounted to the cache
+        }
+        return bytes;
+    }
+
+    // The same without the map, for callers holding many games that share one, such as replay checkpoints
+    long estimateStateBytes() {
+        long bytes = BASE_OVERHEAD_BYTES;
+        bytes += ENTITY_BYTES * (pirateShips.size() + seaMonsters.size() + 1);
+        bytes += CHANGE_SET_BYTES * changeLog.capacity();
+        bytes += recording.encodedBytes();
+        bytes += bodySize(stateSnapshot == null ? null : stateSnapshot.getBody());
+        bytes += bodySize(binaryStateSnapshot == null ? null : binaryStateSnapshot.getBody());
+        bytes += bodySize(mapPayload == null ? null : mapPayload.getBody());
+        bytes += bodySize(binaryMapPayload == null ? null : binaryMapPayload.getBody());
+        return bytes;
+    }
+
+    private static long bodySize(byte[] body) {
+        return body == null ? 0 : 16 + body.length;
+    }
+
+    // Seed that determined the map and the first game; restartGame(seed) replaces it
+    public synchronized long getSeed() {
+        return seed;
+    }
+
+    // Seed of the current game's spawns and patrols; a restart draws a new one
+    public synchronized long getGameSeed() {
+        return gameSeed;
+    }
+
+    // Snapshot of the current game's seeds and moves, from which GameReplay rebuilds any turn
+    public synchronized GameRecording getRecording() {
+        return recording.copy();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // Returns the serialized state for the current version, building it at most once per version
+    public StateSnapshot getStateSnapshot() {
+        return getStateSnapshot(StateSnapshot.JSON);
+    }
+
+    // Same as getStateSnapshot() in the given content type (StateSnapshot.JSON or StateSnapshot.BINARY)
+    public StateSnapshot getStateSnapshot(String contentType) {
+        boolean binary = StateSnapshot.BINARY.equals(contentType);
+        StateSnapshot snapshot = binary ? binaryStateSnapshot : stateSnapshot;
+        if (snapshot != null && snapshot.getVersion() == version) {
+            return snapshot; // Lock-free fast path for idle games
+        }
+        synchronized (this) {
+            snapshot = binary ? binaryStateSnapshot : stateSnapshot;
+            if (snapshot == null || snapshot.getVersion() != version) {
+                long serializeStart = System.nanoTime();
+                if (binary) {
+                    snapshot = new StateSnapshot(worldId, version, binaryEncoder.encodeState(this), StateSnapshot.BINARY);
+                    binaryStateSnapshot = snapshot;
+                } else {
+                    snapshot = new StateSnapshot(worldId, version, stateSerializer.toJsonBytes(this), StateSnapshot.JSON);
+                    stateSnapshot = snapshot;
+                }
+                recordPhase(GameMetrics.SERIALIZE_STATE, serializeStart);
+            }
+            return snapshot;
+        }
+    }
+
+    // Returns the serialized static map layer; a map never changes after creation, so no lock is needed
+    public MapPayload getMapPayload() {
+        return getMapPayload(StateSnapshot.JSON);
+    }
+
+    public MapPayload getMapPayload(String contentType) {
+        boolean binary = StateSnapshot.BINARY.equals(contentType);
+        OceanMap map = oceanMap;
+        MapPayload payload = binary ? binaryMapPayload : mapPayload;
+        if (payload == null || !payload.getMapId().equals(map.getMapId())) {
+            if (binary) {
+                payload = new MapPayload(map.getMapId(), binaryEncoder.encodeMap(map), StateSnapshot.BINARY);
+                binaryMapPayload = payload;
+            } else {
+                payload = new MapPayload(map.getMapId(), stateSerializer.toMapJsonBytes(map), StateSnapshot.JSON);
+                mapPayload = payload;
+            }
+        }
+        return payload;
+    }
+
+    // Returns the serialized changes since the given version,
+    // or null when that version is too old (or unknown) and the client needs a full snapshot
+    public synchronized byte[] getDeltaJson(long sinceVersion) {
+        ChangeLog.ChangeSet changes = changeLog.since(sinceVersion, version);
+        if (changes == null) {
+            return null;
+        }
+        long serializeStart = System.nanoTime();
+        byte[] delta = stateSerializer.toDeltaJsonBytes(this, sinceVersion, changes);
+        recordPhase(GameMetrics.SERIALIZE_DELTA, serializeStart);
+        return delta;
+    }
+
+
+    // Serializes one rectangle of the map, which must lie within it: the terrain (cached per map id and
+    // rectangle) plus the characters inside it, found through the spatial index. The ETag names the
+    // rectangle and the world version.
+    public synchronized StateSnapshot getTile(int x, int y, int width, int height) {
+        OceanMap map = oceanMap;
+        byte[] terrain = MapTileCache.shared().getTerrainJson(map, x, y, width, height);
+        byte[] body = stateSerializer.toTileJsonBytes(map.getMapId(), x, y, width, height, terrain,
+                version, entityIndex.query(x, y, width, height));
+        String tileId = worldId + "-tile." + x + "." + y + "." + width + "." + height;
+        return new StateSnapshot(tileId, version, body, StateSnapshot.JSON);
+    }
 
     // Getters needed by the WebServer to serialize state
     public GameState getGameState() {
@@ -0,0 +1,116 @@
+package com.csci513.finalproject.core;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Everything needed to play a game again: its map size, seeds and the directions applied so far.
+// Directions are packed 2 bits each, 32 per long, so 10,000 moves take 2.5 KB; the rare move with
+// an unknown direction (which still advances the NPCs) is kept in a sorted list of turn numbers.
+// Not thread-safe: the owning GameManager appends under its lock and hands out copies.
+public class GameRecording {
+
+    private static final String[] DIRECTIONS = {"UP", "DOWN", "LEFT", "RIGHT"};
+    private static final String NO_DIRECTION = "NONE";
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+
+    private final long id; // Unique per game in this JVM, so replays can tell games apart
+    private final int width;
+    private final int height;
+    private final long seed;
+    private final long gameSeed;
+    private long[] packed;
+    private int length;
+    private int[] unknownTurns;
+    private int unknownCount;
+
+    public GameRecording(int width, int height, long seed, long gameSeed) {
+        this(NEXT_ID.incrementAndGet(), width, height, seed, gameSeed, new long[4], 0, new int[0], 0);
+    }
+
+    private GameRecording(long id, int width, int height, long seed, long gameSeed,
+                          long[] packed, int length, int[] unknownTurns, int unknownCount) {
+        this.id = id;
+        this.width = width;
+        this.height = height;
+        this.seed = seed;
+        this.gameSeed = gameSeed;
+        this.packed = packed;
+        this.length = length;
+        this.unknownTurns = unknownTurns;
+        this.unknownCount = unknownCount;
+    }
+
+    public void append(String direction) {
+        int code = directionCode(direction);
+        if (length >>> 5 == packed.length) {
+            packed = Arrays.copyOf(packed, Math.max(4, packed.length * 2)); // A copy may be trimmed to nothing
+        }
+        if (code < 0) {
+            if (unknownCount == unknownTurns.length) {
+                unknownTurns = Arrays.copyOf(unknownTurns, Math.max(4, unknownCount * 2));
+            }
+            unknownTurns[unknownCount++] = length;
+            code = 0;
+        }
+        packed[length >>> 5] |= (long) code << ((length & 31) << 1);
+        length++;
+    }
+
+    // Direction of the move that produced turn + 1
+    public String getDirection(int turn) {
+        if (turn < 0 || turn >= length) {
+            throw new IndexOutOfBoundsException("Turn " + turn + " of " + length);
+        }
+        if (unknownCount > 0 && Arrays.binarySearch(unknownTurns, 0, unknownCount, turn) >= 0) {
+            return NO_DIRECTION;
+        }
+        return DIRECTIONS[(int) (packed[turn >>> 5] >>> ((turn & 31) << 1)) & 3];
+    }
+
+    // Snapshot that later appends do not affect
+    public GameRecording copy() {
+        return new GameRecording(id, width, height, seed, gameSeed,
+                Arrays.copyOf(packed, (length + 31) >>> 5), length,
+                Arrays.copyOf(unknownTurns, unknownCount), unknownCount);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getGameSeed() {
+        return gameSeed;
+    }
+
+    // Number of recorded moves, which is also the last turn that can be replayed
+    public int length() {
+        return length;
+    }
+
+    // Bytes used by the move stream
+    public long encodedBytes() {
+        return 8L * ((length + 31) >>> 5) + 4L * unknownCount;
+    }
+
+    private static int directionCode(String direction) {
+        switch (direction.toUpperCase()) {
+            case "UP": return 0;
+            case "DOWN": return 1;
+            case "LEFT": return 2;
+            case "RIGHT": return 3;
+            default: return -1;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.csci513.finalproject.core;
+
+import com.csci513.finalproject.logging.Logger;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Rebuilds any turn of a recorded game by re-simulating it headless. Every checkpointInterval turns a
+// copy of the simulated game is kept, so a seek only replays the turns since the nearest checkpoint
+// at or before it; checkpoints are created lazily by the seeks that pass them.
+// Timelines of the most recently replayed games are cached up to maxGames games and maxBytes of estimated
+// checkpoint memory, least recently used dropped first. Re-simulated ticks are kept out of GameMetrics.
+public class GameReplay {
+
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 500;
+    public static final int DEFAULT_MAX_GAMES = 64;
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+    // Checkpoints of one game, keyed by turn; a game's moves are only ever appended, so they stay valid
+    private static final class Timeline {
+        final TreeMap<Integer, GameManager> checkpoints = new TreeMap<>();
+        long bytes; // Estimate last accounted to totalBytes, guarded by timelines
+    }
+
+    private final int checkpointInterval;
+    private final int maxGames;
+    private final long maxBytes;
+    private final Map<Long, Timeline> timelines; // Keyed by GameRecording id, guarded by itself
+    private long totalBytes; // Guarded by timelines
+
+    public GameReplay() {
+        this(DEFAULT_CHECKPOINT_INTERVAL, DEFAULT_MAX_GAMES, DEFAULT_MAX_BYTES);
+    }
+
+    public GameReplay(int checkpointInterval, int maxGames) {
+        this(checkpointInterval, maxGames, DEFAULT_MAX_BYTES);
+    }
+
+    public GameReplay(int checkpointInterval, int maxGames, long maxBytes) {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive");
+        }
+        this.checkpointInterval = checkpointInterval;
+        this.maxGames = maxGames;
+        this.maxBytes = maxBytes;
+        this.timelines = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    // Returns a new game in the state the recorded game was in after the given number of moves.
+    // The result belongs to the caller; the turn must be between 0 and recording.length().
+    public GameManager seek(GameRecording recording, int turn) {
+        if (turn < 0 || turn > recording.length()) {
+            throw new IllegalArgumentException("Turn " + turn + " is outside 0.." + recording.length());
+        }
+        Timeline timeline;
+        synchronized (timelines) {
+            timeline = timelines.computeIfAbsent(recording.getId(), id -> new Timeline());
+        }
+        GameManager game;
+        long bytes;
+        synchronized (timeline) {
+            game = Logger.muted(() -> advance(timeline, recording, turn));
+            bytes = estimateBytes(timeline);
+        }
+        synchronized (timelines) {
+            if (timelines.get(recording.getId()) == timeline) { // Not dropped while we were replaying
+                totalBytes += bytes - timeline.bytes;
+                timeline.bytes = bytes;
+                evict();
+            }
+        }
+        return game;
+    }
+
+    private GameManager advance(Timeline timeline, GameRecording recording, int turn) {
+        if (timeline.checkpoints.isEmpty()) {
+            GameManager first = new GameManager(recording.getWidth(), recording.getHeight(),
+                    recording.getSeed(), recording.getGameSeed());
+            first.disableMetrics(); // Inherited by every copy below
+            timeline.checkpoints.put(0, first);
+        }
+        Map.Entry<Integer, GameManager> start = timeline.checkpoints.floorEntry(turn);
+        GameManager game = new GameManager(start.getValue());
+        for (int t = start.getKey(); t < turn; ) {
+            game.processPlayerMove(recording.getDirection(t));
+            t++;
+            if (t % checkpointInterval == 0 && !timeline.checkpoints.containsKey(t)) {
+                timeline.checkpoints.put(t, new GameManager(game));
+            }
+        }
+        return game;
+    }
+
+    // Checkpoints share one map, counted once and only when the template cache no longer holds it
+    private static long estimateBytes(Timeline timeline) {
+        long bytes = 0;
+        for (GameManager checkpoint : timeline.checkpoints.values()) {
+            bytes += checkpoint.estimateStateBytes();
+        }
+        GameManager first = timeline.checkpoints.firstEntry().getValue();
+        if (!MapTemplateCache.shared().contains(first.getOceanMap())) {
+            bytes += first.getOceanMap().estimateMemoryBytes();
+        }
+        return bytes;
+    }
+
+    // Always keeps the most recently used timeline, even one larger than the whole budget
+    private void evict() {
+        Iterator<Timeline> eldest = timelines.values().iterator();
+        while ((timelines.size() > maxGames || totalBytes > maxBytes) && timelines.size() > 1) {
+            totalBytes -= eldest.next().bytes;
+            eldest.remove();
+        }
+    }
+
+    // Number of games with cached checkpoints
+    public int size() {
+        synchronized (timelines) {
+            return timelines.size();
+        }
+    }
+
+    // Estimated memory held by cached checkpoints
+    public long getTotalBytes() {
+        synchronized (timelines) {
+            return totalBytes;
+        }
+    }
+
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+}
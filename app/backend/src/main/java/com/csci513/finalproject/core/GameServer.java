@@ -0,0 +1,9 @@
+package com.csci513.finalproject.core;
+
+// A running HTTP backend serving the GameApi; Main picks which implementation to start.
+public interface GameServer {
+
+    int getPort();
+
+    void stop();
+}
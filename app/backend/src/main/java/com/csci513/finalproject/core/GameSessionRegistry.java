@@ -0,0 +1,298 @@
+package com.csci513.finalproject.core;
+
+import com.csci513.finalproject.logging.Logger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Keeps one GameManager per session id.
+// Each session owns its own characters and state, and locking is scoped to that GameManager, so
+// independent games never contend with each other. Given a world seed, every session plays that one
+// curated layout, sharing a single map template, with its own game seed for spawns and patrols.
+// Abandoned games are freed by a background sweeper: sessions idle for longer than the idle timeout
+// expire, and once the session count or estimated memory exceeds its limit the least recently used
+// sessions are evicted. Request threads only record access times and never wait for a sweep.
+// With a MoveJournal, every game's moves are journaled so sessions can be recovered after a restart;
+// removing or evicting a session deletes its journal.
+public class GameSessionRegistry {
+
+    private static final Logger LOG = Logger.get(GameSessionRegistry.class);
+
+    public static final String DEFAULT_SESSION_ID = "default";
+    private static final Pattern VALID_SESSION_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    public static final int DEFAULT_MAX_SESSIONS = 10_000;
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+    private static final Duration SWEEP_INTERVAL = Duration.ofSeconds(30);
+
+    // A game plus when it was last used; lastAccessNanos is written by request threads without locking
+    private static final class Session {
+        final String id;
+        final GameManager game;
+        volatile long lastAccessNanos;
+        volatile long estimatedBytes;
+
+        Session(String id, GameManager game, long now) {
+            this.id = id;
+            this.game = game;
+            this.lastAccessNanos = now;
+            this.estimatedBytes = game.estimateMemoryBytes();
+        }
+    }
+
+    private final ConcurrentMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final int maxSessions;
+    private final long memoryBudgetBytes;
+    private final long idleTimeoutNanos;
+    private final MoveJournal journal; // Null when games are not journaled
+    private final int mapWidth;  // Size of the maps of new sessions
+    private final int mapHeight;
+    private final Long worldSeed; // World of every new session, or null for a random world each
+
+    private final ScheduledExecutorService sweeper;
+    private final AtomicBoolean sweepQueued = new AtomicBoolean();
+    private final AtomicLong estimatedTotalBytes = new AtomicLong(); // Adjusted on create/evict, recomputed by sweeps
+    private final LongAdder evictedIdle = new LongAdder();
+    private final LongAdder evictedOverCapacity = new LongAdder();
+
+    public GameSessionRegistry() {
+        this(DEFAULT_MAX_SESSIONS, defaultMemoryBudget(), DEFAULT_IDLE_TIMEOUT);
+    }
+
+    public GameSessionRegistry(int maxSessions, long memoryBudgetBytes, Duration idleTimeout) {
+        this(maxSessions, memoryBudgetBytes, idleTimeout, null);
+    }
+
+    public GameSessionRegistry(int maxSessions, long memoryBudgetBytes, Duration idleTimeout, MoveJournal journal) {
+        this(maxSessions, memoryBudgetBytes, idleTimeout, journal,
+                GameManager.DEFAULT_MAP_WIDTH, GameManager.DEFAULT_MAP_HEIGHT);
+    }
+
+    public GameSessionRegistry(int maxSessions, long memoryBudgetBytes, Duration idleTimeout, MoveJournal journal,
+                               int mapWidth, int mapHeight) {
+        this(maxSessions, memoryBudgetBytes, idleTimeout, journal, mapWidth, mapHeight, null);
+    }
+
+    public GameSessionRegistry(int maxSessions, long memoryBudgetBytes, Duration idleTimeout, MoveJournal journal,
+                               int mapWidth, int mapHeight, Long worldSeed) {
+        this.maxSessions = maxSessions;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.journal = journal;
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+        this.worldSeed = worldSeed;
+        if (worldSeed != null) {
+            MapTemplateCache.shared().share(mapWidth, mapHeight, worldSeed); // Random worlds stay uncached
+        }
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = SWEEP_INTERVAL.toMillis();
+        sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // A quarter of the maximum heap, leaving room for request buffers and everything else
+    public static long defaultMemoryBudget() {
+        return Runtime.getRuntime().maxMemory() / 4;
+    }
+
+    // Returns the game for the given session, creating a fresh one on first use
+    public GameManager getOrCreate(String sessionId) {
+        validateSessionId(sessionId);
+        long now = System.nanoTime();
+        Session existing = sessions.get(sessionId);
+        if (existing != null) {
+            existing.lastAccessNanos = now; // Fast path, no locking
+            return existing.game;
+        }
+        // Built outside the map's bin lock, since generating a large map can take a second; two requests
+        // racing to create the same session both build a game and the loser's is dropped. Only the cheap
+        // insert runs inside computeIfAbsent, so the winner's journal opens before any other thread sees it.
+        GameManager built = worldSeed == null ? new GameManager(mapWidth, mapHeight)
+                : new GameManager(mapWidth, mapHeight, worldSeed, ThreadLocalRandom.current().nextLong());
+        Session session = sessions.computeIfAbsent(sessionId, id -> {
+            LOG.info("GameSessionRegistry: Creating session {}", id);
+            if (journal != null) {
+                journal.open(id, built);
+            }
+            Session created = new Session(id, built, now);
+            estimatedTotalBytes.addAndGet(created.estimatedBytes);
+            return created;
+        });
+        session.lastAccessNanos = now;
+        if (sessions.size() > maxSessions || estimatedTotalBytes.get() > memoryBudgetBytes) {
+            requestSweep(); // Evict in the background rather than on this request
+        }
+        return session.game;
+    }
+
+    // Returns the game for the given session, or null if it does not exist
+    public GameManager get(String sessionId) {
+        Session session = sessionId == null ? null : sessions.get(sessionId);
+        if (session == null) {
+            return null;
+        }
+        session.lastAccessNanos = System.nanoTime();
+        return session.game;
+    }
+
+    // Drops the session as eviction does: its event streams end and its journal is deleted
+    public GameManager remove(String sessionId) {
+        Session session = sessionId == null ? null : sessions.remove(sessionId);
+        if (session == null) {
+            return null;
+        }
+        estimatedTotalBytes.addAndGet(-session.estimatedBytes);
+        session.game.close();
+        if (journal != null) {
+            journal.discard(session.game);
+        }
+        return session.game;
+    }
+
+    // Restores the sessions found in the journal, e.g. after a restart; returns how many were restored.
+    // Call before serving requests, since a session created meanwhile wins over its journaled game.
+    public int recoverSessions() throws IOException {
+        if (journal == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        int restored = 0;
+        for (Map.Entry<String, GameManager> recovered : journal.recover().entrySet()) {
+            Session session = new Session(recovered.getKey(), recovered.getValue(), now);
+            if (sessions.putIfAbsent(session.id, session) == null) {
+                estimatedTotalBytes.addAndGet(session.estimatedBytes);
+                restored++;
+            } else {
+                journal.discard(session.game);
+            }
+        }
+        return restored;
+    }
+
+    // Snapshot of every game, for metrics
+    public Collection<GameManager> getGames() {
+        return Collections.unmodifiableCollection(
+                sessions.values().stream().map(session -> session.game).collect(Collectors.toList()));
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    // Queues a sweep on the sweeper thread unless one is already pending
+    public void requestSweep() {
+        if (sweepQueued.compareAndSet(false, true)) {
+            sweeper.execute(this::sweep);
+        }
+    }
+
+    // Expires idle sessions, then evicts least recently used ones until within the count and memory limits.
+    // Runs on the sweeper thread (synchronized so an explicit sweep never overlaps a queued one);
+    // a request may still hold an evicted game briefly, and its next request simply starts a new one.
+    synchronized void sweep() {
+        sweepQueued.set(false);
+        try {
+            long now = System.nanoTime();
+            long totalBytes = 0;
+            List<Session> live = new ArrayList<>(sessions.size());
+            for (Session session : sessions.values()) {
+                if (session.game.getSubscriberCount() > 0) {
+                    session.lastAccessNanos = now; // An open event stream means someone is watching
+                }
+                if (now - session.lastAccessNanos > idleTimeoutNanos) {
+                    evict(session, evictedIdle, "idle");
+                    continue;
+                }
+                session.estimatedBytes = session.game.estimateMemoryBytes();
+                totalBytes += session.estimatedBytes;
+                live.add(session);
+            }
+            estimatedTotalBytes.set(totalBytes);
+
+            if (live.size() > maxSessions || totalBytes > memoryBudgetBytes) {
+                live.sort(Comparator.comparingLong(session -> session.lastAccessNanos));
+                int count = live.size();
+                for (Session session : live) {
+                    if (count <= maxSessions && totalBytes <= memoryBudgetBytes) {
+                        break;
+                    }
+                    if (evict(session, evictedOverCapacity, "least recently used")) {
+                        count--;
+                        totalBytes -= session.estimatedBytes;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.error("GameSessionRegistry: Sweep failed", e); // Keep the schedule alive
+        }
+    }
+
+    private boolean evict(Session session, LongAdder counter, String reason) {
+        if (!sessions.remove(session.id, session)) {
+            return false; // Already removed or replaced
+        }
+        estimatedTotalBytes.addAndGet(-session.estimatedBytes);
+        session.game.close();
+        if (journal != null) {
+            journal.discard(session.game);
+        }
+        counter.increment();
+        LOG.info("GameSessionRegistry: Evicted {} session {}", reason, session.id);
+        return true;
+    }
+
+    // Sum of the per-session estimates as of the last sweep, adjusted for sessions created or evicted since
+    public long getEstimatedMemoryBytes() {
+        return Math.max(0, estimatedTotalBytes.get());
+    }
+
+    // Average estimated footprint of one session, for sizing heaps; 0 when there are none
+    public long getEstimatedBytesPerSession() {
+        int count = sessions.size();
+        return count == 0 ? 0 : getEstimatedMemoryBytes() / count;
+    }
+
+    public long getEvictedIdleCount() {
+        return evictedIdle.sum();
+    }
+
+    public long getEvictedOverCapacityCount() {
+        return evictedOverCapacity.sum();
+    }
+
+    // Stops the sweeper thread; sessions stay available
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    public static boolean isValidSessionId(String sessionId) {
+        return sessionId != null && VALID_SESSION_ID.matcher(sessionId).matches();
+    }
+
+    private static void validateSessionId(String sessionId) {
+        if (!isValidSessionId(sessionId)) {
+            throw new IllegalArgumentException("Invalid session id: " + sessionId);
+        }
+    }
+}
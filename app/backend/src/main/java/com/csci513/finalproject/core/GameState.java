@@ -6,6 +6,14 @@ public class GameState {
     private boolean isGameOver = false;
     private String statusMessage = "Game Started";
 
+    // Independent copy, e.g. for a replay checkpoint
+    public GameState copy() {
+        GameState copy = new GameState();
+        copy.isGameOver = isGameOver;
+        copy.statusMessage = statusMessage;
+        return copy;
+    }
+
     public boolean isGameOver() {
         return isGameOver;
     }
@@ -0,0 +1,361 @@
+package com.csci513.finalproject.core;
+
+import com.csci513.finalproject.model.characters.PirateShip;
+import com.csci513.finalproject.model.characters.SeaMonster;
+import com.csci513.finalproject.model.map.OceanMap;
+import com.csci513.finalproject.utils.Position;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+// Builds the JSON representations of a game returned by the /state and /map endpoints.
+public class GameStateSerializer {
+
+    // Must be called while holding the GameManager's lock so the snapshot is consistent
+    public JSONObject toJson(GameManager gameManager) {
+        // Create JSON representation of the game state.
+        // Only the map's id and size are included; islands and switchers are served by /map/{id}.
+        JSONObject jsonState = new JSONObject();
+        JSONObject mapJson = new JSONObject();
+        mapJson.put("id", gameManager.getOceanMap().getMapId());
+        mapJson.put("width", gameManager.getOceanMap().getWidth());
+        mapJson.put("height", gameManager.getOceanMap().getHeight());
+
+        JSONObject playerJson = new JSONObject();
+        playerJson.put("x", gameManager.getColumbusShip().getPosition().getX());
+        playerJson.put("y", gameManager.getColumbusShip().getPosition().getY());
+
+        JSONObject treasureJson = new JSONObject();
+        treasureJson.put("x", gameManager.getOceanMap().getTreasurePosition().getX());
+        treasureJson.put("y", gameManager.getOceanMap().getTreasurePosition().getY());
+
+        JSONArray piratesJson = new JSONArray();
+        gameManager.getPirateShips().forEach(pirate -> {
+            JSONObject pirateJson = new JSONObject();
+            pirateJson.put("x", pirate.getPosition().getX());
+            pirateJson.put("y", pirate.getPosition().getY());
+            pirateJson.put("type", pirate.getClass().getSimpleName());
+            piratesJson.put(pirateJson);
+        });
+
+        JSONArray monstersJson = new JSONArray();
+        gameManager.getSeaMonsters().forEach(monster -> {
+             if (monster.isActive()) { // Only send active monsters
+                 JSONObject monsterJson = new JSONObject();
+                 monsterJson.put("x", monster.getPosition().getX());
+                 monsterJson.put("y", monster.getPosition().getY());
+                 monstersJson.put(monsterJson);
+             }
+        });
+
+        JSONObject statusJson = new JSONObject();
+        statusJson.put("isGameOver", gameManager.getGameState().isGameOver());
+        statusJson.put("message", gameManager.getGameState().getStatusMessage());
+
+        jsonState.put("map", mapJson);
+        jsonState.put("player", playerJson);
+        jsonState.put("treasure", treasureJson);
+        jsonState.put("pirates", piratesJson);
+        jsonState.put("monsters", monstersJson);
+        jsonState.put("status", statusJson);
+        jsonState.put("version", gameManager.getVersion());
+
+        return jsonState;
+    }
+
+    // Builds the static part of a map, which never changes once the map is initialized.
+    // Tiled maps are too large to list: they carry "tiled": true and the largest "tileSize" a client may
+    // request from /map/{id}/tiles instead of the islands and strategySwitchers arrays.
+    public JSONObject toMapJson(OceanMap oceanMap) {
+        JSONObject mapJson = new JSONObject();
+        mapJson.put("id", oceanMap.getMapId());
+        mapJson.put("width", oceanMap.getWidth());
+        mapJson.put("height", oceanMap.getHeight());
+        mapJson.put("tiled", oceanMap.isTiled());
+        if (oceanMap.isTiled()) {
+            mapJson.put("tileSize", MapTileCache.MAX_TILE_SIZE);
+            return mapJson;
+        }
+        // Add island positions
+        JSONArray islandsJson = new JSONArray();
+        oceanMap.getIslandPositions().forEach(islandPos -> {
+            JSONObject islandJson = new JSONObject();
+            islandJson.put("x", islandPos.getX());
+            islandJson.put("y", islandPos.getY());
+            islandsJson.put(islandJson);
+        });
+        mapJson.put("islands", islandsJson);
+
+        // Add strategy switcher positions
+        JSONArray switchersJson = new JSONArray();
+        oceanMap.getStrategySwitcherPositions().forEach(switcherPos -> {
+            JSONObject switcherJson = new JSONObject();
+            switcherJson.put("x", switcherPos.getX());
+            switcherJson.put("y", switcherPos.getY());
+            switchersJson.put(switcherJson);
+        });
+        mapJson.put("strategySwitchers", switchersJson);
+
+        return mapJson;
+    }
+
+    public byte[] toMapJsonBytes(OceanMap oceanMap) {
+        return toMapJson(oceanMap).toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Builds a delta holding only what changed after sinceVersion.
+    // Entities carry their index ("i") into the server's pirate/monster lists.
+    public JSONObject toDeltaJson(GameManager gameManager, long sinceVersion, ChangeLog.ChangeSet changes) {
+        JSONObject deltaJson = new JSONObject();
+        deltaJson.put("delta", true);
+        deltaJson.put("since", sinceVersion);
+        deltaJson.put("version", changes.getVersion());
+
+        if (changes.isPlayerMoved()) {
+            JSONObject playerJson = new JSONObject();
+            playerJson.put("x", gameManager.getColumbusShip().getPosition().getX());
+            playerJson.put("y", gameManager.getColumbusShip().getPosition().getY());
+            deltaJson.put("player", playerJson);
+        }
+
+        JSONArray piratesJson = new JSONArray();
+        changes.getMovedPirates().stream().forEach(i -> {
+            PirateShip pirate = gameManager.getPirateShips().get(i);
+            JSONObject pirateJson = new JSONObject();
+            pirateJson.put("i", i);
+            pirateJson.put("x", pirate.getPosition().getX());
+            pirateJson.put("y", pirate.getPosition().getY());
+            piratesJson.put(pirateJson);
+        });
+        deltaJson.put("pirates", piratesJson);
+
+        JSONArray monstersJson = new JSONArray();
+        changes.getMovedMonsters().stream().forEach(i -> {
+            SeaMonster monster = gameManager.getSeaMonsters().get(i);
+            JSONObject monsterJson = new JSONObject();
+            monsterJson.put("i", i);
+            monsterJson.put("x", monster.getPosition().getX());
+            monsterJson.put("y", monster.getPosition().getY());
+            monsterJson.put("active", monster.isActive());
+            monstersJson.put(monsterJson);
+        });
+        deltaJson.put("monsters", monstersJson);
+
+        if (changes.isStatusChanged()) {
+            JSONObject statusJson = new JSONObject();
+            statusJson.put("isGameOver", gameManager.getGameState().isGameOver());
+            statusJson.put("message", gameManager.getGameState().getStatusMessage());
+            deltaJson.put("status", statusJson);
+        }
+        return deltaJson;
+    }
+
+    // Streams the same document as toJson(...) straight into a pooled buffer. Members are written in a
+    // fixed order, the order toJson puts them in: "map" {"id","width","height"}, "player", "treasure",
+    // "pirates" [{"x","y","type"}...], "monsters" [{"x","y"}...], "status" {"isGameOver","message"}, then
+    // "version". toJson(...).toString() orders members however its HashMap iterates them instead.
+    public byte[] toJsonBytes(GameManager gameManager) {
+        JsonByteWriter writer = JsonByteWriter.acquire();
+        writer.beginObject();
+
+        writer.name("map").beginObject()
+              .name("id").value(gameManager.getOceanMap().getMapId())
+              .name("width").value(gameManager.getOceanMap().getWidth())
+              .name("height").value(gameManager.getOceanMap().getHeight())
+              .endObject();
+
+        writePosition(writer.name("player"), gameManager.getColumbusShip().getPosition());
+        writePosition(writer.name("treasure"), gameManager.getOceanMap().getTreasurePosition());
+
+        writer.name("pirates").beginArray();
+        for (PirateShip pirate : gameManager.getPirateShips()) {
+            writer.beginObject()
+                  .name("x").value(pirate.getPosition().getX())
+                  .name("y").value(pirate.getPosition().getY())
+                  .name("type").value(pirate.getClass().getSimpleName())
+                  .endObject();
+        }
+        writer.endArray();
+
+        writer.name("monsters").beginArray();
+        for (SeaMonster monster : gameManager.getSeaMonsters()) {
+            if (monster.isActive()) { // Only send active monsters
+                writePosition(writer, monster.getPosition());
+            }
+        }
+        writer.endArray();
+
+        writeStatus(writer, gameManager);
+        writer.name("version").value(gameManager.getVersion());
+        writer.endObject();
+        return writer.finish();
+    }
+
+    private void writeStatus(JsonByteWriter writer, GameManager gameManager) {
+        writer.name("status").beginObject()
+              .name("isGameOver").value(gameManager.getGameState().isGameOver())
+              .name("message").value(gameManager.getGameState().getStatusMessage())
+              .endObject();
+    }
+
+    // Streams the same document as toDeltaJson(...), members in toDeltaJson's order: "delta", "since",
+    // "version", "player" if moved, "pirates" [{"i","x","y"}...], "monsters" [{"i","x","y","active"}...],
+    // then "status" if changed
+    public byte[] toDeltaJsonBytes(GameManager gameManager, long sinceVersion, ChangeLog.ChangeSet changes) {
+        JsonByteWriter writer = JsonByteWriter.acquire();
+        writer.beginObject();
+        writer.name("delta").value(true);
+        writer.name("since").value(sinceVersion);
+        writer.name("version").value(changes.getVersion());
+
+        if (changes.isPlayerMoved()) {
+            writePosition(writer.name("player"), gameManager.getColumbusShip().getPosition());
+        }
+
+        writer.name("pirates").beginArray();
+        BitSet movedPirates = changes.getMovedPirates();
+        for (int i = movedPirates.nextSetBit(0); i >= 0; i = movedPirates.nextSetBit(i + 1)) {
+            Position pos = gameManager.getPirateShips().get(i).getPosition();
+            writer.beginObject()
+                  .name("i").value(i)
+                  .name("x").value(pos.getX())
+                  .name("y").value(pos.getY())
+                  .endObject();
+        }
+        writer.endArray();
+
+        writer.name("monsters").beginArray();
+        BitSet movedMonsters = changes.getMovedMonsters();
+        for (int i = movedMonsters.nextSetBit(0); i >= 0; i = movedMonsters.nextSetBit(i + 1)) {
+            SeaMonster monster = gameManager.getSeaMonsters().get(i);
+            writer.beginObject()
+                  .name("i").value(i)
+                  .name("x").value(monster.getPosition().getX())
+                  .name("y").value(monster.getPosition().getY())
+                  .name("active").value(monster.isActive())
+                  .endObject();
+        }
+        writer.endArray();
+
+        if (changes.isStatusChanged()) {
+            writeStatus(writer, gameManager);
+        }
+        writer.endObject();
+        return writer.finish();
+    }
+
+    // {"steps":[{"direction","x","y","gameOver","version"}...],"applied":n,"state":<final JSON state>}
+    public byte[] toMoveBatchJsonBytes(MoveBatchResult result) {
+        JsonByteWriter writer = JsonByteWriter.acquire();
+        writer.beginObject();
+        writer.name("steps").beginArray();
+        for (MoveBatchResult.Step step : result.getSteps()) {
+            writer.beginObject()
+                  .name("direction").value(step.getDirection())
+                  .name("x").value(step.getPlayerPosition().getX())
+                  .name("y").value(step.getPlayerPosition().getY())
+                  .name("gameOver").value(step.isGameOver())
+                  .name("version").value(step.getVersion())
+                  .endObject();
+        }
+        writer.endArray();
+        writer.name("applied").value(result.getSteps().size());
+        writer.name("state").rawValue(result.getFinalState().getBody());
+        writer.endObject();
+        return writer.finish();
+    }
+
+    // {"islands":[{"x","y"}...],"strategySwitchers":[...],"treasure":{"x","y"}} for one rectangle of the map,
+    // treasure omitted when outside it; scans only the rectangle's cells
+    public byte[] toTerrainJsonBytes(OceanMap oceanMap, int x, int y, int width, int height) {
+        JsonByteWriter writer = JsonByteWriter.acquire();
+        writer.beginObject();
+        writer.name("islands").beginArray();
+        for (int cellY = y; cellY < y + height; cellY++) {
+            for (int cellX = x; cellX < x + width; cellX++) {
+                if (oceanMap.isIsland(cellX, cellY)) {
+                    writer.beginObject().name("x").value(cellX).name("y").value(cellY).endObject();
+                }
+            }
+        }
+        writer.endArray();
+        writer.name("strategySwitchers").beginArray();
+        for (int cellY = y; cellY < y + height; cellY++) {
+            for (int cellX = x; cellX < x + width; cellX++) {
+                if (oceanMap.isStrategySwitcher(cellX, cellY)) {
+                    writer.beginObject().name("x").value(cellX).name("y").value(cellY).endObject();
+                }
+            }
+        }
+        writer.endArray();
+        Position treasurePos = oceanMap.getTreasurePosition();
+        if (treasurePos.getX() >= x && treasurePos.getX() < x + width
+                && treasurePos.getY() >= y && treasurePos.getY() < y + height) {
+            writer.name("treasure").beginObject()
+                  .name("x").value(treasurePos.getX())
+                  .name("y").value(treasurePos.getY())
+                  .endObject();
+        }
+        writer.endObject();
+        return writer.finish();
+    }
+
+    // {"id","x","y","width","height","terrain":{...}} plus, when entities is not null,
+    // "version" and the player, pirates and monsters inside the rectangle (sorted by "i")
+    public byte[] toTileJsonBytes(String mapId, int x, int y, int width, int height, byte[] terrain,
+                                  long version, List<SpatialIndex.Entry> entities) {
+        JsonByteWriter writer = JsonByteWriter.acquire();
+        writer.beginObject()
+              .name("id").value(mapId)
+              .name("x").value(x)
+              .name("y").value(y)
+              .name("width").value(width)
+              .name("height").value(height)
+              .name("terrain").rawValue(terrain);
+        if (entities != null) {
+            entities.sort(Comparator.comparingInt((SpatialIndex.Entry entry) -> entry.index));
+            writer.name("version").value(version);
+            for (SpatialIndex.Entry entry : entities) {
+                if (entry.kind == SpatialIndex.Kind.PLAYER) {
+                    writePosition(writer.name("player"), entry.character.getPosition());
+                }
+            }
+            writer.name("pirates").beginArray();
+            for (SpatialIndex.Entry entry : entities) {
+                if (entry.kind == SpatialIndex.Kind.PIRATE) {
+                    writer.beginObject()
+                          .name("i").value(entry.index)
+                          .name("x").value(entry.character.getPosition().getX())
+                          .name("y").value(entry.character.getPosition().getY())
+                          .name("type").value(entry.character.getClass().getSimpleName())
+                          .endObject();
+                }
+            }
+            writer.endArray();
+            writer.name("monsters").beginArray();
+            for (SpatialIndex.Entry entry : entities) {
+                if (entry.kind == SpatialIndex.Kind.MONSTER && ((SeaMonster) entry.character).isActive()) {
+                    writer.beginObject()
+                          .name("i").value(entry.index)
+                          .name("x").value(entry.character.getPosition().getX())
+                          .name("y").value(entry.character.getPosition().getY())
+                          .endObject();
+                }
+            }
+            writer.endArray();
+        }
+        writer.endObject();
+        return writer.finish();
+    }
+
+    private static void writePosition(JsonByteWriter writer, Position position) {
+        writer.beginObject()
+              .name("x").value(position.getX())
+              .name("y").value(position.getY())
+              .endObject();
+    }
+}
@@ -0,0 +1,159 @@
+package com.csci513.finalproject.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Fans out Server-Sent Events frames for one game to all of its subscribers.
+// Each tick is encoded into a single frame that every connection shares, so the cost
+// of a tick does not grow with the number of viewers.
+public class GameUpdateBroadcaster {
+
+    private static final long HEARTBEAT_MILLIS = 15_000; // Keeps proxies from closing idle streams
+    private static final byte[] HEARTBEAT_FRAME = ": keepalive\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final List<Subscription> subscribers = new CopyOnWriteArrayList<>();
+    private volatile Frame latestFrame;
+
+    // One encoded event together with the world version it describes
+    private static class Frame {
+        private final long version;
+        private final byte[] bytes;
+
+        private Frame(long version, byte[] bytes) {
+            this.version = version;
+            this.bytes = bytes;
+        }
+    }
+
+    public boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // Encodes the snapshot once and hands the same frame to every subscriber
+    public void publish(StateSnapshot snapshot) {
+        Frame frame = encodeFrame(snapshot);
+        latestFrame = frame;
+        for (Subscription subscription : subscribers) {
+            subscription.offer(frame);
+        }
+    }
+
+    // Opens a new event stream that starts with the given snapshot
+    public Subscription subscribe(StateSnapshot initialState) {
+        Subscription subscription = new Subscription(this);
+        subscription.offer(encodeFrame(initialState));
+        subscribers.add(subscription);
+        // A tick may have been published between building initialState and registering
+        Frame frame = latestFrame;
+        if (frame != null) {
+            subscription.offer(frame);
+        }
+        return subscription;
+    }
+
+    // Ends every open stream, e.g. when the game is discarded
+    public void closeAll() {
+        for (Subscription subscription : subscribers) {
+            subscription.close();
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscribers.remove(subscription);
+    }
+
+    private static Frame encodeFrame(StateSnapshot snapshot) {
+        byte[] header = ("id: " + snapshot.getVersion() + "\nevent: state\ndata: ").getBytes(StandardCharsets.US_ASCII);
+        byte[] json = snapshot.getBody(); // Serialized JSON never contains raw newlines
+        byte[] frame = new byte[header.length + json.length + 2];
+        System.arraycopy(header, 0, frame, 0, header.length);
+        System.arraycopy(json, 0, frame, header.length, json.length);
+        frame[frame.length - 2] = '\n';
+        frame[frame.length - 1] = '\n';
+        return new Frame(snapshot.getVersion(), frame);
+    }
+
+    // Body of one event-stream response. Reading blocks until the next frame is published;
+    // a slow reader only ever gets the latest frame, since each frame is a full state.
+    public static class Subscription extends InputStream {
+
+        private final GameUpdateBroadcaster owner;
+        private Frame pendingFrame;   // Guarded by this
+        private long offeredVersion = -1; // Guarded by this
+        private boolean closed;       // Guarded by this
+        private byte[] current;
+        private int position;
+
+        private Subscription(GameUpdateBroadcaster owner) {
+            this.owner = owner;
+        }
+
+        private synchronized void offer(Frame frame) {
+            if (frame.version <= offeredVersion) {
+                return; // Never go back to an older state
+            }
+            offeredVersion = frame.version;
+            pendingFrame = frame;
+            notifyAll();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+            return read < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (current == null || position >= current.length) {
+                current = awaitFrame();
+                position = 0;
+                if (current == null) {
+                    return -1; // Stream closed
+                }
+            }
+            int count = Math.min(length, current.length - position);
+            System.arraycopy(current, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        private synchronized byte[] awaitFrame() throws InterruptedIOException {
+            try {
+                if (pendingFrame == null && !closed) {
+                    wait(HEARTBEAT_MILLIS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Event stream interrupted");
+            }
+            if (closed) {
+                return null;
+            }
+            byte[] frame = pendingFrame != null ? pendingFrame.bytes : HEARTBEAT_FRAME;
+            pendingFrame = null;
+            return frame;
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                closed = true;
+                notifyAll();
+            }
+            owner.unsubscribe(this);
+        }
+    }
+}
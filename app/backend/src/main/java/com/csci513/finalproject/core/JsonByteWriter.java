@@ -0,0 +1,256 @@
+package com.csci513.finalproject.core;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+
+// Minimal streaming JSON writer that emits UTF-8 straight into a reusable byte buffer.
+// It creates no intermediate objects, and its string escaping matches org.json's JSONObject.quote
+// so the strings it writes parse back to the same values as the JSONObject path's.
+// Not thread-safe. Writers are pooled rather than kept per thread, since the server runs each request on
+// a new virtual thread: acquire() one, write a document, then finish() copies it out and returns the writer.
+public class JsonByteWriter {
+
+    private static final int INITIAL_CAPACITY = 4 * 1024;
+    private static final int MAX_RETAINED_CAPACITY = 1024 * 1024; // Larger buffers are dropped after use
+    private static final int MAX_DEPTH = 32;
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    // About one writer per thread that can be serializing at once; extra writers are allocated and dropped
+    private static final int POOL_SIZE = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+    private static final ArrayBlockingQueue<JsonByteWriter> POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int size;
+    // needsComma[d] is true once the container at depth d holds at least one element
+    private final boolean[] needsComma = new boolean[MAX_DEPTH];
+    private int depth;
+    private boolean pendingName; // A member name was written and awaits its value
+
+    // Returns a pooled writer, or a new one when all are in use, reset and ready for a new document.
+    // A writer abandoned by an exception is simply not returned; the pool refills with new ones.
+    public static JsonByteWriter acquire() {
+        JsonByteWriter writer = POOL.poll();
+        if (writer == null) {
+            writer = new JsonByteWriter();
+        }
+        writer.reset();
+        return writer;
+    }
+
+    public void reset() {
+        if (buffer.length > MAX_RETAINED_CAPACITY) {
+            buffer = new byte[INITIAL_CAPACITY];
+        }
+        size = 0;
+        depth = 0;
+        needsComma[0] = false;
+    }
+
+    // Copies the written document out; the writer's own buffer is reused afterwards
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    // Copies the written document out and hands an acquired writer back to the pool; it must not be used after this
+    public byte[] finish() {
+        byte[] document = toByteArray();
+        reset();
+        POOL.offer(this); // Dropped when the pool is already full
+        return document;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public JsonByteWriter beginObject() {
+        beforeValue();
+        write('{');
+        push();
+        return this;
+    }
+
+    public JsonByteWriter endObject() {
+        depth--;
+        write('}');
+        return this;
+    }
+
+    public JsonByteWriter beginArray() {
+        beforeValue();
+        write('[');
+        push();
+        return this;
+    }
+
+    public JsonByteWriter endArray() {
+        depth--;
+        write(']');
+        return this;
+    }
+
+    // Writes a member name; the next call must write its value
+    public JsonByteWriter name(String name) {
+        if (needsComma[depth]) {
+            write(',');
+        }
+        needsComma[depth] = true;
+        writeQuoted(name);
+        write(':');
+        pendingName = true;
+        return this;
+    }
+
+    public JsonByteWriter value(long value) {
+        beforeValue();
+        if (value == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return this;
+        }
+        if (value < 0) {
+            write('-');
+            value = -value;
+        }
+        ensureCapacity(19);
+        int start = size;
+        do {
+            buffer[size++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        reverse(start, size - 1);
+        return this;
+    }
+
+    public JsonByteWriter value(boolean value) {
+        beforeValue();
+        writeAscii(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonByteWriter value(String value) {
+        beforeValue();
+        if (value == null) {
+            writeAscii("null");
+        } else {
+            writeQuoted(value);
+        }
+        return this;
+    }
+
+    // Writes an already serialized JSON value (e.g. a cached snapshot) verbatim
+    public JsonByteWriter rawValue(byte[] json) {
+        beforeValue();
+        ensureCapacity(json.length);
+        System.arraycopy(json, 0, buffer, size, json.length);
+        size += json.length;
+        return this;
+    }
+
+    private void beforeValue() {
+        if (pendingName) {
+            pendingName = false; // Value of a member: the comma was written with the name
+            return;
+        }
+        if (needsComma[depth]) {
+            write(',');
+        }
+        needsComma[depth] = true;
+    }
+
+    private void push() {
+        depth++;
+        needsComma[depth] = false;
+    }
+
+    // Same escaping rules as org.json's JSONObject.quote
+    private void writeQuoted(String string) {
+        write('"');
+        char previous;
+        char c = 0;
+        for (int i = 0; i < string.length(); i++) {
+            previous = c;
+            c = string.charAt(i);
+            switch (c) {
+                case '\\':
+                case '"':
+                    write('\\');
+                    write(c);
+                    break;
+                case '/':
+                    if (previous == '<') {
+                        write('\\');
+                    }
+                    write(c);
+                    break;
+                case '\b': writeAscii("\\b"); break;
+                case '\t': writeAscii("\\t"); break;
+                case '\n': writeAscii("\\n"); break;
+                case '\f': writeAscii("\\f"); break;
+                case '\r': writeAscii("\\r"); break;
+                default:
+                    if (c < ' ' || (c >= 0x80 && c < 0xa0) || (c >= 0x2000 && c < 0x2100)) {
+                        writeAscii("\\u");
+                        write(HEX[(c >> 12) & 0xf]);
+                        write(HEX[(c >> 8) & 0xf]);
+                        write(HEX[(c >> 4) & 0xf]);
+                        write(HEX[c & 0xf]);
+                    } else if (c < 0x80) {
+                        write(c);
+                    } else {
+                        i = writeUtf8(string, i, c);
+                    }
+            }
+        }
+        write('"');
+    }
+
+    // Encodes one non-ASCII char (or surrogate pair) as UTF-8, returning the index of the last char consumed
+    private int writeUtf8(String string, int index, char c) {
+        ensureCapacity(4);
+        if (c < 0x800) {
+            buffer[size++] = (byte) (0xc0 | (c >> 6));
+            buffer[size++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isHighSurrogate(c) && index + 1 < string.length()
+                && Character.isLowSurrogate(string.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, string.charAt(index + 1));
+            buffer[size++] = (byte) (0xf0 | (codePoint >> 18));
+            buffer[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+            buffer[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+            buffer[size++] = (byte) (0x80 | (codePoint & 0x3f));
+            return index + 1;
+        } else if (Character.isSurrogate(c)) {
+            buffer[size++] = '?'; // Unpaired surrogate, same replacement String.getBytes(UTF_8) uses
+        } else {
+            buffer[size++] = (byte) (0xe0 | (c >> 12));
+            buffer[size++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+            buffer[size++] = (byte) (0x80 | (c & 0x3f));
+        }
+        return index;
+    }
+
+    private void writeAscii(String ascii) {
+        ensureCapacity(ascii.length());
+        for (int i = 0; i < ascii.length(); i++) {
+            buffer[size++] = (byte) ascii.charAt(i);
+        }
+    }
+
+    private void write(int b) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) b;
+    }
+
+    private void reverse(int from, int to) {
+        while (from < to) {
+            byte tmp = buffer[from];
+            buffer[from++] = buffer[to];
+            buffer[to--] = tmp;
+        }
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.csci513.finalproject.core;
+
+// Serialized static layer of one map (islands and strategy switchers), built once per world and format.
+// Its content is fully determined by the map id, so clients may cache it indefinitely.
+public class MapPayload {
+
+    private final String mapId;
+    private final ResponseCompression.EncodedBody body; // Compressed encodings are cached with it
+    private final String contentType;
+    private final String eTag;
+
+    public MapPayload(String mapId, byte[] body, String contentType) {
+        this.mapId = mapId;
+        this.body = new ResponseCompression.EncodedBody(body);
+        this.contentType = contentType;
+        this.eTag = "\"map-" + mapId + (StateSnapshot.BINARY.equals(contentType) ? "-bin" : "") + "\"";
+    }
+
+    public String getMapId() {
+        return mapId;
+    }
+
+    // The returned array is shared; callers must not modify it
+    public byte[] getBody() {
+        return body.getIdentity();
+    }
+
+    // The body in a Content-Encoding from ResponseCompression (null = identity), compressed once per payload
+    public byte[] getBody(String encoding) {
+        return body.get(encoding);
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+}
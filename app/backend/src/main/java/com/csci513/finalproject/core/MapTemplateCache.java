@@ -0,0 +1,147 @@
+package com.csci513.finalproject.core;
+
+import com.csci513.finalproject.model.map.OceanMap;
+import com.csci513.finalproject.utils.SplitMix64;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Maps shared by every game playing the same world, keyed by size and world seed and findable by map id.
+// An OceanMap never changes once built, so one instance serves any number of games: each game keeps
+// only its own entities and state on top of it, and a layout is generated once instead of per game.
+// Templates are held up to maxBytes of estimated map memory, least recently used dropped first; a game
+// still playing a dropped template keeps it alive and counts it in its own memory estimate again.
+// Pinned templates, such as a world opened from a map file, are never dropped.
+// Only worlds many games play are cached: a configured world seed (see share) or a pinned map. A random
+// world made for one session is built uncached, so it neither pushes shared templates out nor escapes the
+// session memory budget, which only leaves out maps held here.
+public class MapTemplateCache {
+
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final MapTemplateCache SHARED = new MapTemplateCache(DEFAULT_MAX_BYTES);
+
+    // A map with its size when stored; chunked maps grow and shrink as chunks come and go
+    private static final class Template {
+        final OceanMap map;
+        final long bytes;
+
+        Template(OceanMap map) {
+            this.map = map;
+            this.bytes = map.estimateMemoryBytes();
+        }
+    }
+
+    private final long maxBytes;
+    private final Map<String, Template> templates; // Guarded by itself, as is everything below
+    private final Map<String, OceanMap> pinned = new HashMap<>();
+    private final Map<String, OceanMap> byMapId = new HashMap<>();
+    private final Set<String> sharedWorlds = new HashSet<>();
+    private long totalBytes;
+
+    public MapTemplateCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.templates = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public static MapTemplateCache shared() {
+        return SHARED;
+    }
+
+    // The map generated by the given world seed. Built outside the lock, so large maps do not hold up
+    // other worlds; two threads missing together both build it and the first one stored wins.
+    // Worlds that are neither shared nor pinned get a new, uncached map on every call.
+    public OceanMap get(int width, int height, long worldSeed) {
+        String key = key(width, height, worldSeed);
+        boolean shared;
+        synchronized (templates) {
+            OceanMap pinnedMap = pinned.get(key);
+            if (pinnedMap != null) {
+                return pinnedMap;
+            }
+            Template template = templates.get(key);
+            if (template != null) {
+                return template.map;
+            }
+            shared = sharedWorlds.contains(key);
+        }
+        OceanMap built = new OceanMap(width, height, new SplitMix64(worldSeed).split()); // The world's map stream
+        if (!shared) {
+            return built;
+        }
+        synchronized (templates) {
+            Template raced = templates.get(key);
+            if (raced != null) {
+                return raced.map;
+            }
+            Template template = new Template(built);
+            templates.put(key, template);
+            byMapId.put(built.getMapId(), built);
+            totalBytes += template.bytes;
+            evict();
+        }
+        return built;
+    }
+
+    // Caches the template of this world from now on, e.g. the world seed every session is configured to play
+    public void share(int width, int height, long worldSeed) {
+        synchronized (templates) {
+            sharedWorlds.add(key(width, height, worldSeed));
+        }
+    }
+
+    // Serves map for its size and worldSeed from now on, e.g. a prebuilt world loaded from a MapFile
+    // instead of generating it. map must be the layout that worldSeed generates, since replays and journal
+    // recovery rebuild games from the seed alone.
+    public void pin(long worldSeed, OceanMap map) {
+        synchronized (templates) {
+            pinned.put(key(map.getWidth(), map.getHeight(), worldSeed), map);
+            byMapId.put(map.getMapId(), map);
+        }
+    }
+
+    // A cached template by layout id, or null if it was never built or has been dropped
+    public OceanMap findByMapId(String mapId) {
+        synchronized (templates) {
+            return byMapId.get(mapId);
+        }
+    }
+
+    // True when map is held here, so its memory is accounted to this cache rather than to each game
+    public boolean contains(OceanMap map) {
+        synchronized (templates) {
+            return byMapId.get(map.getMapId()) == map;
+        }
+    }
+
+    public int size() {
+        synchronized (templates) {
+            return templates.size();
+        }
+    }
+
+    public long getTotalBytes() {
+        synchronized (templates) {
+            return totalBytes;
+        }
+    }
+
+    private static String key(int width, int height, long worldSeed) {
+        return width + "x" + height + '/' + worldSeed;
+    }
+
+    // Always keeps the newest template, even one larger than the whole budget
+    private void evict() {
+        Iterator<Template> eldest = templates.values().iterator();
+        while (totalBytes > maxBytes && templates.size() > 1) {
+            Template dropped = eldest.next();
+            eldest.remove();
+            byMapId.remove(dropped.map.getMapId(), dropped.map);
+            totalBytes -= dropped.bytes;
+        }
+    }
+}
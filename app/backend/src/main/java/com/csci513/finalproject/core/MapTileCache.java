@@ -0,0 +1,56 @@
+package com.csci513.finalproject.core;
+
+import com.csci513.finalproject.model.map.OceanMap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Serialized terrain of map rectangles, keyed by map id and rectangle. A map id always names the same
+// layout, so entries never go stale and are shared by every game playing that map; the least recently
+// used entries are dropped once maxEntries is reached.
+public class MapTileCache {
+
+    public static final int MAX_TILE_SIZE = 256; // Largest width or height a tile request may ask for
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private static final MapTileCache SHARED = new MapTileCache(DEFAULT_MAX_ENTRIES);
+
+    private final Map<String, byte[]> tiles; // Guarded by itself
+    private final GameStateSerializer serializer = new GameStateSerializer();
+
+    public MapTileCache(int maxEntries) {
+        this.tiles = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public static MapTileCache shared() {
+        return SHARED;
+    }
+
+    // The rectangle must lie within the map. The returned array is shared; callers must not modify it.
+    public byte[] getTerrainJson(OceanMap map, int x, int y, int width, int height) {
+        String key = map.getMapId() + '/' + x + ',' + y + ',' + width + ',' + height;
+        synchronized (tiles) {
+            byte[] terrain = tiles.get(key);
+            if (terrain != null) {
+                return terrain;
+            }
+        }
+        // Built outside the lock; two threads missing together both build the same bytes
+        byte[] terrain = serializer.toTerrainJsonBytes(map, x, y, width, height);
+        synchronized (tiles) {
+            tiles.put(key, terrain);
+        }
+        return terrain;
+    }
+
+    public int size() {
+        synchronized (tiles) {
+            return tiles.size();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.csci513.finalproject.core;
+
+import com.csci513.finalproject.utils.Position;
+
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of GameManager.processPlayerMoves: one entry per applied step plus the final state.
+public class MoveBatchResult {
+
+    // Result of a single applied direction
+    public static class Step {
+        private final String direction;
+        private final Position playerPosition;
+        private final boolean gameOver;
+        private final long version;
+
+        public Step(String direction, Position playerPosition, boolean gameOver, long version) {
+            this.direction = direction;
+            this.playerPosition = playerPosition;
+            this.gameOver = gameOver;
+            this.version = version;
+        }
+
+        public String getDirection() {
+            return direction;
+        }
+
+        public Position getPlayerPosition() {
+            return playerPosition;
+        }
+
+        public boolean isGameOver() {
+            return gameOver;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    private final List<Step> steps;
+    private final StateSnapshot finalState;
+
+    public MoveBatchResult(List<Step> steps, StateSnapshot finalState) {
+        this.steps = Collections.unmodifiableList(steps);
+        this.finalState = finalState;
+    }
+
+    // Steps that were applied; shorter than the request if the game ended early
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    public StateSnapshot getFinalState() {
+        return finalState;
+    }
+}
@@ -0,0 +1,552 @@
+package com.csci513.finalproject.core;
+
+import com.csci513.finalproject.logging.Logger;
+import com.csci513.finalproject.metrics.GameMetrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Write-ahead log of the moves applied to every game, so sessions survive a JVM restart.
+// A game is fully determined by its seeds and the directions applied to it, so that is all we record:
+// a header record (map size and seeds) when a game starts, then one byte per move.
+// Each session's journal is a run of segment files named "<session>.<number>.journal"; a restart begins a new
+// segment with a fresh header, and long games roll over into continuation segments.
+// Request threads only queue records. A single writer thread appends each session's queued records with one
+// FileChannel write and forces each file once per batch (group commit), so the move path never waits for a sync.
+// A crash loses every record not yet forced: the batch being written and everything still queued behind it.
+// The queue holds at most MAX_QUEUED_RECORDS; when the disk falls that far behind, request threads wait for
+// room rather than dropping moves a replay would need (counted in GameMetrics.JOURNAL_QUEUE_FULL).
+// Segments of an ended game are deleted once the next game's header is durable, and a game that ends while
+// spanning several segments is compacted into one.
+public class MoveJournal {
+
+    private static final Logger LOG = Logger.get(MoveJournal.class);
+
+    public static final long DEFAULT_MAX_SEGMENT_BYTES = 1024 * 1024;
+
+    private static final String SUFFIX = ".journal";
+    private static final String COMPACTING_SUFFIX = ".compacting";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("([A-Za-z0-9_-]{1,64})\\.(\\d+)" + Pattern.quote(SUFFIX));
+
+    // Record layout: a move is a single byte holding its direction code; a header is tagged
+    private static final String[] DIRECTIONS = {"UP", "DOWN", "LEFT", "RIGHT", "NONE"};
+    private static final byte NO_DIRECTION = 4; // Unknown directions still advance the NPCs
+    private static final byte GAME_HEADER = 'G';
+    private static final int HEADER_BYTES = 1 + 4 + 4 + 8 + 8; // Tag, width, height, world seed, game seed
+
+    private static final int STAGING_BYTES = 4096;
+    private static final int MAX_BATCH = 4096;
+    static final int MAX_QUEUED_RECORDS = 64 * 1024; // A few MB of queued entries
+
+    private enum Kind { HEADER, MOVE, GAME_OVER_MOVE, DELETE, FLUSH, STOP }
+
+    // One queued operation; log is null for FLUSH and STOP
+    private static final class Entry {
+        final Kind kind;
+        final SessionLog log;
+        final byte[] record;
+        final CountDownLatch done;
+
+        Entry(Kind kind, SessionLog log, byte[] record, CountDownLatch done) {
+            this.kind = kind;
+            this.log = log;
+            this.record = record;
+            this.done = done;
+        }
+    }
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final LinkedBlockingQueue<Entry> queue = new LinkedBlockingQueue<>(MAX_QUEUED_RECORDS);
+    private final Thread writer;
+    private final Set<SessionLog> openLogs = ConcurrentHashMap.newKeySet(); // Closed by close()
+    private volatile boolean open = true;
+    private long nextSegment; // Only the writer allocates segment numbers
+
+    public MoveJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_MAX_SEGMENT_BYTES);
+    }
+
+    public MoveJournal(Path directory, long maxSegmentBytes) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.nextSegment = highestSegmentNumber() + 1;
+        this.writer = new Thread(this::writeLoop, "journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "journal-writer-shutdown"));
+    }
+
+    // The journal of one session. Games call beginGame/appendMove while holding their own lock,
+    // which keeps each session's records in order; everything else is touched only by the writer thread.
+    final class SessionLog {
+        private final String sessionId;
+        private final ArrayDeque<Long> segments = new ArrayDeque<>(); // Live segment files, oldest first
+        private long gameStart = -1;     // First segment of the current game
+        private FileChannel channel;     // Open on the newest segment
+        private long segmentBytes;
+        private final ByteBuffer staged = ByteBuffer.allocate(STAGING_BYTES);
+        private boolean compactPending;
+        private boolean closed;
+
+        private SessionLog(String sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        void beginGame(int width, int height, long seed, long gameSeed) {
+            byte[] header = ByteBuffer.allocate(HEADER_BYTES).put(GAME_HEADER)
+                    .putInt(width).putInt(height).putLong(seed).putLong(gameSeed).array();
+            enqueue(new Entry(Kind.HEADER, this, header, null));
+        }
+
+        void appendMove(String direction, boolean gameOver) {
+            byte[] record = {directionCode(direction)};
+            enqueue(new Entry(gameOver ? Kind.GAME_OVER_MOVE : Kind.MOVE, this, record, null));
+        }
+
+        // Writer thread: a header always opens a new segment, so each game's first segment is self-contained
+        private void writeHeader(byte[] header) throws IOException {
+            openSegment();
+            gameStart = segments.peekLast();
+            compactPending = false;
+            stage(header);
+        }
+
+        private void writeMove(byte[] record) throws IOException {
+            if (channel == null) {
+                throw new IOException("Move journaled before a game header");
+            }
+            if (segmentBytes + staged.position() + record.length > maxSegmentBytes) {
+                openSegment(); // Continuation segment
+            }
+            stage(record);
+        }
+
+        private void stage(byte[] record) throws IOException {
+            if (staged.remaining() < record.length) {
+                writeStaged();
+            }
+            staged.put(record);
+        }
+
+        private void writeStaged() throws IOException {
+            staged.flip();
+            while (staged.hasRemaining()) {
+                segmentBytes += channel.write(staged);
+            }
+            staged.clear();
+        }
+
+        private void openSegment() throws IOException {
+            if (channel != null) {
+                writeStaged();
+                channel.force(false);
+                channel.close();
+            }
+            long number = nextSegment++;
+            channel = FileChannel.open(segmentPath(sessionId, number),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            openLogs.add(this);
+            segments.addLast(number);
+            segmentBytes = 0;
+        }
+
+        // Writer thread: makes everything staged durable, then drops what the durable data superseded
+        private void sync() throws IOException {
+            writeStaged();
+            channel.force(false);
+            deleteSegmentsBefore(gameStart);
+            if (compactPending) {
+                compactPending = false;
+                compact();
+            }
+        }
+
+        // Rewrites the current game's segments into one new segment, then deletes the originals.
+        // The copy is written under a temporary name recovery ignores and only renamed into a segment once
+        // it is complete and durable, so a crash part way through leaves the originals as the newest header.
+        private void compact() throws IOException {
+            if (segments.peekLast() == gameStart) {
+                return; // Already a single segment
+            }
+            List<Long> originals = new ArrayList<>();
+            for (long number : segments) {
+                if (number >= gameStart) {
+                    originals.add(number);
+                }
+            }
+            channel.close();
+            long number = nextSegment++;
+            Path compacted = compactingPath(sessionId, number);
+            try (FileChannel target = FileChannel.open(compacted,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (long original : originals) {
+                    try (FileChannel source = FileChannel.open(segmentPath(sessionId, original), StandardOpenOption.READ)) {
+                        long size = source.size();
+                        for (long position = 0; position < size; ) {
+                            position += source.transferTo(position, size - position, target);
+                        }
+                    }
+                }
+                target.force(false);
+            }
+            Files.move(compacted, segmentPath(sessionId, number), StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(); // The rename must be durable before the originals go
+            segments.addLast(number);
+            gameStart = number;
+            deleteSegmentsBefore(gameStart);
+            channel = FileChannel.open(segmentPath(sessionId, number), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            segmentBytes = channel.size();
+            LOG.debug("MoveJournal: Compacted {} segments of session {}", originals.size(), sessionId);
+        }
+
+        private void deleteSegmentsBefore(long first) throws IOException {
+            while (!segments.isEmpty() && segments.peekFirst() < first) {
+                Files.deleteIfExists(segmentPath(sessionId, segments.pollFirst()));
+            }
+        }
+
+        // Writer thread: removes the whole journal, also after a failure; later records for this log are ignored
+        private void delete() throws IOException {
+            closeChannel();
+            closed = true;
+            openLogs.remove(this);
+            deleteSegmentsBefore(Long.MAX_VALUE);
+        }
+
+        private void closeChannel() throws IOException {
+            if (channel != null) {
+                if (!closed) {
+                    writeStaged();
+                    channel.force(false);
+                }
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+
+    // Starts journaling a newly created game
+    public void open(String sessionId, GameManager game) {
+        game.startJournal(new SessionLog(sessionId));
+    }
+
+    // Stops journaling the game and deletes its journal, e.g. when its session is evicted
+    public void discard(GameManager game) {
+        SessionLog log = game.detachJournal();
+        if (log != null) {
+            enqueue(new Entry(Kind.DELETE, log, null, null));
+        }
+    }
+
+    // Rebuilds every journaled game by replaying its latest header and the moves after it.
+    // The returned games keep appending to their journals. Call once at startup, before opening new games.
+    public Map<String, GameManager> recover() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + COMPACTING_SUFFIX)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file); // A compaction cut short; its originals are still in place
+            }
+        }
+        Map<String, TreeMap<Long, Path>> bySession = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    bySession.computeIfAbsent(matcher.group(1), id -> new TreeMap<>())
+                            .put(Long.parseLong(matcher.group(2)), file);
+                }
+            }
+        }
+        Map<String, GameManager> recovered = new LinkedHashMap<>();
+        for (Map.Entry<String, TreeMap<Long, Path>> session : bySession.entrySet()) {
+            GameManager game = replay(session.getKey(), session.getValue());
+            if (game != null) {
+                recovered.put(session.getKey(), game);
+            }
+        }
+        return recovered;
+    }
+
+    private GameManager replay(String sessionId, TreeMap<Long, Path> files) throws IOException {
+        // The newest segment that starts with a complete header begins the current game
+        Long start = null;
+        ByteBuffer header = null;
+        for (Long number : files.descendingKeySet()) {
+            byte[] bytes = readPrefix(files.get(number), HEADER_BYTES);
+            if (bytes.length == HEADER_BYTES && bytes[0] == GAME_HEADER) {
+                start = number;
+                header = ByteBuffer.wrap(bytes, 1, HEADER_BYTES - 1);
+                break;
+            }
+        }
+        if (start == null) {
+            LOG.warn("MoveJournal: No complete game header for session {}, discarding its journal", sessionId);
+            for (Path file : files.values()) {
+                Files.deleteIfExists(file);
+            }
+            return null;
+        }
+        int width = header.getInt();
+        int height = header.getInt();
+        GameManager game = new GameManager(width, height, header.getLong(), header.getLong());
+
+        // Collect moves up to the first byte that is not a move (a torn tail or a header that never became durable)
+        SessionLog log = new SessionLog(sessionId);
+        List<String> moves = new ArrayList<>();
+        boolean truncated = false;
+        for (Map.Entry<Long, Path> file : files.entrySet()) {
+            long number = file.getKey();
+            if (number < start || truncated) {
+                Files.deleteIfExists(file.getValue()); // Superseded, or written after the tear
+                continue;
+            }
+            byte[] bytes = Files.readAllBytes(file.getValue());
+            int position = number == start ? HEADER_BYTES : 0;
+            while (position < bytes.length && bytes[position] >= 0 && bytes[position] <= NO_DIRECTION) {
+                moves.add(DIRECTIONS[bytes[position]]);
+                position++;
+            }
+            if (position < bytes.length) {
+                truncated = true;
+                try (FileChannel channel = FileChannel.open(file.getValue(), StandardOpenOption.WRITE)) {
+                    channel.truncate(position);
+                }
+            }
+            log.segments.addLast(number);
+        }
+
+        MoveBatchResult result = game.processPlayerMoves(moves);
+        if (result.getSteps().size() != moves.size()) {
+            LOG.warn("MoveJournal: Session {} ended after {} of {} journaled moves",
+                    sessionId, result.getSteps().size(), moves.size());
+        }
+        log.gameStart = start;
+        log.channel = FileChannel.open(segmentPath(sessionId, log.segments.peekLast()),
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        log.segmentBytes = log.channel.size();
+        openLogs.add(log);
+        game.resumeJournal(log);
+        LOG.debug("MoveJournal: Replayed {} moves for session {}", moves.size(), sessionId);
+        return game;
+    }
+
+    // Blocks until everything queued before this call is written and forced to disk
+    public void flush() {
+        CountDownLatch done = new CountDownLatch(1);
+        if (enqueue(new Entry(Kind.FLUSH, null, null, done))) {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Writes what is already queued, then stops the writer; later records are dropped
+    public void close() {
+        if (!open) {
+            return;
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        enqueue(new Entry(Kind.STOP, null, null, done));
+        open = false;
+        try {
+            done.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private boolean enqueue(Entry entry) {
+        if (!open) {
+            return false;
+        }
+        if (!queue.offer(entry)) {
+            GameMetrics.JOURNAL_QUEUE_FULL.increment();
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    queue.put(entry); // Backpressure: the move waits for the disk instead of being lost
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true; // A dropped record would corrupt the replay, so keep waiting
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return true;
+    }
+
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, MAX_BATCH);
+            running = writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    // Writes one batch and syncs every log it touched; returns false once the journal is stopping
+    private boolean writeBatch(List<Entry> batch) {
+        Set<SessionLog> dirty = new LinkedHashSet<>();
+        List<CountDownLatch> waiting = new ArrayList<>();
+        boolean running = true;
+        for (Entry entry : batch) {
+            if (entry.log == null) {
+                waiting.add(entry.done);
+                running &= entry.kind != Kind.STOP;
+                continue;
+            }
+            SessionLog log = entry.log;
+            if (log.closed && entry.kind != Kind.DELETE) {
+                continue; // A failed log still has its files removed when its session goes
+            }
+            try {
+                switch (entry.kind) {
+                    case HEADER:
+                        log.writeHeader(entry.record);
+                        dirty.add(log);
+                        break;
+                    case GAME_OVER_MOVE:
+                        log.compactPending = true;
+                        // fall through
+                    case MOVE:
+                        log.writeMove(entry.record);
+                        dirty.add(log);
+                        break;
+                    case DELETE:
+                        dirty.remove(log);
+                        log.delete();
+                        break;
+                    default:
+                        break;
+                }
+            } catch (IOException e) {
+                fail(log, e);
+                dirty.remove(log);
+            }
+        }
+        for (SessionLog log : dirty) {
+            try {
+                log.sync();
+            } catch (IOException e) {
+                fail(log, e);
+            }
+        }
+        if (!running) {
+            closeAll();
+        }
+        waiting.forEach(CountDownLatch::countDown);
+        return running;
+    }
+
+    // A broken journal stops journaling that session; the game itself keeps running
+    private void fail(SessionLog log, IOException e) {
+        LOG.error("MoveJournal: Journal for session " + log.sessionId + " failed, no longer journaling it", e);
+        log.closed = true;
+        openLogs.remove(log);
+        try {
+            if (log.channel != null) {
+                log.channel.close();
+            }
+        } catch (IOException ignored) {
+            // Already failing
+        }
+    }
+
+    private void closeAll() {
+        for (SessionLog log : openLogs) {
+            try {
+                log.closeChannel();
+            } catch (IOException e) {
+                LOG.warn("MoveJournal: Could not close journal of session {}", log.sessionId);
+            }
+        }
+        openLogs.clear();
+    }
+
+    private long highestSegmentNumber() throws IOException {
+        long highest = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    highest = Math.max(highest, Long.parseLong(matcher.group(2)));
+                }
+            }
+        }
+        return highest;
+    }
+
+    private Path segmentPath(String sessionId, long number) {
+        return directory.resolve(String.format("%s.%012d%s", sessionId, number, SUFFIX));
+    }
+
+    private Path compactingPath(String sessionId, long number) {
+        return directory.resolve(String.format("%s.%012d%s%s", sessionId, number, SUFFIX, COMPACTING_SUFFIX));
+    }
+
+    // Makes renames in the journal directory durable; not every platform can open a directory for this
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            LOG.debug("MoveJournal: Could not sync journal directory {}", directory);
+        }
+    }
+
+    private static byte[] readPrefix(Path file, int length) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading until full or end of file
+            }
+            byte[] bytes = new byte[buffer.position()];
+            buffer.flip().get(bytes);
+            return bytes;
+        }
+    }
+
+    private static byte directionCode(String direction) {
+        switch (direction.toUpperCase()) {
+            case "UP": return 0;
+            case "DOWN": return 1;
+            case "LEFT": return 2;
+            case "RIGHT": return 3;
+            default: return NO_DIRECTION;
+        }
+    }
+}
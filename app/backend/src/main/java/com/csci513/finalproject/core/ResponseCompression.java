@@ -0,0 +1,124 @@
+package com.csci513.finalproject.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Negotiates and applies gzip/deflate Content-Encoding for response bodies.
+// Bodies under MIN_COMPRESS_BYTES are always sent as-is: the headers and CPU cost more than they save.
+public final class ResponseCompression {
+
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate"; // zlib-wrapped, as HTTP defines it
+    public static final int MIN_COMPRESS_BYTES = 1024;
+
+    private ResponseCompression() {
+    }
+
+    // Picks the encoding for a body of the given size from an Accept-Encoding header value,
+    // honouring q-values (q=0 refuses). Prefers gzip on ties. Returns null for no encoding.
+    public static String negotiate(String acceptEncoding, int bodyLength) {
+        if (acceptEncoding == null || bodyLength < MIN_COMPRESS_BYTES) {
+            return null;
+        }
+        double gzipQ = 0;
+        double deflateQ = 0;
+        double wildcardQ = -1; // -1 = no wildcard listed
+        boolean gzipListed = false;
+        boolean deflateListed = false;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.trim().split(";");
+            String coding = parts[0].trim().toLowerCase();
+            double q = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (coding.equals(GZIP) || coding.equals("x-gzip")) {
+                gzipQ = q;
+                gzipListed = true;
+            } else if (coding.equals(DEFLATE)) {
+                deflateQ = q;
+                deflateListed = true;
+            } else if (coding.equals("*")) {
+                wildcardQ = q;
+            }
+        }
+        if (wildcardQ >= 0) {
+            gzipQ = gzipListed ? gzipQ : wildcardQ;
+            deflateQ = deflateListed ? deflateQ : wildcardQ;
+        }
+        if (gzipQ > 0 && gzipQ >= deflateQ) {
+            return GZIP;
+        }
+        return deflateQ > 0 ? DEFLATE : null;
+    }
+
+    public static byte[] compress(byte[] body, String encoding) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try {
+            if (GZIP.equals(encoding)) {
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                    gzip.write(body);
+                }
+            } else if (DEFLATE.equals(encoding)) {
+                Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+                try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, deflater)) {
+                    deflate.write(body);
+                } finally {
+                    deflater.end(); // Frees native memory right away instead of at GC
+                }
+            } else {
+                throw new IllegalArgumentException("Unsupported encoding: " + encoding);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Cannot happen with an in-memory stream
+        }
+        return out.toByteArray();
+    }
+
+    // Body of a cached response plus its encodings, each compressed at most once
+    public static class EncodedBody {
+
+        private final byte[] identity;
+        private volatile byte[] gzip;
+        private volatile byte[] deflate;
+
+        public EncodedBody(byte[] identity) {
+            this.identity = identity;
+        }
+
+        public byte[] getIdentity() {
+            return identity;
+        }
+
+        // Returns the body in the given encoding (null = identity). Concurrent first calls may
+        // compress twice, but both produce the same bytes, so the race is harmless.
+        public byte[] get(String encoding) {
+            if (encoding == null) {
+                return identity;
+            }
+            if (GZIP.equals(encoding)) {
+                byte[] cached = gzip;
+                if (cached == null) {
+                    gzip = cached = compress(identity, GZIP);
+                }
+                return cached;
+            }
+            byte[] cached = deflate;
+            if (cached == null) {
+                deflate = cached = compress(identity, DEFLATE);
+            }
+            return cached;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.csci513.finalproject.core;
+
+import com.csci513.finalproject.model.characters.GameCharacter;
+import com.csci513.finalproject.utils.Position;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Buckets a game's characters by BUCKET_SIZE x BUCKET_SIZE areas of the map, so a rectangle query
+// visits only the buckets it overlaps instead of every character.
+// Not thread-safe: the owning GameManager uses it under its lock.
+final class SpatialIndex {
+
+    static final int BUCKET_SIZE = 32;
+
+    enum Kind { PLAYER, PIRATE, MONSTER }
+
+    // A character and its position in the GameManager's lists, which the serializer reports as "i"
+    static final class Entry {
+        final Kind kind;
+        final int index;
+        final GameCharacter character;
+        long bucket;
+
+        Entry(Kind kind, int index, GameCharacter character) {
+            this.kind = kind;
+            this.index = index;
+            this.character = character;
+        }
+    }
+
+    private final Map<Long, List<Entry>> buckets = new HashMap<>();
+    private final List<Entry> entries = new ArrayList<>();
+
+    void add(Kind kind, int index, GameCharacter character) {
+        Entry entry = new Entry(kind, index, character);
+        entry.bucket = bucketOf(character.getPosition());
+        entries.add(entry);
+        buckets.computeIfAbsent(entry.bucket, key -> new ArrayList<>(2)).add(entry);
+    }
+
+    // Moves characters that left their bucket since the last refresh; called once per tick
+    void refresh() {
+        for (Entry entry : entries) {
+            long bucket = bucketOf(entry.character.getPosition());
+            if (bucket != entry.bucket) {
+                List<Entry> previous = buckets.get(entry.bucket);
+                previous.remove(entry);
+                if (previous.isEmpty()) {
+                    buckets.remove(entry.bucket);
+                }
+                entry.bucket = bucket;
+                buckets.computeIfAbsent(bucket, key -> new ArrayList<>(2)).add(entry);
+            }
+        }
+    }
+
+    // Characters inside the rectangle, in no particular order
+    List<Entry> query(int x, int y, int width, int height) {
+        List<Entry> found = new ArrayList<>();
+        for (int bucketY = y / BUCKET_SIZE; bucketY <= (y + height - 1) / BUCKET_SIZE; bucketY++) {
+            for (int bucketX = x / BUCKET_SIZE; bucketX <= (x + width - 1) / BUCKET_SIZE; bucketX++) {
+                List<Entry> bucket = buckets.get(key(bucketX, bucketY));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Entry entry : bucket) {
+                    Position position = entry.character.getPosition();
+                    if (position.getX() >= x && position.getX() < x + width
+                            && position.getY() >= y && position.getY() < y + height) {
+                        found.add(entry);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private static long bucketOf(Position position) {
+        return key(position.getX() / BUCKET_SIZE, position.getY() / BUCKET_SIZE);
+    }
+
+    private static long key(int bucketX, int bucketY) {
+        return ((long) bucketY << 32) | bucketX;
+    }
+}
@@ -0,0 +1,60 @@
+package com.csci513.finalproject.core;
+
+// Immutable, pre-serialized view of a game at one world version.
+// Shared by every request that asks for the same version, so idle games cost nothing to poll.
+public class StateSnapshot {
+
+    public static final String JSON = "application/json";
+    public static final String BINARY = "application/x-columbus-binary";
+
+    private final long version;
+    private final ResponseCompression.EncodedBody body; // Compressed encodings are cached with it
+    private final String contentType;
+    private final String eTag;
+
+    public StateSnapshot(String worldId, long version, byte[] body, String contentType) {
+        this.version = version;
+        this.body = new ResponseCompression.EncodedBody(body);
+        this.contentType = contentType;
+        this.eTag = "\"" + worldId + "-" + version + (BINARY.equals(contentType) ? "-bin" : "") + "\"";
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // The returned array is shared; callers must not modify it
+    public byte[] getBody() {
+        return body.getIdentity();
+    }
+
+    // The body in a Content-Encoding from ResponseCompression (null = identity), compressed once per snapshot
+    public byte[] getBody(String encoding) {
+        return body.get(encoding);
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    // Checks an If-None-Match header value (possibly a comma-separated list) against this snapshot
+    public boolean matchesETag(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2); // Weak comparison is fine for GET
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
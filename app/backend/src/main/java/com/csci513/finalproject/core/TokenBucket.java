@@ -0,0 +1,46 @@
+package com.csci513.finalproject.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free token bucket holding up to `burst` tokens and refilled at `ratePerSecond`.
+// Implemented as the equivalent generic cell rate algorithm: the whole bucket is one
+// "theoretical arrival time", so taking a token is a single compare-and-set.
+public class TokenBucket {
+
+    private final long intervalNanos; // Time to refill one token
+    private final long capacityNanos; // Time to refill a full bucket
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE); // Starts full
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.capacityNanos = intervalNanos * burst;
+    }
+
+    public boolean tryAcquire() {
+        return tryAcquire(System.nanoTime()) == 0;
+    }
+
+    // Takes a token at time nowNanos. Returns 0 on success, otherwise how many nanoseconds
+    // until a token is available (nothing is taken in that case).
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // True once the bucket has refilled completely, i.e. forgetting it loses nothing
+    public boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
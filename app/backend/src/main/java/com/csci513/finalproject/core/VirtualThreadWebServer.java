@@ -0,0 +1,111 @@
+package com.csci513.finalproject.core;
+
+import com.csci513.finalproject.logging.Logger;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Web server built on the JDK's selector-based HttpServer, which keeps connections alive between
+// requests, with every exchange handled on its own virtual thread. Idle keep-alive connections and
+// open event streams therefore cost no platform thread. Routing and handlers are shared via GameApi.
+public class VirtualThreadWebServer implements GameServer {
+
+    private static final Logger LOG = Logger.get(VirtualThreadWebServer.class);
+
+    private static final int MAX_BODY_BYTES = 64 * 1024; // Largest accepted POST body
+    private static final int STOP_DELAY_SECONDS = 1;
+
+    private final GameApi api;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public VirtualThreadWebServer(int port, GameSessionRegistry sessions) throws IOException {
+        this.api = new GameApi(sessions);
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        LOG.info("Running on virtual threads! Point your browsers to http://localhost:{}/", getPort());
+    }
+
+    @Override
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void stop() {
+        server.stop(STOP_DELAY_SECONDS);
+        executor.shutdownNow(); // Interrupts threads still blocked on event streams
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            ApiRequest request = new ApiRequest(exchange.getRequestMethod(), exchange.getRequestURI().getPath(),
+                    firstValues(exchange.getRequestHeaders()),
+                    ApiRequest.parseQuery(exchange.getRequestURI().getRawQuery()),
+                    exchange.getRemoteAddress().getAddress().getHostAddress(),
+                    () -> readBody(exchange));
+            send(exchange, api.handle(request));
+        }
+    }
+
+    private void send(HttpExchange exchange, ApiResponse response) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", response.getContentType());
+        response.getHeaders().forEach(headers::set);
+
+        if (response.isStreaming()) {
+            exchange.sendResponseHeaders(response.getStatus(), 0); // 0 = chunked, length unknown
+            try (InputStream in = response.getStream(); OutputStream out = exchange.getResponseBody()) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    out.write(buffer, 0, read);
+                    out.flush(); // Push each event out as soon as it is read
+                }
+            } catch (IOException e) {
+                // The client went away; closing the stream unsubscribes it
+            }
+            return;
+        }
+
+        byte[] body = response.getBody();
+        // -1 = no body, which 304 responses must not have
+        exchange.sendResponseHeaders(response.getStatus(), body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private String readBody(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            throw new IOException("Request body exceeds " + MAX_BODY_BYTES + " bytes");
+        }
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> firstValues(Headers headers) {
+        Map<String, String> values = new HashMap<>();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (!header.getValue().isEmpty()) {
+                values.put(header.getKey(), header.getValue().get(0));
+            }
+        }
+        return values;
+    }
+}
@@ -1,22 +1,26 @@
 package com.csci513.finalproject.factory;
 
+import com.csci513.finalproject.logging.Logger;
 import com.csci513.finalproject.model.characters.PirateShip;
+import com.csci513.finalproject.model.map.OceanMap;
 import com.csci513.finalproject.utils.Position;
 
 // Abstract Factory for creating PirateShip objects (Factory Method pattern).
 public abstract class PirateShipFactory {
 
+    private static final Logger LOG = Logger.get(PirateShipFactory.class);
+
     // The abstract factory method.
     // Subclasses will implement this to create specific pirate ship types.
-    public abstract PirateShip createPirateShip(String type, Position position);
+    public abstract PirateShip createPirateShip(String type, Position position, OceanMap oceanMap);
 
     // Can include other common methods shared by all factories
     public void prepareShip(PirateShip ship) {
-        System.out.println("Preparing ship: " + ship.getClass().getSimpleName() + " at " + ship.getPosition());
+        LOG.debug("Preparing ship: {} at {}", ship.getClass().getSimpleName(), ship.getPosition());
     }
 
-    public PirateShip orderPirateShip(String type, Position position) {
-        PirateShip pirateShip = createPirateShip(type, position);
+    public PirateShip orderPirateShip(String type, Position position, OceanMap oceanMap) {
+        PirateShip pirateShip = createPirateShip(type, position, oceanMap);
         prepareShip(pirateShip);
         return pirateShip;
     }
@@ -1,36 +1,53 @@
 package com.csci513.finalproject.factory;
 
+import com.csci513.finalproject.logging.Logger;
 import com.csci513.finalproject.model.characters.ChaserPirateShip;
 import com.csci513.finalproject.model.characters.PatrolPirateShip;
 import com.csci513.finalproject.model.characters.PirateShip;
+import com.csci513.finalproject.model.map.OceanMap;
 import com.csci513.finalproject.strategy.ChaseStrategy;
 import com.csci513.finalproject.strategy.PatrolStrategy;
 import com.csci513.finalproject.strategy.PredictiveChaseStrategy;
 import com.csci513.finalproject.utils.Position;
+import com.csci513.finalproject.utils.SplitMix64;
+
+import java.util.concurrent.ThreadLocalRandom;
 
 // Concrete factory implementing the factory method.
 public class StandardPirateShipFactory extends PirateShipFactory {
 
+    private static final Logger LOG = Logger.get(StandardPirateShipFactory.class);
+
+    private final SplitMix64 random; // Each patrol strategy gets its own split
+
+    public StandardPirateShipFactory() {
+        this(new SplitMix64(ThreadLocalRandom.current().nextLong()));
+    }
+
+    public StandardPirateShipFactory(SplitMix64 random) {
+        this.random = random;
+    }
+
     @Override
-    public PirateShip createPirateShip(String type, Position position) {
+    public PirateShip createPirateShip(String type, Position position, OceanMap oceanMap) {
         PirateShip pirateShip = null;
 
         // Determine which type of pirate ship to create
         if ("CHASER".equalsIgnoreCase(type)) {
-            pirateShip = new ChaserPirateShip(position.getX(), position.getY(), new ChaseStrategy(null)); // Target initially null
+            pirateShip = new ChaserPirateShip(position.getX(), position.getY(), new ChaseStrategy(null), oceanMap); // Target initially null
         } else if ("PREDICTIVE_CHASER".equalsIgnoreCase(type)) {
             // Create a ChaserPirateShip with PredictiveChaseStrategy
-            pirateShip = new ChaserPirateShip(position.getX(), position.getY(), new PredictiveChaseStrategy(null)); // Target initially null
+            pirateShip = new ChaserPirateShip(position.getX(), position.getY(), new PredictiveChaseStrategy(null), oceanMap); // Target initially null
         } else if ("PATROL".equalsIgnoreCase(type)) {
             // Create a PatrolPirateShip, maybe with a default PatrolStrategy
-            pirateShip = new PatrolPirateShip(position.getX(), position.getY(), new PatrolStrategy());
+            pirateShip = new PatrolPirateShip(position.getX(), position.getY(), new PatrolStrategy(random.split()), oceanMap);
         }
 
         if (pirateShip == null) {
             throw new IllegalArgumentException("Unknown pirate ship type: " + type);
         }
 
-        System.out.println("Created a " + type + " pirate ship.");
+        LOG.debug("Created a {} pirate ship.", type);
         return pirateShip;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.csci513.finalproject.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Hands events to a background writer through a bounded lock-free ring buffer, so callers never
+// format messages or block on I/O. When the ring is full new events are dropped and counted
+// rather than stalling a request. Slots are preallocated, so logging allocates only the argument array.
+public class AsyncLogAppender implements LogAppender {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    // One ring entry; sequence says whose turn it is (bounded MPSC queue after D. Vyukov)
+    private static final class Slot {
+        volatile long sequence;
+        long timeMillis;
+        LogLevel level;
+        String logger;
+        String template;
+        Object[] args;
+        Throwable error;
+    }
+
+    private final LogAppender delegate;
+    private final Slot[] ring;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // Next slot producers claim
+    private volatile long head;                        // Next slot the writer reads; only the writer advances it
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AsyncLogAppender(LogAppender delegate, int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.delegate = delegate;
+        this.ring = new Slot[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new Slot();
+            ring[i].sequence = i;
+        }
+        this.writer = new Thread(this::drainLoop, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "log-writer-shutdown"));
+    }
+
+    @Override
+    public void append(long timeMillis, LogLevel level, String logger, String template, Object[] args, Throwable error) {
+        long position = tail.get();
+        while (true) {
+            Slot slot = ring[(int) (position & mask)];
+            long difference = slot.sequence - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slot.timeMillis = timeMillis;
+                    slot.level = level;
+                    slot.logger = logger;
+                    slot.template = template;
+                    slot.args = args;
+                    slot.error = error;
+                    slot.sequence = position + 1; // Publishes the fields to the writer
+                    return;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                dropped.increment(); // Full: the writer is behind by a whole ring
+                return;
+            } else {
+                position = tail.get(); // Another producer took this slot
+            }
+        }
+    }
+
+    // Writes one event if available; returns false when the ring is empty
+    private boolean drainOne() {
+        Slot slot = ring[(int) (head & mask)];
+        if (slot.sequence != head + 1) {
+            return false;
+        }
+        try {
+            delegate.append(slot.timeMillis, slot.level, slot.logger, slot.template, slot.args, slot.error);
+        } catch (RuntimeException e) {
+            // A broken toString() in an argument must not kill the writer
+        }
+        slot.args = null; // Let arguments be collected
+        slot.error = null;
+        slot.sequence = head + ring.length; // Hands the slot back to producers
+        head++;
+        return true;
+    }
+
+    private void drainLoop() {
+        long reportedDrops = 0;
+        while (running) {
+            if (!drainOne()) {
+                long drops = dropped.sum();
+                if (drops != reportedDrops) {
+                    delegate.append(System.currentTimeMillis(), LogLevel.WARN, "AsyncLogAppender",
+                            "{} log events dropped because the buffer was full", new Object[]{drops - reportedDrops}, null);
+                    reportedDrops = drops;
+                }
+                delegate.flush();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    // Blocks until everything logged before this call has been written
+    @Override
+    public void flush() {
+        long target = tail.get();
+        while (running && head < target) {
+            LockSupport.parkNanos(100_000);
+        }
+        delegate.flush();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    // Stops the writer after draining what is already queued
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        while (drainOne()) {
+            // Drain the rest on the closing thread
+        }
+        delegate.flush();
+    }
+}
@@ -0,0 +1,55 @@
+package com.csci513.finalproject.logging;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+// Formats events and writes them synchronously: WARN and ERROR to err, everything else to out.
+// On its own this is the old println behaviour; wrap it in an AsyncLogAppender to keep I/O off callers.
+public class ConsoleLogAppender implements LogAppender {
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public ConsoleLogAppender(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    @Override
+    public void append(long timeMillis, LogLevel level, String logger, String template, Object[] args, Throwable error) {
+        StringBuilder line = new StringBuilder(64 + template.length());
+        TIME.formatTo(Instant.ofEpochMilli(timeMillis), line);
+        line.append(' ').append(level).append(' ').append(logger).append(" - ");
+        formatTo(line, template, args);
+        if (error != null) {
+            StringWriter trace = new StringWriter();
+            error.printStackTrace(new PrintWriter(trace));
+            line.append(System.lineSeparator()).append(trace.toString().stripTrailing());
+        }
+        (level.compareTo(LogLevel.WARN) >= 0 ? err : out).println(line);
+    }
+
+    @Override
+    public void flush() {
+        out.flush();
+        err.flush();
+    }
+
+    // Replaces each "{}" in the template with the next argument
+    static void formatTo(StringBuilder out, String template, Object[] args) {
+        int argIndex = 0;
+        int from = 0;
+        int placeholder;
+        while (args != null && argIndex < args.length && (placeholder = template.indexOf("{}", from)) >= 0) {
+            out.append(template, from, placeholder).append(args[argIndex++]);
+            from = placeholder + 2;
+        }
+        out.append(template, from, template.length());
+    }
+}
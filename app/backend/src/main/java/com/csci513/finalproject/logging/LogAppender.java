@@ -0,0 +1,12 @@
+package com.csci513.finalproject.logging;
+
+// Destination for log events that passed the level check. The message is still an unformatted
+// "{}" template plus arguments, so appenders decide on which thread formatting happens.
+public interface LogAppender {
+
+    void append(long timeMillis, LogLevel level, String logger, String template, Object[] args, Throwable error);
+
+    // Pushes out anything buffered
+    default void flush() {
+    }
+}
@@ -0,0 +1,18 @@
+package com.csci513.finalproject.logging;
+
+// Severity of a log message, from most to least verbose.
+public enum LogLevel {
+    TRACE, DEBUG, INFO, WARN, ERROR, OFF;
+
+    // Parses a level name such as "debug", falling back when it is missing or unknown
+    public static LogLevel parse(String name, LogLevel fallback) {
+        if (name == null) {
+            return fallback;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+}
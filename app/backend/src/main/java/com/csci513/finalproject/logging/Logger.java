@@ -0,0 +1,141 @@
+package com.csci513.finalproject.logging;
+
+import java.util.function.Supplier;
+
+// Small logging facade. The level is checked before anything else, so a disabled call costs one
+// volatile read; messages use "{}" placeholders and are only formatted by the appender, which by
+// default is asynchronous. Arguments may be formatted later on another thread, so pass immutable
+// values (strings, numbers, Positions). Calls with three or more arguments build a varargs array
+// (boxing primitives) before the check, so hot paths guard those with isDebugEnabled().
+// Configure with -Dlog.level=debug or setLevel()/setAppender(); muted() silences one thread's
+// messages below WARN, e.g. while a replay re-simulates thousands of ticks.
+public final class Logger {
+
+    private static final int RING_CAPACITY = 8192;
+
+    private static volatile LogLevel level = LogLevel.parse(System.getProperty("log.level"), LogLevel.INFO);
+    private static volatile LogAppender appender =
+            new AsyncLogAppender(new ConsoleLogAppender(System.out, System.err), RING_CAPACITY);
+
+    private static final ThreadLocal<Boolean> MUTED = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final String name;
+
+    private Logger(String name) {
+        this.name = name;
+    }
+
+    public static Logger get(Class<?> owner) {
+        return new Logger(owner.getSimpleName());
+    }
+
+    public static LogLevel getLevel() {
+        return level;
+    }
+
+    public static void setLevel(LogLevel newLevel) {
+        level = newLevel;
+    }
+
+    public static LogAppender getAppender() {
+        return appender;
+    }
+
+    // Replaces the destination for all loggers and returns the previous one
+    public static LogAppender setAppender(LogAppender newAppender) {
+        LogAppender previous = appender;
+        appender = newAppender;
+        return previous;
+    }
+
+    // Runs work with this thread's messages below WARN discarded, restoring the previous setting afterwards
+    public static <T> T muted(Supplier<T> work) {
+        Boolean previous = MUTED.get();
+        MUTED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            MUTED.set(previous);
+        }
+    }
+
+    public boolean isEnabled(LogLevel messageLevel) {
+        // The thread-local is only consulted for messages the level would let through
+        return messageLevel.compareTo(level) >= 0 && messageLevel != LogLevel.OFF
+                && (messageLevel.compareTo(LogLevel.WARN) >= 0 || !MUTED.get());
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(LogLevel.DEBUG);
+    }
+
+    public void debug(String message) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            log(LogLevel.DEBUG, message, null, null);
+        }
+    }
+
+    public void debug(String template, Object arg) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            log(LogLevel.DEBUG, template, new Object[]{arg}, null);
+        }
+    }
+
+    public void debug(String template, Object arg1, Object arg2) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            log(LogLevel.DEBUG, template, new Object[]{arg1, arg2}, null);
+        }
+    }
+
+    public void debug(String template, Object... args) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            log(LogLevel.DEBUG, template, args, null);
+        }
+    }
+
+    public void info(String message) {
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, message, null, null);
+        }
+    }
+
+    public void info(String template, Object arg) {
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, template, new Object[]{arg}, null);
+        }
+    }
+
+    public void info(String template, Object... args) {
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, template, args, null);
+        }
+    }
+
+    public void warn(String message) {
+        if (isEnabled(LogLevel.WARN)) {
+            log(LogLevel.WARN, message, null, null);
+        }
+    }
+
+    public void warn(String template, Object... args) {
+        if (isEnabled(LogLevel.WARN)) {
+            log(LogLevel.WARN, template, args, null);
+        }
+    }
+
+    public void error(String message) {
+        if (isEnabled(LogLevel.ERROR)) {
+            log(LogLevel.ERROR, message, null, null);
+        }
+    }
+
+    public void error(String message, Throwable error) {
+        if (isEnabled(LogLevel.ERROR)) {
+            log(LogLevel.ERROR, message, null, error);
+        }
+    }
+
+    private void log(LogLevel messageLevel, String template, Object[] args, Throwable error) {
+        appender.append(System.currentTimeMillis(), messageLevel, name, template, args, error);
+    }
+}
@@ -0,0 +1,42 @@
+package com.csci513.finalproject.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// The game's metrics in the default registry. Tick phases are resolved once here so the move
+// path only reads System.nanoTime() and bumps a histogram.
+public final class GameMetrics {
+
+    private static final MetricsRegistry REGISTRY = MetricsRegistry.getDefault();
+
+    private static final String TICK_PHASE = "columbus_tick_phase_duration_seconds";
+    private static final String TICK_HELP = "Time spent in each phase of a game tick, holding the game's lock";
+    private static final String REQUEST_DURATION = "columbus_http_request_duration_seconds";
+    private static final String REQUEST_TOTAL = "columbus_http_requests_total";
+
+    public static final LatencyHistogram TICK = tickPhase("tick");                       // One whole move
+    public static final LatencyHistogram COLUMBUS_MOVE = tickPhase("columbus_move");
+    public static final LatencyHistogram NPC_MOVE = tickPhase("npc_move");
+    public static final LatencyHistogram STATUS_UPDATE = tickPhase("status_update");
+    public static final LatencyHistogram SERIALIZE_STATE = tickPhase("serialize_state"); // Snapshot cache misses
+    public static final LatencyHistogram SERIALIZE_DELTA = tickPhase("serialize_delta");
+
+    // Journal records whose request thread had to wait for room in the full write queue
+    public static final LongAdder JOURNAL_QUEUE_FULL = REGISTRY.counter("columbus_journal_queue_full_total",
+            "Journal records that waited for the writer because its queue was full");
+
+    private GameMetrics() {
+    }
+
+    private static LatencyHistogram tickPhase(String phase) {
+        return REGISTRY.histogram(TICK_PHASE, TICK_HELP, "phase", phase);
+    }
+
+    public static LatencyHistogram requestDuration(String route) {
+        return REGISTRY.histogram(REQUEST_DURATION, "Time to handle an HTTP request, by route", "route", route);
+    }
+
+    public static LongAdder requests(String route, int status) {
+        return REGISTRY.counter(REQUEST_TOTAL, "HTTP requests handled, by route and status",
+                "route", route, "status", Integer.toString(status));
+    }
+}
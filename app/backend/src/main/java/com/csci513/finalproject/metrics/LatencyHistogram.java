@@ -0,0 +1,119 @@
+package com.csci513.finalproject.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// HDR-style latency histogram in nanoseconds: log-linear buckets with SUB_BUCKETS linear steps per
+// power of two, so any recorded value is off by at most ~6%. Recording is two array increments with
+// no allocation or locking; counts are striped across threads to keep contended cache lines apart.
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 40; // 2^40 ns is about 18 minutes; larger values are clamped
+    static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final long MAX_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+    private static final int STRIPES = stripeCount();
+
+    private final AtomicLongArray[] counts = new AtomicLongArray[STRIPES];
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < STRIPES; i++) {
+            counts[i] = new AtomicLongArray(BUCKET_COUNT);
+        }
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_VALUE));
+        int stripe = (int) (Thread.currentThread().threadId() & (STRIPES - 1));
+        counts[stripe].incrementAndGet(bucketIndex(value));
+        total.increment();
+        sumNanos.add(value);
+    }
+
+    // Records the time elapsed since startNanos (a System.nanoTime() reading)
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return total.sum();
+    }
+
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    // For each limit (ascending), the number of recorded values no greater than it, to bucket precision
+    public long[] countsAtOrBelow(long[] limitsNanos) {
+        long[] merged = mergedCounts();
+        long[] result = new long[limitsNanos.length];
+        long cumulative = 0;
+        int bucket = 0;
+        for (int i = 0; i < limitsNanos.length; i++) {
+            while (bucket < BUCKET_COUNT && bucketUpperBound(bucket) <= limitsNanos[i] + 1) {
+                cumulative += merged[bucket++];
+            }
+            result[i] = cumulative;
+        }
+        return result;
+    }
+
+    // Value at the given percentile (0-100), reported as the upper bound of its bucket
+    public long getValueAtPercentile(double percentile) {
+        long[] merged = mergedCounts();
+        long count = 0;
+        for (long bucketCount : merged) {
+            count += bucketCount;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += merged[bucket];
+            if (seen >= rank) {
+                return bucketUpperBound(bucket) - 1;
+            }
+        }
+        return MAX_VALUE;
+    }
+
+    private long[] mergedCounts() {
+        long[] merged = new long[BUCKET_COUNT];
+        for (AtomicLongArray stripe : counts) {
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                merged[bucket] += stripe.get(bucket);
+            }
+        }
+        return merged;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    // Exclusive upper bound of the values falling in the bucket
+    static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket + 1;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1)) << shift;
+    }
+
+    private static int stripeCount() {
+        int processors = Math.min(Runtime.getRuntime().availableProcessors(), 16);
+        return Integer.highestOneBit(Math.max(1, processors)); // Power of two, for masking
+    }
+}
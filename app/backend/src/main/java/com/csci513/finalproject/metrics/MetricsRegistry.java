@@ -0,0 +1,142 @@
+package com.csci513.finalproject.metrics;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Named metrics rendered in the Prometheus text exposition format by scrape().
+// Look-ups create a metric on first use; callers on hot paths should keep the returned instance.
+// Gauges and function counters are read only at scrape time, so they cost nothing in between.
+public class MetricsRegistry {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    // Histogram buckets exported to Prometheus, in seconds
+    private static final double[] BUCKET_SECONDS = {
+            0.00001, 0.00005, 0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005,
+            0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+    private static final long[] BUCKET_NANOS = new long[BUCKET_SECONDS.length];
+    private static final String[] BUCKET_LABELS = new String[BUCKET_SECONDS.length];
+
+    static {
+        for (int i = 0; i < BUCKET_SECONDS.length; i++) {
+            BUCKET_NANOS[i] = Math.round(BUCKET_SECONDS[i] * 1e9);
+            BUCKET_LABELS[i] = "le=\"" + BigDecimal.valueOf(BUCKET_SECONDS[i]).toPlainString() + "\"";
+        }
+    }
+
+    private enum Type { COUNTER, GAUGE, HISTOGRAM }
+
+    private static class Family {
+        final String name;
+        final String help;
+        final Type type;
+        final Map<String, Object> series = new ConcurrentSkipListMap<>(); // Label set -> metric
+
+        Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    // The process-wide registry served by /metrics
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    // labels are name/value pairs, e.g. histogram("x_seconds", "...", "route", "/state")
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, Type.HISTOGRAM).series
+                .computeIfAbsent(labelKey(labels), k -> new LatencyHistogram());
+    }
+
+    public LongAdder counter(String name, String help, String... labels) {
+        return (LongAdder) family(name, help, Type.COUNTER).series
+                .computeIfAbsent(labelKey(labels), k -> new LongAdder());
+    }
+
+    // A counter whose value is maintained elsewhere and read when scraped; re-registering replaces it
+    public void counterFunction(String name, String help, LongSupplier value, String... labels) {
+        family(name, help, Type.COUNTER).series.put(labelKey(labels), value);
+    }
+
+    // A value read when scraped; re-registering replaces it
+    public void gauge(String name, String help, LongSupplier value, String... labels) {
+        family(name, help, Type.GAUGE).series.put(labelKey(labels), value);
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family family = families.computeIfAbsent(name, n -> new Family(n, help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type);
+        }
+        return family;
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Family family : families.values()) {
+            out.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(family.name).append(' ').append(family.type.name().toLowerCase(Locale.ROOT)).append('\n');
+            for (Map.Entry<String, Object> series : family.series.entrySet()) {
+                String labels = series.getKey();
+                Object metric = series.getValue();
+                if (metric instanceof LatencyHistogram) {
+                    writeHistogram(out, family.name, labels, (LatencyHistogram) metric);
+                } else {
+                    long value = metric instanceof LongAdder ? ((LongAdder) metric).sum() : ((LongSupplier) metric).getAsLong();
+                    writeSample(out, family.name, labels, Long.toString(value));
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private void writeHistogram(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        // Read count first: a value recorded mid-scrape then never makes a bucket exceed +Inf
+        long count = histogram.getCount();
+        long[] cumulative = histogram.countsAtOrBelow(BUCKET_NANOS);
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        for (int i = 0; i < BUCKET_SECONDS.length; i++) {
+            writeSample(out, name + "_bucket", prefix + BUCKET_LABELS[i], Long.toString(Math.min(cumulative[i], count)));
+        }
+        writeSample(out, name + "_bucket", prefix + "le=\"+Inf\"", Long.toString(count));
+        writeSample(out, name + "_sum", labels, Double.toString(histogram.getSumNanos() / 1e9));
+        writeSample(out, name + "_count", labels, Long.toString(count));
+    }
+
+    private void writeSample(StringBuilder out, String name, String labels, String value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    // Renders name/value pairs as a Prometheus label set body: a="x",b="y"
+    private static String labelKey(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                key.append(',');
+            }
+            key.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        return key.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
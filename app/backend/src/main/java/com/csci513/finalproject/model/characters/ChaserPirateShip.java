@@ -1,11 +1,17 @@
 package com.csci513.finalproject.model.characters;
 
+import com.csci513.finalproject.model.map.OceanMap;
 import com.csci513.finalproject.strategy.MovementStrategy;
 
 
 public class ChaserPirateShip extends PirateShip {
-    public ChaserPirateShip(int x, int y, MovementStrategy strategy) {
-        super(x, y, strategy);
+    public ChaserPirateShip(int x, int y, MovementStrategy strategy, OceanMap oceanMap) {
+        super(x, y, strategy, oceanMap);
+    }
+
+    @Override
+    public ChaserPirateShip copy() {
+        return new ChaserPirateShip(getPosition().getX(), getPosition().getY(), getMovementStrategy().copy(), getOceanMap());
     }
 
 } 
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.csci513.finalproject.model.characters;
 
+import com.csci513.finalproject.logging.Logger;
 import com.csci513.finalproject.observer.Observable;
 import com.csci513.finalproject.observer.Observer;
 import com.csci513.finalproject.utils.Position;
@@ -14,19 +15,25 @@ import java.util.Set;
 // Acts as the Observable for Pirates (Observers).
 public class ColumbusShip extends GameCharacter implements Observable {
 
+    private static final Logger LOG = Logger.get(ColumbusShip.class);
+
     private Set<Observer> observers;
-    // Map dimensions fetched from singleton
-    private int mapWidth = OceanMap.getInstance().getWidth();
-    private int mapHeight = OceanMap.getInstance().getHeight();
+    // Map of the session Columbus is playing in
+    private final OceanMap oceanMap;
+    private final int mapWidth;
+    private final int mapHeight;
 
-    public ColumbusShip(int x, int y) {
+    public ColumbusShip(int x, int y, OceanMap oceanMap) {
         super(x, y);
+        this.oceanMap = oceanMap;
+        this.mapWidth = oceanMap.getWidth();
+        this.mapHeight = oceanMap.getHeight();
         this.observers = new HashSet<>(); // Initialize the observers set
     }
 
     @Override
     public void move() {
-        System.out.println("ColumbusShip.move() called without direction - doing nothing.");
+        LOG.debug("ColumbusShip.move() called without direction - doing nothing.");
     }
 
     // New move method accepting direction
@@ -51,7 +58,7 @@ public class ColumbusShip extends GameCharacter implements Observable {
                 nextX++;
                 break;
             default:
-                System.out.println("Unknown move direction: " + direction);
+                LOG.debug("Unknown move direction: {}", direction);
                 return; // Don't move or notify if direction is invalid
         }
 
@@ -60,20 +67,22 @@ public class ColumbusShip extends GameCharacter implements Observable {
         nextY = (nextY + mapHeight) % mapHeight; // Modulo for vertical wrap
 
         // Check for moving onto islands
-        if (OceanMap.getInstance().isIsland(nextX, nextY)) { // Use OceanMap method
-             System.out.println("Columbus tried to move onto an island at [" + nextX + "," + nextY + "]");
+        if (oceanMap.isIsland(nextX, nextY)) { // Use OceanMap method
+             LOG.debug("Columbus tried to move onto an island at [{},{}]", nextX, nextY);
              return; // Stay put
         }
 
         // Update position if it changed
         if (nextX != currentX || nextY != currentY) {
             setPosition(new Position(nextX, nextY));
-            System.out.println("Columbus moved " + direction + " to [" + getPosition().getX() + "," + getPosition().getY() + "]");
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Columbus moved {} to [{},{}]", direction, getPosition().getX(), getPosition().getY());
+            }
             // Notify observers only if the position actually changed
             notifyObservers();
         } else {
              // This case might happen if the move direction was unknown or blocked by an island
-             System.out.println("Columbus stayed at [" + currentX + "," + currentY + "]");
+             LOG.debug("Columbus stayed at [{},{}]", currentX, currentY);
         }
     }
 
@@ -82,19 +91,19 @@ public class ColumbusShip extends GameCharacter implements Observable {
     public void registerObserver(Observer observer) {
         if (!observers.contains(observer)) {
             observers.add(observer);
-            System.out.println("Observer registered: " + observer.getClass().getSimpleName());
+            LOG.debug("Observer registered: {}", observer.getClass().getSimpleName());
         }
     }
 
     @Override
     public void removeObserver(Observer observer) {
         observers.remove(observer);
-        System.out.println("Observer removed: " + observer.getClass().getSimpleName());
+        LOG.debug("Observer removed: {}", observer.getClass().getSimpleName());
     }
 
     @Override
     public void notifyObservers() {
-        System.out.println("Columbus notifying " + observers.size() + " observers...");
+        LOG.debug("Columbus notifying {} observers...", observers.size());
         for (Observer observer : observers) {
             observer.update(this);
         }
@@ -102,7 +111,7 @@ public class ColumbusShip extends GameCharacter implements Observable {
 
     // Method to clear all registered observers
     public void clearObservers() {
-        System.out.println("Clearing all observers for ColumbusShip.");
+        LOG.debug("Clearing all observers for ColumbusShip.");
         this.observers.clear();
     }
 } 
\ No newline at end of file
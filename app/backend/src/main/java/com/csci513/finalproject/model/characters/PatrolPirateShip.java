@@ -1,11 +1,17 @@
 package com.csci513.finalproject.model.characters;
 
+import com.csci513.finalproject.model.map.OceanMap;
 import com.csci513.finalproject.strategy.MovementStrategy;
 
 
 public class PatrolPirateShip extends PirateShip {
-    public PatrolPirateShip(int x, int y, MovementStrategy strategy) {
-        super(x, y, strategy);
+    public PatrolPirateShip(int x, int y, MovementStrategy strategy, OceanMap oceanMap) {
+        super(x, y, strategy, oceanMap);
+    }
+
+    @Override
+    public PatrolPirateShip copy() {
+        return new PatrolPirateShip(getPosition().getX(), getPosition().getY(), getMovementStrategy().copy(), getOceanMap());
     }
 
 } 
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.csci513.finalproject.model.characters;
 
+import com.csci513.finalproject.logging.Logger;
 import com.csci513.finalproject.observer.Observable;
 import com.csci513.finalproject.observer.Observer;
 import com.csci513.finalproject.strategy.ChaseStrategy;
@@ -8,22 +9,25 @@ import com.csci513.finalproject.strategy.PatrolStrategy;
 import com.csci513.finalproject.strategy.PredictiveChaseStrategy;
 import com.csci513.finalproject.utils.Position;
 import com.csci513.finalproject.model.map.OceanMap;
-import com.csci513.finalproject.model.map.MapCell;
-
-import java.util.Random;
 
 // Abstract base class for different Pirate Ship types.
 // Implements Observer to track Columbus.
 public abstract class PirateShip extends GameCharacter implements Observer {
 
+    private static final Logger LOG = Logger.get(PirateShip.class);
+
     private MovementStrategy movementStrategy;
-    // Map dimensions fetched from singleton
-    private int mapWidth = OceanMap.getInstance().getWidth();
-    private int mapHeight = OceanMap.getInstance().getHeight();
+    // Map of the session this ship sails in
+    private final OceanMap oceanMap;
+    private final int mapWidth;
+    private final int mapHeight;
 
-    public PirateShip(int x, int y, MovementStrategy strategy) {
+    public PirateShip(int x, int y, MovementStrategy strategy, OceanMap oceanMap) {
         super(x, y);
         this.movementStrategy = strategy;
+        this.oceanMap = oceanMap;
+        this.mapWidth = oceanMap.getWidth();
+        this.mapHeight = oceanMap.getHeight();
     }
 
     // Use the assigned strategy to move
@@ -39,14 +43,17 @@ public abstract class PirateShip extends GameCharacter implements Observer {
             Position nextPosition = new Position(nextX, nextY);
 
             // Check for moving onto islands
-            if (OceanMap.getInstance().isIsland(nextX, nextY)) {
-                 System.out.println(getClass().getSimpleName() + " tried to move onto an island at [" + nextX + "," + nextY + "]");
+            if (oceanMap.isIsland(nextX, nextY)) {
+                 if (LOG.isDebugEnabled()) {
+                     LOG.debug("{} tried to move onto an island at [{},{}]", getClass().getSimpleName(), nextX, nextY);
+                 }
                  nextPosition = currentPosition; // Stay put if moving onto island
             } else {
                 // Check if the destination cell is a strategy switcher
-                MapCell destinationCell = OceanMap.getInstance().getCell(nextX, nextY);
-                if (destinationCell != null && destinationCell.isStrategySwitcher()) {
-                    System.out.println(getClass().getSimpleName() + " landed on a strategy switcher cell at [" + nextX + "," + nextY + "]!");
+                if (oceanMap.isStrategySwitcher(nextX, nextY)) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("{} landed on a strategy switcher cell at [{},{}]!", getClass().getSimpleName(), nextX, nextY);
+                    }
                     switchStrategy();
                 }
             }
@@ -54,12 +61,16 @@ public abstract class PirateShip extends GameCharacter implements Observer {
             // Set position if it actually changed
             if (!currentPosition.equals(nextPosition)) {
                 setPosition(nextPosition);
-                System.out.println(getClass().getSimpleName() + " moved to [" + getPosition().getX() + "," + getPosition().getY() + "] using " + movementStrategy.getClass().getSimpleName());
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("{} moved to [{},{}] using {}", getClass().getSimpleName(), getPosition().getX(), getPosition().getY(), movementStrategy.getClass().getSimpleName());
+                }
             } else {
-                System.out.println(getClass().getSimpleName() + " stayed at [" + getPosition().getX() + "," + getPosition().getY() + "] (Island or no move from strategy)");
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("{} stayed at [{},{}] (Island or no move from strategy)", getClass().getSimpleName(), getPosition().getX(), getPosition().getY());
+                }
             }
         } else {
-            System.out.println(getClass().getSimpleName() + " has no strategy!");
+            LOG.debug("{} has no strategy!", getClass().getSimpleName());
         }
     }
 
@@ -69,18 +80,25 @@ public abstract class PirateShip extends GameCharacter implements Observer {
             // Switch from Standard Chase to Predictive Chase
             Position currentTarget = ((ChaseStrategy) this.movementStrategy).getTarget();
             this.movementStrategy = new PredictiveChaseStrategy(currentTarget);
-            System.out.println(getClass().getSimpleName() + " switched to PredictiveChaseStrategy.");
+            LOG.debug("{} switched to PredictiveChaseStrategy.", getClass().getSimpleName());
         } else if (this.movementStrategy instanceof PredictiveChaseStrategy) {
             // Switch from Predictive Chase to Standard Chase
             Position currentTarget = ((PredictiveChaseStrategy) this.movementStrategy).getTarget();
             this.movementStrategy = new ChaseStrategy(currentTarget);
-            System.out.println(getClass().getSimpleName() + " switched to ChaseStrategy.");
+            LOG.debug("{} switched to ChaseStrategy.", getClass().getSimpleName());
         } else {
             // If it's Patrol or some other strategy, do nothing
-            System.out.println(getClass().getSimpleName() + " landed on switcher, but current strategy (" + this.movementStrategy.getClass().getSimpleName() + ") is not switchable.");
+            LOG.debug("{} landed on switcher, but current strategy ({}) is not switchable.", getClass().getSimpleName(), this.movementStrategy.getClass().getSimpleName());
         }
     }
 
+    // Independent copy in the same state (position and strategy), e.g. for a replay checkpoint
+    public abstract PirateShip copy();
+
+    protected OceanMap getOceanMap() {
+        return oceanMap;
+    }
+
     public void setMovementStrategy(MovementStrategy movementStrategy) {
         this.movementStrategy = movementStrategy;
     }
@@ -95,9 +113,9 @@ public abstract class PirateShip extends GameCharacter implements Observer {
     public void update(Observable observable) {
         if (observable instanceof ColumbusShip) {
             ColumbusShip columbus = (ColumbusShip) observable;
-            System.out.println(getClass().getSimpleName() + " at [" + getPosition().getX() + "," + getPosition().getY() +
-                               "] observes Columbus at [" + columbus.getPosition().getX() + "," +
-                               columbus.getPosition().getY() + "]");
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("{} at [{},{}] observes Columbus at [{},{}]", getClass().getSimpleName(), getPosition().getX(), getPosition().getY(), columbus.getPosition().getX(), columbus.getPosition().getY());
+            }
 
              // Update the target for chase-type strategies
              if (this.movementStrategy instanceof ChaseStrategy) {
@@ -1,31 +1,54 @@
 package com.csci513.finalproject.model.characters;
 
 import com.csci513.finalproject.composite.OceanFeature;
+import com.csci513.finalproject.logging.Logger;
 import com.csci513.finalproject.strategy.MovementStrategy;
 import com.csci513.finalproject.strategy.PatrolStrategy; // Use PatrolStrategy for basic movement
 import com.csci513.finalproject.utils.Position;
+import com.csci513.finalproject.utils.SplitMix64;
 import com.csci513.finalproject.model.map.OceanMap;
 
 // Represents a Sea Monster.
 // Implements OceanFeature to be part of the Composite pattern.
 public class SeaMonster extends GameCharacter implements OceanFeature {
 
+    private static final Logger LOG = Logger.get(SeaMonster.class);
+
     private boolean active = true; // Part of OceanFeature
     private MovementStrategy movementStrategy;
-    // Map dimensions fetched from singleton
-    private int mapWidth = OceanMap.getInstance().getWidth();
-    private int mapHeight = OceanMap.getInstance().getHeight();
+    // Map of the session this monster lives in
+    private final OceanMap oceanMap;
+    private final int mapWidth;
+    private final int mapHeight;
+
+    public SeaMonster(int x, int y, OceanMap oceanMap) {
+        this(x, y, oceanMap, new PatrolStrategy()); // Give monsters a default patrol strategy
+    }
 
-    public SeaMonster(int x, int y) {
+    // Patrols with the given generator, so a seeded game moves its monsters reproducibly
+    public SeaMonster(int x, int y, OceanMap oceanMap, SplitMix64 random) {
+        this(x, y, oceanMap, new PatrolStrategy(random));
+    }
+
+    private SeaMonster(int x, int y, OceanMap oceanMap, MovementStrategy movementStrategy) {
         super(x, y);
-        // Give monsters a default patrol strategy
-        this.movementStrategy = new PatrolStrategy();
+        this.oceanMap = oceanMap;
+        this.mapWidth = oceanMap.getWidth();
+        this.mapHeight = oceanMap.getHeight();
+        this.movementStrategy = movementStrategy;
+    }
+
+    // Independent copy in the same state, e.g. for a replay checkpoint
+    public SeaMonster copy() {
+        SeaMonster copy = new SeaMonster(getPosition().getX(), getPosition().getY(), oceanMap, movementStrategy.copy());
+        copy.active = active;
+        return copy;
     }
 
     @Override
     public void move() {
         if (!active) {
-            System.out.println("SeaMonster is inactive, not moving.");
+            LOG.debug("SeaMonster is inactive, not moving.");
             return;
         }
 
@@ -39,19 +62,21 @@ public class SeaMonster extends GameCharacter implements OceanFeature {
             Position nextPosition = new Position(nextX, nextY);
 
             // Check for moving onto islands
-            if (OceanMap.getInstance().isIsland(nextX, nextY)) {
-                System.out.println("SeaMonster tried to move onto an island at [" + nextX + "," + nextY + "]");
+            if (oceanMap.isIsland(nextX, nextY)) {
+                LOG.debug("SeaMonster tried to move onto an island at [{},{}]", nextX, nextY);
                 nextPosition = currentPosition; // Stay put if moving onto island
             }
 
             if (!currentPosition.equals(nextPosition)) {
                 setPosition(nextPosition);
-                 System.out.println("SeaMonster moved to [" + getPosition().getX() + "," + getPosition().getY() + "] using " + movementStrategy.getClass().getSimpleName());
+                 if (LOG.isDebugEnabled()) {
+                     LOG.debug("SeaMonster moved to [{},{}] using {}", getPosition().getX(), getPosition().getY(), movementStrategy.getClass().getSimpleName());
+                 }
             } else {
-                 System.out.println("SeaMonster stayed at [" + getPosition().getX() + "," + getPosition().getY() + "] (Island or no move from strategy)");
+                 LOG.debug("SeaMonster stayed at [{},{}] (Island or no move from strategy)", getPosition().getX(), getPosition().getY());
             }
         } else {
-             System.out.println("SeaMonster has no strategy!");
+             LOG.debug("SeaMonster has no strategy!");
         }
     }
 
@@ -59,13 +84,13 @@ public class SeaMonster extends GameCharacter implements OceanFeature {
     @Override
     public void activate() {
         this.active = true;
-        System.out.println("SeaMonster at [" + getPosition().getX() + "," + getPosition().getY() + "] activated.");
+        LOG.debug("SeaMonster at [{},{}] activated.", getPosition().getX(), getPosition().getY());
     }
 
     @Override
     public void deactivate() {
         this.active = false;
-        System.out.println("SeaMonster at [" + getPosition().getX() + "," + getPosition().getY() + "] deactivated.");
+        LOG.debug("SeaMonster at [{},{}] deactivated.", getPosition().getX(), getPosition().getY());
     }
 
     public boolean isActive() {
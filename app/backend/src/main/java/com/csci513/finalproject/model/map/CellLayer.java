@@ -0,0 +1,38 @@
+package com.csci513.finalproject.model.map;
+
+// One boolean per map cell, packed 64 to a long and addressed by cell index (y * width + x).
+// A 1000x1000 layer takes 125 KB, where MapCell objects took 16 bytes plus a reference per cell,
+// and neighbouring cells of a row share a cache line.
+final class CellLayer {
+
+    private final long[] words;
+
+    CellLayer(int cellCount) {
+        this.words = new long[(cellCount + 63) >>> 6];
+    }
+
+    boolean get(int index) {
+        return (words[index >>> 6] & (1L << index)) != 0; // Shifts use the low 6 bits of index
+    }
+
+    void set(int index) {
+        words[index >>> 6] |= 1L << index;
+    }
+
+    // Word i holds cells 64 * i to 64 * i + 63, lowest bit first; bits past the last cell are 0
+    long word(int i) {
+        return words[i];
+    }
+
+    int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    long estimateMemoryBytes() {
+        return 16 + 8L * words.length;
+    }
+}
@@ -0,0 +1,277 @@
+package com.csci513.finalproject.model.map;
+
+import com.csci513.finalproject.utils.Position;
+import com.csci513.finalproject.utils.SplitMix64;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Islands and strategy switchers of a large map, generated one square chunk at a time on first access.
+// A chunk depends only on the terrain seed and its coordinates, so a cold chunk can be dropped and later
+// rebuilt identically: at most maxCachedChunks stay in memory, least recently used dropped first.
+// Startup cost and memory therefore depend on the cells visited, not on the map's area.
+// The terrain is shared by every game on the world, so a chunk is generated by the first caller that needs
+// it without holding any lock; callers needing the same chunk meanwhile wait for that one generation.
+// Islands are single cells off the chunk's border with no island among their eight neighbours, so they
+// can never wall off open water, within a chunk or across chunks: the ocean is always one region.
+final class ChunkedTerrain {
+
+    static final int CHUNK_SIZE = 256; // Chunks are 256x256 cells (16 KB of layers); edge chunks may be smaller
+    static final int DEFAULT_MAX_CACHED_CHUNKS = 64;
+
+    private static final long CHUNK_BYTES = 2 * (16 + 8L * (CHUNK_SIZE * CHUNK_SIZE / 64)) + 64;
+
+    static final class Chunk {
+        final int chunkX;
+        final int chunkY;
+        final int width;
+        final CellLayer islands;
+        final CellLayer strategySwitchers;
+        volatile long lastUsed; // System.nanoTime() of the last lookup that missed the caller's hint
+
+        Chunk(int chunkX, int chunkY, int width, int height) {
+            this.chunkX = chunkX;
+            this.chunkY = chunkY;
+            this.width = width;
+            this.islands = new CellLayer(width * height);
+            this.strategySwitchers = new CellLayer(width * height);
+        }
+
+        // Coordinates are relative to the chunk's top-left cell
+        int index(int localX, int localY) {
+            return localY * width + localX;
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private final long seed;
+    private final int chunksAcross;
+    private final int maxCachedChunks;
+    private final ConcurrentHashMap<Long, FutureTask<Chunk>> cache = new ConcurrentHashMap<>();
+    private final Object evictionLock = new Object();
+    // Entities move locally, so most of a caller's lookups hit the chunk it used last. Kept per thread, so
+    // games in different chunks do not overwrite each other's hint; a game's moves run on one thread at a time.
+    private final ThreadLocal<Chunk> lastChunk = new ThreadLocal<>();
+    private final AtomicLong generatedChunks = new AtomicLong();
+
+    ChunkedTerrain(int width, int height, long seed, int maxCachedChunks) {
+        this.width = width;
+        this.height = height;
+        this.seed = seed;
+        this.chunksAcross = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.maxCachedChunks = maxCachedChunks;
+    }
+
+    // Coordinates must be in bounds
+    boolean isIsland(int x, int y) {
+        Chunk chunk = chunkAt(x, y);
+        return chunk.islands.get(chunk.index(x % CHUNK_SIZE, y % CHUNK_SIZE));
+    }
+
+    boolean isStrategySwitcher(int x, int y) {
+        Chunk chunk = chunkAt(x, y);
+        return chunk.strategySwitchers.get(chunk.index(x % CHUNK_SIZE, y % CHUNK_SIZE));
+    }
+
+    private Chunk chunkAt(int x, int y) {
+        int chunkX = x / CHUNK_SIZE;
+        int chunkY = y / CHUNK_SIZE;
+        Chunk chunk = lastChunk.get();
+        if (chunk != null && chunk.chunkX == chunkX && chunk.chunkY == chunkY) {
+            return chunk;
+        }
+        long key = (long) chunkY * chunksAcross + chunkX;
+        FutureTask<Chunk> task = cache.get(key);
+        if (task == null) {
+            FutureTask<Chunk> created = new FutureTask<>(() -> generate(chunkX, chunkY, key));
+            task = cache.putIfAbsent(key, created);
+            if (task == null) {
+                task = created;
+                generatedChunks.incrementAndGet();
+                created.run(); // On this thread, outside any lock
+                evictIfFull();
+            }
+        }
+        chunk = await(key, task);
+        chunk.lastUsed = System.nanoTime();
+        lastChunk.set(chunk);
+        return chunk;
+    }
+
+    private Chunk await(long key, FutureTask<Chunk> task) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return task.get();
+                } catch (InterruptedException e) {
+                    interrupted = true; // Lookups cannot fail, so finish waiting and restore the flag
+                } catch (ExecutionException e) {
+                    cache.remove(key, task); // Let the next caller try again
+                    throw new IllegalStateException("Generating chunk " + key + " failed", e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Drops the least recently used generated chunks beyond maxCachedChunks. A scan of the cached chunks,
+    // which only runs after a generation and so costs far less than the generation itself.
+    private void evictIfFull() {
+        synchronized (evictionLock) {
+            while (cache.size() > maxCachedChunks) {
+                Map.Entry<Long, FutureTask<Chunk>> eldest = null;
+                long eldestUse = 0;
+                for (Map.Entry<Long, FutureTask<Chunk>> entry : cache.entrySet()) {
+                    FutureTask<Chunk> task = entry.getValue();
+                    if (task.state() != FutureTask.State.SUCCESS) {
+                        continue;
+                    }
+                    long used = task.resultNow().lastUsed;
+                    if (eldest == null || used - eldestUse < 0) { // nanoTime readings compare by difference
+                        eldest = entry;
+                        eldestUse = used;
+                    }
+                }
+                if (eldest == null) {
+                    return; // Everything else is still being generated
+                }
+                cache.remove(eldest.getKey(), eldest.getValue());
+            }
+        }
+    }
+
+    // Scatters isolated single-cell islands, then switchers on open water, never on the start cell (0,0)
+    private Chunk generate(int chunkX, int chunkY, long key) {
+        int chunkWidth = Math.min(CHUNK_SIZE, width - chunkX * CHUNK_SIZE);
+        int chunkHeight = Math.min(CHUNK_SIZE, height - chunkY * CHUNK_SIZE);
+        Chunk chunk = new Chunk(chunkX, chunkY, chunkWidth, chunkHeight);
+        int cells = chunkWidth * chunkHeight;
+        int start = key == 0 ? 0 : -1; // Index of (0,0) within the chunk, if it holds it
+        SplitMix64 random = new SplitMix64(seed ^ (key * 0xbf58476d1ce4e5b9L)).split();
+
+        for (int placed = 0, target = islandsPerChunk(chunkWidth, chunkHeight); placed < target; ) {
+            int cell = random.nextInt(cells);
+            if (isIsolated(chunk, cell % chunkWidth, cell / chunkWidth, chunkHeight)) {
+                chunk.islands.set(cell);
+                placed++;
+            }
+        }
+        for (int placed = 0, target = cells / OceanMap.CELLS_PER_SWITCHER; placed < target; ) {
+            int cell = random.nextInt(cells);
+            if (cell != start && !chunk.islands.get(cell) && !chunk.strategySwitchers.get(cell)) {
+                chunk.strategySwitchers.set(cell);
+                placed++;
+            }
+        }
+        chunk.lastUsed = System.nanoTime();
+        return chunk;
+    }
+
+    // The classic density, capped well below what thin edge chunks can hold once islands keep apart
+    private static int islandsPerChunk(int chunkWidth, int chunkHeight) {
+        int spacedSlots = ((chunkWidth - 1) / 2) * ((chunkHeight - 1) / 2);
+        return Math.min(chunkWidth * chunkHeight / OceanMap.CELLS_PER_ISLAND, spacedSlots / 4);
+    }
+
+    // Off the chunk's border, which also keeps the start cell clear, and not next to another island
+    private static boolean isIsolated(Chunk chunk, int localX, int localY, int chunkHeight) {
+        if (localX == 0 || localY == 0 || localX == chunk.width - 1 || localY == chunkHeight - 1) {
+            return false;
+        }
+        for (int y = localY - 1; y <= localY + 1; y++) {
+            for (int x = localX - 1; x <= localX + 1; x++) {
+                if (chunk.islands.get(chunk.index(x, y))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Islands on the whole map, from the per-chunk counts, without generating anything
+    long countIslands() {
+        long count = 0;
+        for (int chunkY = 0; chunkY * CHUNK_SIZE < height; chunkY++) {
+            for (int chunkX = 0; chunkX < chunksAcross; chunkX++) {
+                count += islandsPerChunk(Math.min(CHUNK_SIZE, width - chunkX * CHUNK_SIZE),
+                        Math.min(CHUNK_SIZE, height - chunkY * CHUNK_SIZE));
+            }
+        }
+        return count;
+    }
+
+    // Open water that can hold the treasure, i.e. neither a switcher nor the start, without generating anything
+    long countTreasureCells() {
+        long count = -1; // The start
+        for (int chunkY = 0; chunkY * CHUNK_SIZE < height; chunkY++) {
+            for (int chunkX = 0; chunkX < chunksAcross; chunkX++) {
+                count += cellsIn(chunkX, chunkY, true);
+            }
+        }
+        return count;
+    }
+
+    // The open cell with the given rank, counting chunk by chunk in row order and then cell by cell within
+    // the chunk; 0 <= rank < the map's open cells. Uniform sampling without rejection, and only the chunk
+    // holding the cell is generated: the others are skipped by their counts.
+    Position openCellAt(long rank) {
+        return cellAt(rank, false);
+    }
+
+    // The same over the cells counted by countTreasureCells()
+    Position treasureCellAt(long rank) {
+        return cellAt(rank, true);
+    }
+
+    private Position cellAt(long rank, boolean forTreasure) {
+        for (int chunkY = 0; chunkY * CHUNK_SIZE < height; chunkY++) {
+            for (int chunkX = 0; chunkX < chunksAcross; chunkX++) {
+                boolean holdsStart = chunkX == 0 && chunkY == 0;
+                long inChunk = cellsIn(chunkX, chunkY, forTreasure) - (forTreasure && holdsStart ? 1 : 0);
+                if (rank >= inChunk) {
+                    rank -= inChunk;
+                    continue;
+                }
+                Chunk chunk = chunkAt(chunkX * CHUNK_SIZE, chunkY * CHUNK_SIZE);
+                for (int cell = 0; ; cell++) {
+                    boolean excluded = chunk.islands.get(cell) || forTreasure
+                            && ((holdsStart && cell == 0) || chunk.strategySwitchers.get(cell));
+                    if (!excluded && rank-- == 0) {
+                        return new Position(chunkX * CHUNK_SIZE + cell % chunk.width, chunkY * CHUNK_SIZE + cell / chunk.width);
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("Rank is past the last cell by " + rank);
+    }
+
+    // Open cells of a chunk, less its switchers when counting treasure cells; generation places exact counts
+    private int cellsIn(int chunkX, int chunkY, boolean forTreasure) {
+        int chunkWidth = Math.min(CHUNK_SIZE, width - chunkX * CHUNK_SIZE);
+        int chunkHeight = Math.min(CHUNK_SIZE, height - chunkY * CHUNK_SIZE);
+        int cells = chunkWidth * chunkHeight;
+        int switchers = forTreasure ? cells / OceanMap.CELLS_PER_SWITCHER : 0;
+        return cells - islandsPerChunk(chunkWidth, chunkHeight) - switchers;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    // Chunks generated so far, including ones regenerated after eviction
+    long getGeneratedChunks() {
+        return generatedChunks.get();
+    }
+
+    long estimateMemoryBytes() {
+        return 128 + CHUNK_BYTES * cache.size();
+    }
+}
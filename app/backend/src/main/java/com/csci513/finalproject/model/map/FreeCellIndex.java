@@ -0,0 +1,118 @@
+package com.csci513.finalproject.model.map;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.random.RandomGenerator;
+
+// Cells still available for placement, addressed by cell index (y * width + x). Free cells are kept
+// packed at the front of an array with a reverse lookup from cell to slot: claiming swaps the last free
+// cell into the hole, so uniform sampling, claim and release are all O(1) however full the map is.
+// Not thread-safe while it is being changed; once built it can be shared and read through draw().
+public final class FreeCellIndex {
+
+    private final int[] cells; // cells[0..size) are free
+    private final int[] slots; // slots[cell] is the cell's position in cells, or -1 when claimed
+    private int size;
+
+    // Starts with every cell free
+    public FreeCellIndex(int cellCount) {
+        this.cells = new int[cellCount];
+        this.slots = new int[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            cells[cell] = cell;
+            slots[cell] = cell;
+        }
+        this.size = cellCount;
+    }
+
+    private FreeCellIndex(int[] cells, int[] slots, int size) {
+        this.cells = cells;
+        this.slots = slots;
+        this.size = size;
+    }
+
+    // A new index over the cells free here that also pass the filter, e.g. those of one ocean region,
+    // so sampling among them needs no rejection. O(free cells); this index is not changed.
+    public FreeCellIndex subset(IntPredicate filter) {
+        int[] subsetCells = new int[slots.length];
+        int[] subsetSlots = new int[slots.length];
+        Arrays.fill(subsetSlots, -1);
+        int subsetSize = 0;
+        for (int slot = 0; slot < size; slot++) {
+            int cell = cells[slot];
+            if (filter.test(cell)) {
+                subsetCells[subsetSize] = cell;
+                subsetSlots[cell] = subsetSize++;
+            }
+        }
+        return new FreeCellIndex(subsetCells, subsetSlots, subsetSize);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFree(int cell) {
+        return slots[cell] >= 0;
+    }
+
+    // A uniformly chosen free cell, which stays free until claimed
+    public int sample(RandomGenerator random) {
+        if (size == 0) {
+            throw new IllegalStateException("No free cells left");
+        }
+        return cells[random.nextInt(size)];
+    }
+
+    public void claim(int cell) {
+        int slot = slots[cell];
+        if (slot < 0) {
+            throw new IllegalStateException("Cell " + cell + " is already claimed");
+        }
+        int last = cells[--size];
+        cells[slot] = last;
+        slots[last] = slot;
+        slots[cell] = -1;
+    }
+
+    public void release(int cell) {
+        if (slots[cell] >= 0) {
+            throw new IllegalStateException("Cell " + cell + " is already free");
+        }
+        cells[size] = cell;
+        slots[cell] = size++;
+    }
+
+    // Draws distinct free cells without changing this index, e.g. to spawn a game's entities on a
+    // shared map: each draw is swap-removed from a virtual copy of the array whose few changed slots
+    // live in a small map, so a draw is O(1) and the index itself is only read.
+    public Draw draw() {
+        return new Draw();
+    }
+
+    public final class Draw {
+        private final Map<Integer, Integer> moved = new HashMap<>(); // Virtual slot -> cell, where it differs
+        private int remaining = size;
+
+        public int next(RandomGenerator random) {
+            if (remaining == 0) {
+                throw new IllegalStateException("No free cells left");
+            }
+            int slot = random.nextInt(remaining);
+            int cell = cellAt(slot);
+            moved.put(slot, cellAt(--remaining));
+            return cell;
+        }
+
+        private int cellAt(int slot) {
+            Integer cell = moved.get(slot);
+            return cell != null ? cell : cells[slot];
+        }
+    }
+
+    long estimateMemoryBytes() {
+        return 64 + 8L * cells.length;
+    }
+}
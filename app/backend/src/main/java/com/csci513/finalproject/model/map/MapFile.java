@@ -0,0 +1,206 @@
+package com.csci513.finalproject.model.map;
+
+import com.csci513.finalproject.utils.Position;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// A prebuilt map on disk, opened by memory-mapping the file read-only: cells are read straight from the
+// mapping, so nothing is copied onto the heap, opening takes about as long as the header read however large
+// the map is, and JVMs opening the same file share its pages through the OS page cache.
+// Layout (little-endian), with cells addressed by y * width + x as in CellLayer:
+//   header   HEADER_BYTES: magic, version, width, height, world seed, map id, treasure x and y,
+//            open-water cell count and flags (FLAG_CONNECTED when all open water is one region)
+//   islands  one bit per cell, packed 64 to a long
+//   switchers the same for strategy switcher cells
+//   counts   open cells before each block of OpenCellRanks.BLOCK_CELLS cells, then the total, as longs,
+//            so spawn cells can be drawn by rank without reading the whole islands layer
+// The file is mapped in SEGMENT_BYTES pieces, since a single mapping cannot exceed 2 GB.
+public final class MapFile {
+
+    static final int MAGIC = 0x434d4150; // "CMAP"
+    static final int VERSION = 2; // Version 1 files have no counts; export them again
+    static final int HEADER_BYTES = 64;
+    private static final int FLAG_CONNECTED = 1;
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_BYTES = 1L << SEGMENT_SHIFT; // A multiple of 8, so no long straddles two
+    private static final int BLOCK = ChunkedTerrain.CHUNK_SIZE; // Export order, one chunk at a time
+
+    private final MappedByteBuffer[] segments;
+    private final int width;
+    private final int height;
+    private final long worldSeed;
+    private final long islandsOffset;
+    private final long switchersOffset;
+    private final long countsOffset;
+    private final OceanMap map;
+
+    private MapFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.segments = mapSegments(channel, FileChannel.MapMode.READ_ONLY, channel.size());
+        }
+        if (segments.length == 0 || segments[0].capacity() < HEADER_BYTES || segments[0].getInt(0) != MAGIC) {
+            throw new IOException(path + " is not a map file");
+        }
+        MappedByteBuffer header = segments[0];
+        if (header.getInt(4) != VERSION) {
+            throw new IOException(path + " has unsupported map file version " + header.getInt(4));
+        }
+        this.width = header.getInt(8);
+        this.height = header.getInt(12);
+        if (width < 1 || height < 1 || width > OceanMap.MAX_DIMENSION || height > OceanMap.MAX_DIMENSION) {
+            throw new IOException(path + " has invalid map size " + width + "x" + height);
+        }
+        this.worldSeed = header.getLong(16);
+        long layerBytes = layerBytes(width, height);
+        this.islandsOffset = HEADER_BYTES;
+        this.switchersOffset = HEADER_BYTES + layerBytes;
+        this.countsOffset = HEADER_BYTES + 2 * layerBytes;
+        long expected = fileBytes(width, height);
+        long size = (long) (segments.length - 1) * SEGMENT_BYTES + segments[segments.length - 1].capacity();
+        if (size != expected) {
+            throw new IOException(path + " is truncated: expected " + expected + " bytes, found " + size);
+        }
+        String mapId = String.format("%016x", header.getLong(24));
+        Position treasure = new Position(header.getInt(32), header.getInt(36));
+        long oceanCells = header.getLong(40);
+        boolean connected = (header.getInt(48) & FLAG_CONNECTED) != 0;
+        this.map = new OceanMap(this, mapId, treasure, oceanCells, connected);
+    }
+
+    // Maps the file; the mapping stays valid after the channel is closed
+    public static MapFile open(Path path) throws IOException {
+        return new MapFile(path);
+    }
+
+    // Writes any map, including chunked ones, which are visited one chunk at a time so each is built once.
+    // worldSeed is the seed the map was generated from, stored so games can keep using it for their seeds.
+    public static void write(OceanMap map, long worldSeed, Path path) throws IOException {
+        int width = map.getWidth();
+        int height = map.getHeight();
+        long layerBytes = layerBytes(width, height);
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(0);
+            file.setLength(fileBytes(width, height)); // Zero-filled, so only set bits are written
+            MappedByteBuffer[] segments = mapSegments(file.getChannel(), FileChannel.MapMode.READ_WRITE, file.length());
+            MappedByteBuffer header = segments[0];
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(8, width);
+            header.putInt(12, height);
+            header.putLong(16, worldSeed);
+            header.putLong(24, Long.parseUnsignedLong(map.getMapId(), 16));
+            header.putInt(32, map.getTreasurePosition().getX());
+            header.putInt(36, map.getTreasurePosition().getY());
+            // The start is always open water, so on a connected map its region is all of it
+            header.putLong(40, map.isOceanConnected() ? map.getRegionSize(new Position(0, 0)) : countOcean(map));
+            header.putInt(48, map.isOceanConnected() ? FLAG_CONNECTED : 0);
+
+            for (int blockY = 0; blockY < height; blockY += BLOCK) {
+                for (int blockX = 0; blockX < width; blockX += BLOCK) {
+                    for (int y = blockY; y < Math.min(height, blockY + BLOCK); y++) {
+                        for (int x = blockX; x < Math.min(width, blockX + BLOCK); x++) {
+                            long cell = (long) y * width + x;
+                            if (map.isIsland(x, y)) {
+                                setBit(segments, HEADER_BYTES, cell);
+                            } else if (map.isStrategySwitcher(x, y)) {
+                                setBit(segments, HEADER_BYTES + layerBytes, cell);
+                            }
+                        }
+                    }
+                }
+            }
+            long cells = (long) width * height;
+            long[] counts = OpenCellRanks.countOpenBefore(i -> getLong(segments, HEADER_BYTES + i * 8), cells);
+            for (int block = 0; block < counts.length; block++) {
+                putLong(segments, HEADER_BYTES + 2 * layerBytes + block * 8L, counts[block]);
+            }
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+    }
+
+    public OceanMap getMap() {
+        return map;
+    }
+
+    public long getWorldSeed() {
+        return worldSeed;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    // Coordinates must be in bounds
+    boolean isIsland(int x, int y) {
+        return getBit(islandsOffset, (long) y * width + x);
+    }
+
+    boolean isStrategySwitcher(int x, int y) {
+        return getBit(switchersOffset, (long) y * width + x);
+    }
+
+    // Open cells by rank, reading the islands layer and the counts straight from the mapping
+    OpenCellRanks openCellRanks() {
+        return new OpenCellRanks(i -> getLong(segments, islandsOffset + i * 8), (long) width * height,
+                block -> getLong(segments, countsOffset + block * 8));
+    }
+
+    private boolean getBit(long layerOffset, long cell) {
+        long word = getLong(segments, layerOffset + (cell >>> 6) * 8);
+        return (word & (1L << cell)) != 0; // Shifts use the low 6 bits of cell
+    }
+
+    private static void setBit(MappedByteBuffer[] segments, long layerOffset, long cell) {
+        long offset = layerOffset + (cell >>> 6) * 8;
+        putLong(segments, offset, getLong(segments, offset) | (1L << cell));
+    }
+
+    private static long getLong(MappedByteBuffer[] segments, long offset) {
+        return segments[(int) (offset >>> SEGMENT_SHIFT)].getLong((int) (offset & (SEGMENT_BYTES - 1)));
+    }
+
+    private static void putLong(MappedByteBuffer[] segments, long offset, long value) {
+        segments[(int) (offset >>> SEGMENT_SHIFT)].putLong((int) (offset & (SEGMENT_BYTES - 1)), value);
+    }
+
+    // Only maps whose ocean is split need this, and only small classic maps can be split
+    private static long countOcean(OceanMap map) {
+        long ocean = 0;
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++) {
+                ocean += map.isIsland(x, y) ? 0 : 1;
+            }
+        }
+        return ocean;
+    }
+
+    private static long fileBytes(int width, int height) {
+        return HEADER_BYTES + 2 * layerBytes(width, height) + 8 * (OpenCellRanks.blocks((long) width * height) + 1);
+    }
+
+    private static long layerBytes(int width, int height) {
+        return (((long) width * height + 63) >>> 6) * 8;
+    }
+
+    private static MappedByteBuffer[] mapSegments(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+        MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + SEGMENT_BYTES - 1) >>> SEGMENT_SHIFT)];
+        for (int i = 0; i < segments.length; i++) {
+            long start = i * SEGMENT_BYTES;
+            segments[i] = channel.map(mode, start, Math.min(SEGMENT_BYTES, size - start));
+            segments[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return segments;
+    }
+}
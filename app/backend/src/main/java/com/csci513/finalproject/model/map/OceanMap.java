@@ -1,29 +1,134 @@
 package com.csci513.finalproject.model.map;
 
+import com.csci513.finalproject.logging.Logger;
 import com.csci513.finalproject.utils.Position;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
-// Represents the game map grid, implemented as a Singleton.
+// Represents the game map grid.
+// A map never changes once built, so games of the same world share one instance (see MapTemplateCache);
+// the static Singleton accessors remain for legacy callers.
+// Maps of GENERATED_MIN_CELLS cells or more get procedural terrain with island clusters (see WorldGenerator),
+// and maps of CHUNKED_MIN_CELLS cells or more are chunked: their terrain is generated lazily, chunk by chunk.
+// Neither lists its islands and switchers (query cells instead). A map can also be opened from a prebuilt
+// file (see MapFile), whose cells are then read from the memory-mapped file.
 public class OceanMap {
 
+    private static final Logger LOG = Logger.get(OceanMap.class);
+
+    public static final int MAX_DIMENSION = 100_000;
+    public static final long GENERATED_MIN_CELLS = 1L << 20; // 1024x1024
+    public static final long CHUNKED_MIN_CELLS = 1L << 24; // 4096x4096
+    // The classic 20x20 map has 5 islands and 3 switchers; generated and chunked maps keep its densities
+    static final int CLASSIC_ISLANDS = 5;
+    static final int CLASSIC_SWITCHERS = 3;
+    static final int CELLS_PER_ISLAND = 20 * 20 / CLASSIC_ISLANDS;
+    static final int CELLS_PER_SWITCHER = 20 * 20 / CLASSIC_SWITCHERS;
+    // The start, the islands, the treasure and the switchers each take one cell
+    public static final int MIN_CELLS = 2 + CLASSIC_ISLANDS + CLASSIC_SWITCHERS;
+    // Maps up to this size keep a free-cell index (8 bytes per cell) for spawning; larger ones draw spawn
+    // cells by rank from per-block open-cell counts instead (see OpenCellRanks)
+    static final int RETAINED_INDEX_MAX_CELLS = 1 << 16;
+    private static final int MAX_LAYOUT_ATTEMPTS = 100; // Island layouts tried before giving up on a tiny map
+
     private static OceanMap instance;
-    private MapCell[][] grid;
+    // Cell flags as bitsets addressed by y * width + x; the treasure is a single cell, kept as a position
+    private CellLayer islands;
+    private CellLayer strategySwitchers;
+    private ChunkedTerrain terrain; // Replaces the layers and position lists on chunked maps
+    private MapFile mapFile; // Replaces the layers on maps opened from a file
+    private boolean generated; // Layers come from WorldGenerator, seeded with worldSeed
+    private long worldSeed;
+    private FreeCellIndex openCells; // Open cells of the treasure's region, on maps small enough to keep the index
+    private OpenCellRanks openRanks; // Open cells by rank on the other maps, except chunked ones
+    private long[] sealedOffRanks = new long[0]; // Ranks of open cells the treasure cannot be reached from
+    private OceanRegions regions; // Connectivity of the open water, fixed once the islands are placed
     private int width;
     private int height;
     private Position treasurePosition;
     private List<Position> islandPositions = new ArrayList<>(); // Store island locations
-    private Random random = new Random();
+    private List<Position> strategySwitcherPositions = new ArrayList<>(); // Recorded as switchers are placed
+    private String mapId; // Content hash, fixed once the grid is initialized
+    private final RandomGenerator random;
+
+    // Creates an independent map, e.g. one per game session
+    public OceanMap(int width, int height) {
+        this(width, height, new Random());
+    }
 
-    // Private constructor to prevent direct instantiation
-    private OceanMap(int width, int height) {
+    // Creates a map whose layout is determined by the given generator, so the same seed yields the same map
+    public OceanMap(int width, int height, RandomGenerator random) {
+        if (width < 1 || height < 1 || width > MAX_DIMENSION || height > MAX_DIMENSION) {
+            throw new IllegalArgumentException("Map size must be between 1x1 and " + MAX_DIMENSION + "x"
+                    + MAX_DIMENSION + ", got " + width + "x" + height);
+        }
+        if ((long) width * height < MIN_CELLS) {
+            throw new IllegalArgumentException("Map needs at least " + MIN_CELLS
+                    + " cells for the start, islands, treasure and switchers, got " + width + "x" + height);
+        }
         this.width = width;
         this.height = height;
-        this.grid = new MapCell[height][width];
-        initializeGrid();
-        System.out.println("OceanMap Singleton created with size " + width + "x" + height);
+        this.random = random;
+        long cells = (long) width * height;
+        if (cells >= CHUNKED_MIN_CELLS) {
+            this.terrain = new ChunkedTerrain(width, height, random.nextLong(), ChunkedTerrain.DEFAULT_MAX_CACHED_CHUNKS);
+            this.regions = OceanRegions.connected(cells - terrain.countIslands()); // Islands never touch
+            placeTreasureOnTerrain();
+            this.mapId = computeMapId();
+        } else if (cells >= GENERATED_MIN_CELLS) {
+            this.generated = true;
+            this.worldSeed = random.nextLong();
+            WorldGenerator.World world = new WorldGenerator(width, height, worldSeed).generate();
+            this.islands = world.islands;
+            this.strategySwitchers = world.strategySwitchers;
+            this.treasurePosition = world.treasure;
+            this.regions = OceanRegions.connected(cells - islands.cardinality()); // Pockets were filled in
+            this.openRanks = OpenCellRanks.of(islands, width * height);
+            this.mapId = computeMapId();
+        } else {
+            this.strategySwitchers = new CellLayer(width * height);
+            initializeGrid();
+        }
+        LOG.debug("OceanMap created with size {}x{}", width, height);
+    }
+
+    // A map read from a memory-mapped file; its cells stay in the mapping
+    OceanMap(MapFile file, String mapId, Position treasure, long oceanCells, boolean connected) {
+        this.width = file.getWidth();
+        this.height = file.getHeight();
+        this.random = null; // Nothing is placed on a loaded map
+        this.mapFile = file;
+        this.treasurePosition = treasure;
+        this.mapId = mapId;
+        if ((long) width * height < GENERATED_MIN_CELLS) { // Classic maps list their features, as when generated
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (file.isIsland(x, y)) {
+                        islandPositions.add(new Position(x, y));
+                    } else if (file.isStrategySwitcher(x, y)) {
+                        strategySwitcherPositions.add(new Position(x, y));
+                    }
+                }
+            }
+        }
+        if (connected) {
+            this.regions = OceanRegions.connected(oceanCells);
+        } else { // Only small classic maps are split, so their islands fit a heap layer for labelling
+            CellLayer islandLayer = new CellLayer(width * height);
+            for (int cell = 0; cell < width * height; cell++) {
+                if (file.isIsland(cell % width, cell / width)) {
+                    islandLayer.set(cell);
+                }
+            }
+            this.regions = OceanRegions.label(islandLayer, width, height);
+        }
+        this.openRanks = file.openCellRanks();
+        this.sealedOffRanks = rankSealedOff();
+        LOG.debug("OceanMap {} opened with size {}x{}", mapId, width, height);
     }
 
     // Public method to get the single instance
@@ -32,7 +137,7 @@ public class OceanMap {
             instance = new OceanMap(width, height);
         } else if (instance.width != width || instance.height != height) {
             // Handle potential resize/reinitialization if needed, or throw error
-            System.err.println("Warning: Requested OceanMap size differs from existing instance! Re-initializing map.");
+            LOG.warn("Warning: Requested OceanMap size differs from existing instance! Re-initializing map.");
             instance = new OceanMap(width, height);
         }
         return instance;
@@ -47,73 +152,214 @@ public class OceanMap {
     }
 
     private void initializeGrid() {
-        // Reset island list for reinitialization
+        // Reset island and switcher lists for reinitialization
         this.islandPositions.clear();
+        this.strategySwitcherPositions.clear();
 
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                grid[y][x] = new MapCell();
+        // Features are drawn from the cells still free, so placement never retries however full the map is.
+        // A layout whose islands wall the start into a single cell leaves nowhere for the treasure, so it
+        // is drawn again; that takes a map only a few cells across.
+        FreeCellIndex free;
+        int attempts = 0;
+        do {
+            if (++attempts > MAX_LAYOUT_ATTEMPTS) {
+                throw new IllegalStateException("No island layout leaves room for the treasure on a "
+                        + width + "x" + height + " map");
             }
-        }
-        // Place some islands
-        placeIslands(5); // Place 5 islands
+            this.islands = new CellLayer(width * height);
+            this.islandPositions.clear();
+            free = new FreeCellIndex(width * height);
+            free.claim(index(0, 0)); // Keep the start position (0,0) clear
 
-        // Place treasure, ensuring it's not on an island or start pos
-        placeTreasureRandomly();
+            // Place some islands
+            placeIslands(CLASSIC_ISLANDS, free);
+            this.regions = OceanRegions.label(islands, width, height);
+        } while (regions.size(index(0, 0)) < 2);
+
+        // Place treasure, ensuring it's not on an island or start pos, and within reach of the start
+        placeTreasureRandomly(free);
 
         // Place strategy switcher cells
-        placeStrategySwitchers(3); // Place 3 switcher cells
+        placeStrategySwitchers(CLASSIC_SWITCHERS, free);
+
+        // Only islands block ships, so the other claimed cells are open water again
+        if (width * height <= RETAINED_INDEX_MAX_CELLS) {
+            free.release(index(0, 0));
+            free.release(index(treasurePosition.getX(), treasurePosition.getY()));
+            for (Position switcher : strategySwitcherPositions) {
+                free.release(index(switcher.getX(), switcher.getY()));
+            }
+            this.openCells = reachableFrom(index(0, 0), free);
+        } else {
+            this.openRanks = OpenCellRanks.of(islands, width * height);
+            this.sealedOffRanks = rankSealedOff();
+        }
+
+        this.mapId = computeMapId();
 
-        System.out.println("OceanMap grid initialized with islands and switchers.");
+        LOG.debug("OceanMap grid initialized with islands and switchers.");
     }
 
     // Helper to place a number of single-cell islands randomly
-    private void placeIslands(int numberOfIslands) {
-         System.out.println("Placing " + numberOfIslands + " islands...");
-         int islandsPlaced = 0;
-         while (islandsPlaced < numberOfIslands) {
-             int x = random.nextInt(width);
-             int y = random.nextInt(height);
-             // Avoid placing on start position (0,0) or on existing islands
-             if (!isIsland(x, y) && !(x == 0 && y == 0)) {
-                 grid[y][x].setIsland(true);
-                 islandPositions.add(new Position(x, y));
-                 islandsPlaced++;
-                 System.out.println("Placed island at: [" + x + "," + y + "]");
-             }
+    private void placeIslands(int numberOfIslands, FreeCellIndex free) {
+         LOG.debug("Placing {} islands...", numberOfIslands);
+         for (int islandsPlaced = 0; islandsPlaced < numberOfIslands; islandsPlaced++) {
+             int cell = free.sample(random);
+             free.claim(cell);
+             islands.set(cell);
+             int x = cell % width;
+             int y = cell / width;
+             islandPositions.add(new Position(x, y));
+             LOG.debug("Placed island at: [{},{}]", x, y);
          }
     }
 
-    private void placeTreasureRandomly() {
-        int x, y;
-        do {
-            x = random.nextInt(width);
-            y = random.nextInt(height);
-            // Ensure treasure is not at start (0,0) and not on an island
-        } while ((x == 0 && y == 0) || isIsland(x, y));
+    // Drawn from the free cells of the start's ocean region, so it is always reachable and never redrawn
+    private void placeTreasureRandomly(FreeCellIndex free) {
+        int cell = reachableFrom(index(0, 0), free).sample(random);
+        free.claim(cell);
+        int x = cell % width;
+        int y = cell / width;
 
         this.treasurePosition = new Position(x, y);
-        // if (grid[y][x] != null) { grid[y][x].setHasTreasure(true); }
-        System.out.println("Treasure placed at: [" + x + "," + y + "]");
+        LOG.debug("Treasure placed at: [{},{}]", x, y);
+    }
+
+    // Chunked maps number the cells that can hold it chunk by chunk, so only the chosen chunk is generated;
+    // their ocean is one region
+    private void placeTreasureOnTerrain() {
+        this.treasurePosition = terrain.treasureCellAt(random.nextLong(terrain.countTreasureCells()));
+        LOG.debug("Treasure placed at: {}", treasurePosition);
+    }
+
+    // The free cells of the given cell's ocean region; the index itself when the ocean is one region
+    private FreeCellIndex reachableFrom(int cell, FreeCellIndex free) {
+        return regions.isConnected() ? free : free.subset(other -> regions.same(other, cell));
+    }
+
+    // Ranks of the open cells outside the treasure's region, in order. Only small classic maps are split,
+    // so the scan is short, and on most maps nothing is sealed off at all.
+    private long[] rankSealedOff() {
+        if (regions.isConnected()) {
+            return new long[0];
+        }
+        int treasure = index(treasurePosition.getX(), treasurePosition.getY());
+        long[] ranks = new long[(int) (openRanks.count() - regions.size(treasure))];
+        for (int cell = 0, next = 0; next < ranks.length; cell++) {
+            if (!isIsland(cell % width, cell / width) && !regions.same(cell, treasure)) {
+                ranks[next++] = openRanks.rankOf(cell);
+            }
+        }
+        return ranks;
+    }
+
+    // Starts drawing distinct open-water cells for a game's entities, all in the treasure's ocean region;
+    // the map itself is not changed
+    public OpenCellDraw drawOpenCells() {
+        return new OpenCellDraw(this, openCells == null ? null : openCells.draw(), sealedOffRanks);
+    }
+
+    // Open-water cells numbered from 0 in a fixed order, for drawing by rank on maps without an index
+    long countOpenCells() {
+        return terrain != null ? regions.size(0) : openRanks.count();
+    }
+
+    Position openCellAt(long rank) {
+        if (terrain != null) {
+            return terrain.openCellAt(rank);
+        }
+        long cell = openRanks.cellAt(rank);
+        return new Position((int) (cell % width), (int) (cell / width));
     }
 
     public Position getTreasurePosition() {
         return treasurePosition;
     }
 
+    // Returns a detached MapCell holding the cell's flags; changing it does not change the map
     public MapCell getCell(int x, int y) {
-        if (x >= 0 && x < width && y >= 0 && y < height) {
-            return grid[y][x];
+        if (!inBounds(x, y)) {
+            return null; // Out-of-bounds
         }
-        return null; // Out-of-bounds
+        MapCell cell = new MapCell();
+        cell.setIsland(isIsland(x, y));
+        cell.setStrategySwitcher(isStrategySwitcher(x, y));
+        cell.setHasTreasure(treasurePosition != null
+                && treasurePosition.getX() == x && treasurePosition.getY() == y);
+        return cell;
     }
 
     // Helper method to check if a coordinate is an island
     public boolean isIsland(int x, int y) {
-         if (x >= 0 && x < width && y >= 0 && y < height) {
-             return grid[y][x].isIsland();
-         }
-         return false; // Out of bounds is not an island
+        if (!inBounds(x, y)) {
+            return false; // Out of bounds is not an island
+        }
+        if (terrain != null) {
+            return terrain.isIsland(x, y);
+        }
+        return mapFile != null ? mapFile.isIsland(x, y) : islands.get(index(x, y));
+    }
+
+    public boolean isStrategySwitcher(int x, int y) {
+        if (!inBounds(x, y)) {
+            return false;
+        }
+        if (terrain != null) {
+            return terrain.isStrategySwitcher(x, y);
+        }
+        return mapFile != null ? mapFile.isStrategySwitcher(x, y) : strategySwitchers.get(index(x, y));
+    }
+
+    // True when both cells are open water and a ship can sail from one to the other, in O(1)
+    public boolean sameRegion(Position a, Position b) {
+        if (!isOcean(a.getX(), a.getY()) || !isOcean(b.getX(), b.getY())) {
+            return false;
+        }
+        return regions.isConnected() || regions.same(index(a.getX(), a.getY()), index(b.getX(), b.getY()));
+    }
+
+    // Open-water cells reachable from the given cell, itself included; 0 for islands and out of bounds
+    public long getRegionSize(Position cell) {
+        if (!isOcean(cell.getX(), cell.getY())) {
+            return 0;
+        }
+        return regions.isConnected() ? regions.size(0) : regions.size(index(cell.getX(), cell.getY()));
+    }
+
+    // True when all open water is one region, as on generated and chunked maps
+    public boolean isOceanConnected() {
+        return regions.isConnected();
+    }
+
+    private boolean isOcean(int x, int y) {
+        return inBounds(x, y) && !isIsland(x, y);
+    }
+
+    // True when the terrain is generated lazily in chunks rather than listed up front
+    public boolean isChunked() {
+        return terrain != null;
+    }
+
+    // True when the cells are read from a memory-mapped map file
+    public boolean isMapped() {
+        return mapFile != null;
+    }
+
+    // True when the terrain was grown by WorldGenerator; its open water is then one connected region
+    public boolean isGenerated() {
+        return generated;
+    }
+
+    ChunkedTerrain getTerrain() {
+        return terrain;
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    private int index(int x, int y) {
+        return y * width + x;
     }
 
     public int getWidth() {
@@ -124,41 +370,80 @@ public class OceanMap {
         return height;
     }
 
+    // True when the map is too large to list its features (generated, chunked and large mapped maps):
+    // the position lists are empty and clients read the terrain through tiles instead
+    public boolean isTiled() {
+        return (long) width * height >= GENERATED_MIN_CELLS;
+    }
+
+    // Empty for tiled maps
     public List<Position> getIslandPositions() {
-         return islandPositions;
+         return Collections.unmodifiableList(islandPositions); // Maps are shared between games
     }
 
-    // New method to get positions of all strategy switcher cells
+    // Positions of all strategy switcher cells, in placement order; empty for tiled maps
     public List<Position> getStrategySwitcherPositions() {
-        List<Position> switcherPositions = new ArrayList<>();
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                if (grid[y][x].isStrategySwitcher()) {
-                    switcherPositions.add(new Position(x, y));
-                }
-            }
+        return Collections.unmodifiableList(strategySwitcherPositions);
+    }
+
+    // Identifies the static layout (size, islands, switchers, treasure); equal layouts share an id
+    public String getMapId() {
+        return mapId;
+    }
+
+    // Rough heap footprint of this map, for per-session memory accounting
+    public long estimateMemoryBytes() {
+        if (terrain != null) {
+            return 64 + terrain.estimateMemoryBytes() + regions.estimateMemoryBytes();
+        }
+        long index = openCells == null ? 0 : openCells.estimateMemoryBytes();
+        // A file's layers live in the OS page cache, off the heap
+        long layers = mapFile != null ? 0 : islands.estimateMemoryBytes() + strategySwitchers.estimateMemoryBytes();
+        long positions = 40L * (islandPositions.size() + strategySwitcherPositions.size()); // Position plus list slot
+        long sealedOff = 8L * sealedOffRanks.length;
+        return 64 + layers + index + sealedOff + positions + regions.estimateMemoryBytes();
+    }
+
+    // 64-bit FNV-1a hash over everything that never changes after initialization
+    private String computeMapId() {
+        long hash = 0xcbf29ce484222325L;
+        hash = fnv(hash, width);
+        hash = fnv(hash, height);
+        if (terrain != null || generated) { // The seed stands in for the layout it generates
+            long seed = terrain != null ? terrain.getSeed() : worldSeed;
+            hash = fnv(fnv(hash, (int) seed), (int) (seed >>> 32));
+        }
+        for (Position island : islandPositions) {
+            hash = fnv(fnv(hash, island.getX()), island.getY());
         }
-        return switcherPositions;
+        hash = fnv(hash, -1); // Separates the island and switcher lists
+        for (Position switcher : strategySwitcherPositions) {
+            hash = fnv(fnv(hash, switcher.getX()), switcher.getY());
+        }
+        hash = fnv(fnv(hash, treasurePosition.getX()), treasurePosition.getY());
+        return String.format("%016x", hash);
+    }
+
+    private static long fnv(long hash, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash ^= (value >>> shift) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
     }
 
     // Helper to place a number of strategy switcher cells randomly
-    private void placeStrategySwitchers(int numberOfSwitchers) {
-        System.out.println("Placing " + numberOfSwitchers + " strategy switchers...");
-        int switchersPlaced = 0;
-        while (switchersPlaced < numberOfSwitchers) {
-            int x = random.nextInt(width);
-            int y = random.nextInt(height);
-            Position potentialPos = new Position(x, y);
-            // Avoid placing on start (0,0), islands, treasure, or existing switchers
-            if (!isIsland(x, y) &&
-                !(x == 0 && y == 0) &&
-                !potentialPos.equals(treasurePosition) &&
-                !getCell(x,y).isStrategySwitcher()) // Check if already a switcher
-            {
-                getCell(x, y).setStrategySwitcher(true);
-                switchersPlaced++;
-                System.out.println("Placed strategy switcher at: [" + x + "," + y + "]");
-            }
+    // Free cells exclude the start (0,0), islands, treasure and existing switchers
+    private void placeStrategySwitchers(int numberOfSwitchers, FreeCellIndex free) {
+        LOG.debug("Placing {} strategy switchers...", numberOfSwitchers);
+        for (int switchersPlaced = 0; switchersPlaced < numberOfSwitchers; switchersPlaced++) {
+            int cell = free.sample(random);
+            free.claim(cell);
+            strategySwitchers.set(cell);
+            int x = cell % width;
+            int y = cell / width;
+            strategySwitcherPositions.add(new Position(x, y));
+            LOG.debug("Placed strategy switcher at: [{},{}]", x, y);
         }
     }
 
@@ -0,0 +1,115 @@
+package com.csci513.finalproject.model.map;
+
+// Which open-water cells are connected, moving up, down, left and right and wrapping at the map edges
+// as ships do. Built once the islands are placed, it answers same-region and region-size queries in O(1).
+// Most maps have a single ocean region and keep no per-cell data; a map whose islands seal off pockets
+// keeps a region label for every cell (4 bytes per cell) and the size of each region.
+final class OceanRegions {
+
+    private final int[] labels; // Region of each cell (-1 for islands), or null when the ocean is one region
+    private final int[] sizes; // Cells in each region, indexed by label
+    private final long oceanCells;
+
+    private OceanRegions(int[] labels, int[] sizes, long oceanCells) {
+        this.labels = labels;
+        this.sizes = sizes;
+        this.oceanCells = oceanCells;
+    }
+
+    // For terrain that is connected by construction
+    static OceanRegions connected(long oceanCells) {
+        return new OceanRegions(null, null, oceanCells);
+    }
+
+    // Labels the open water of a width x height layer with union-find, linking each cell to its left and
+    // upper neighbours (and across the wrapped edges)
+    static OceanRegions label(CellLayer islands, int width, int height) {
+        int cellCount = width * height;
+        int[] parent = new int[cellCount];
+        long oceanCells = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            parent[cell] = cell;
+            if (islands.get(cell)) {
+                continue;
+            }
+            oceanCells++;
+            int x = cell % width;
+            int y = cell / width;
+            if (x > 0 && !islands.get(cell - 1)) {
+                union(parent, cell, cell - 1);
+            }
+            if (x == width - 1 && !islands.get(cell - x)) {
+                union(parent, cell, cell - x); // Wraps to the start of the row
+            }
+            if (y > 0 && !islands.get(cell - width)) {
+                union(parent, cell, cell - width);
+            }
+            if (y == height - 1 && !islands.get(x)) {
+                union(parent, cell, x); // Wraps to the top row
+            }
+        }
+
+        // Roots are always the lowest cell of their tree, so one ascending pass points every cell at its
+        // root, and a second can overwrite parent with labels in place: a cell's root is labelled before it
+        int regions = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            parent[cell] = parent[parent[cell]];
+        }
+        int[] labels = parent;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (islands.get(cell)) {
+                labels[cell] = -1;
+            } else {
+                labels[cell] = parent[cell] == cell ? regions++ : labels[parent[cell]];
+            }
+        }
+        if (regions <= 1) {
+            return connected(oceanCells);
+        }
+        int[] sizes = new int[regions];
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (labels[cell] >= 0) {
+                sizes[labels[cell]]++;
+            }
+        }
+        return new OceanRegions(labels, sizes, oceanCells);
+    }
+
+    // Both cells must be open water; cell indexes only matter when the ocean is split
+    boolean same(int a, int b) {
+        return labels == null || labels[a] == labels[b];
+    }
+
+    // Cells in the region of an open-water cell
+    long size(int cell) {
+        return labels == null ? oceanCells : sizes[labels[cell]];
+    }
+
+    boolean isConnected() {
+        return labels == null;
+    }
+
+    long estimateMemoryBytes() {
+        return labels == null ? 32 : 48 + 4L * labels.length + 4L * sizes.length;
+    }
+
+    // Links the higher root under the lower, halving paths on the way up; either way a cell's parent is
+    // never above it
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA < rootB) {
+            parent[rootB] = rootA;
+        } else if (rootB < rootA) {
+            parent[rootA] = rootB;
+        }
+    }
+
+    private static int find(int[] parent, int cell) {
+        while (parent[cell] != cell) {
+            parent[cell] = parent[parent[cell]];
+            cell = parent[cell];
+        }
+        return cell;
+    }
+}
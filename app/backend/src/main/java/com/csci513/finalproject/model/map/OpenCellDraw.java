@@ -0,0 +1,50 @@
+package com.csci513.finalproject.model.map;
+
+import com.csci513.finalproject.utils.Position;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Draws distinct open-water cells (not islands) of a map uniformly at random, e.g. to spawn a game's
+// entities, all in the treasure's ocean region so every entity can reach it. Maps with a free-cell index
+// keep it over that region only and draw from it in O(1) without changing it. The others pick a random
+// rank among the open cells not drawn yet and look that cell up, skipping the ranks of earlier draws and
+// of cells sealed off from the treasure. Neither ever redraws, however full the map is.
+public final class OpenCellDraw {
+
+    private final OceanMap map;
+    private final FreeCellIndex.Draw draw; // Null when the map keeps no index
+    private long[] skipped; // Sorted ranks never to return: cells sealed off from the treasure, then draws
+    private int skippedCount;
+
+    OpenCellDraw(OceanMap map, FreeCellIndex.Draw draw, long[] sealedOffRanks) {
+        this.map = map;
+        this.draw = draw;
+        this.skipped = Arrays.copyOf(sealedOffRanks, sealedOffRanks.length + 8);
+        this.skippedCount = sealedOffRanks.length;
+    }
+
+    public Position next(RandomGenerator random) {
+        if (draw != null) {
+            int cell = draw.next(random);
+            return new Position(cell % map.getWidth(), cell / map.getWidth());
+        }
+        long remaining = map.countOpenCells() - skippedCount;
+        if (remaining <= 0) {
+            throw new IllegalStateException("No open cells left in the treasure's region");
+        }
+        // The rank-th cell that is not skipped: every skipped rank at or below it moves it one further on
+        long rank = random.nextLong(remaining);
+        int slot = 0;
+        for (; slot < skippedCount && skipped[slot] <= rank; slot++) {
+            rank++;
+        }
+        if (skippedCount == skipped.length) {
+            skipped = Arrays.copyOf(skipped, 2 * skipped.length);
+        }
+        System.arraycopy(skipped, slot, skipped, slot + 1, skippedCount - slot);
+        skipped[slot] = rank;
+        skippedCount++;
+        return map.openCellAt(rank);
+    }
+}
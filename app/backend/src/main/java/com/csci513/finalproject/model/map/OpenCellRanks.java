@@ -0,0 +1,97 @@
+package com.csci513.finalproject.model.map;
+
+import java.util.function.LongUnaryOperator;
+
+// Open-water cells of a map numbered in cell order (y * width + x), so the r-th one can be found without a
+// free-cell index: a running count of open cells before each block of BLOCK_CELLS cells narrows the search
+// to one block, whose island words are then counted. Uniform sampling is then one random rank, with no
+// rejection however many islands there are. The counts take 8 bytes per block, 1/8192 of a byte per cell.
+final class OpenCellRanks {
+
+    static final int BLOCK_WORDS = 1024;
+    static final int BLOCK_CELLS = BLOCK_WORDS * 64;
+
+    private final LongUnaryOperator islandWords; // Word i holds cells 64 * i to 64 * i + 63, lowest bit first
+    private final long cellCount;
+    private final LongUnaryOperator openBefore; // Open cells before block b, for b from 0 to blocks(cellCount)
+
+    OpenCellRanks(LongUnaryOperator islandWords, long cellCount, LongUnaryOperator openBefore) {
+        this.islandWords = islandWords;
+        this.cellCount = cellCount;
+        this.openBefore = openBefore;
+    }
+
+    // Counts the open cells of a layer held on the heap
+    static OpenCellRanks of(CellLayer islands, int cellCount) {
+        LongUnaryOperator words = i -> islands.word((int) i);
+        long[] counts = countOpenBefore(words, cellCount);
+        return new OpenCellRanks(words, cellCount, b -> counts[(int) b]);
+    }
+
+    // One pass over the island words; the entry after the last block is the total
+    static long[] countOpenBefore(LongUnaryOperator islandWords, long cellCount) {
+        long[] counts = new long[(int) blocks(cellCount) + 1];
+        long words = (cellCount + 63) >>> 6;
+        long open = 0;
+        for (long i = 0; i < words; i++) {
+            if (i % BLOCK_WORDS == 0) {
+                counts[(int) (i / BLOCK_WORDS)] = open;
+            }
+            open += Long.bitCount(~islandWords.applyAsLong(i) & cellMask(i, cellCount));
+        }
+        counts[counts.length - 1] = open;
+        return counts;
+    }
+
+    static long blocks(long cellCount) {
+        return (cellCount + BLOCK_CELLS - 1) / BLOCK_CELLS;
+    }
+
+    long count() {
+        return openBefore.applyAsLong(blocks(cellCount));
+    }
+
+    // The cell index of the open cell with the given rank, 0 <= rank < count()
+    long cellAt(long rank) {
+        long low = 0;
+        long high = blocks(cellCount) - 1;
+        while (low < high) { // The last block starting at or below rank
+            long middle = (low + high + 1) >>> 1;
+            if (openBefore.applyAsLong(middle) <= rank) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        long remaining = rank - openBefore.applyAsLong(low);
+        for (long i = low * BLOCK_WORDS; ; i++) {
+            long open = ~islandWords.applyAsLong(i) & cellMask(i, cellCount);
+            int inWord = Long.bitCount(open);
+            if (remaining < inWord) {
+                for (; remaining > 0; remaining--) {
+                    open &= open - 1; // Clears the lowest open cell
+                }
+                return i * 64 + Long.numberOfTrailingZeros(open);
+            }
+            remaining -= inWord;
+        }
+    }
+
+    // Open cells before the given cell, so for an open cell, the rank cellAt maps back to it
+    long rankOf(long cell) {
+        long block = cell / BLOCK_CELLS;
+        long rank = openBefore.applyAsLong(block);
+        long word = cell >>> 6;
+        for (long i = block * BLOCK_WORDS; i < word; i++) {
+            rank += Long.bitCount(~islandWords.applyAsLong(i));
+        }
+        long below = (1L << cell) - 1; // Cells of its word before it; shifts use the low 6 bits of cell
+        return rank + Long.bitCount(~islandWords.applyAsLong(word) & below);
+    }
+
+    // The bits of word i that are map cells, leaving out the padding after the last cell
+    private static long cellMask(long i, long cellCount) {
+        long cellsLeft = cellCount - i * 64;
+        return cellsLeft >= 64 ? -1L : (1L << cellsLeft) - 1;
+    }
+}
@@ -0,0 +1,327 @@
+package com.csci513.finalproject.model.map;
+
+import com.csci513.finalproject.utils.Position;
+import com.csci513.finalproject.utils.SplitMix64;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// Procedural world for mid-sized maps: clustered islands grown by a cellular automaton, then strategy
+// switchers and the treasure. Ships wrap around the edges, so the grid is treated as a torus throughout.
+// Each pass runs in parallel over stripes of STRIPE_ROWS rows on the common fork-join pool. Per-cell
+// randomness is a hash of the seed and the cell, and stripes depend only on the height, so the result
+// is the same on any number of cores.
+// A connected-components pass then keeps only the largest ocean region (plus a channel carved to the
+// start cell (0,0) if needed) and fills every sealed pocket with land, so every ocean cell, the start
+// and the treasure included, can reach every other.
+final class WorldGenerator {
+
+    static final int STRIPE_ROWS = 64;
+    private static final int INITIAL_LAND_PERCENT = 45;
+    private static final int SMOOTHING_ROUNDS = 4;
+    private static final int LAND_NEIGHBOURHOOD = 5; // A cell becomes land with at least 5 land cells in its 3x3 block
+
+    private static final byte OCEAN = 0;
+    private static final byte LAND = 1;
+    private static final byte SWITCHER = 2; // Ocean holding a strategy switcher
+
+    // The generated layers; islands and switchers never overlap, and neither covers the start or treasure
+    static final class World {
+        final CellLayer islands;
+        final CellLayer strategySwitchers;
+        final Position treasure;
+
+        World(CellLayer islands, CellLayer strategySwitchers, Position treasure) {
+            this.islands = islands;
+            this.strategySwitchers = strategySwitchers;
+            this.treasure = treasure;
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private final long seed;
+    private final int stripes;
+
+    WorldGenerator(int width, int height, long seed) {
+        this.width = width;
+        this.height = height;
+        this.seed = seed;
+        this.stripes = (height + STRIPE_ROWS - 1) / STRIPE_ROWS;
+    }
+
+    World generate() {
+        byte[] cells = growIslands();
+        cells[0] = OCEAN; // The start cell is never land
+        int[] parent = labelOceanRegions(cells);
+        int main = largestRegion(cells, parent);
+        if (find(parent, 0) != main) {
+            carveChannel(cells, parent, main);
+        }
+        int[] candidates = fillPocketsAndPlaceSwitchers(cells, parent, main);
+        Position treasure = pickTreasure(cells, candidates);
+        return new World(pack(cells, LAND), pack(cells, SWITCHER), treasure);
+    }
+
+    // Random noise smoothed into clusters
+    private byte[] growIslands() {
+        byte[] cells = new byte[width * height];
+        forEachStripe((from, to) -> {
+            for (int cell = from * width; cell < to * width; cell++) {
+                cells[cell] = Long.remainderUnsigned(hash(seed, cell), 100) < INITIAL_LAND_PERCENT ? LAND : OCEAN;
+            }
+        });
+        byte[] next = new byte[cells.length];
+        byte[] current = cells;
+        for (int round = 0; round < SMOOTHING_ROUNDS; round++) {
+            byte[] source = current;
+            byte[] target = next;
+            forEachStripe((from, to) -> smooth(source, target, from, to));
+            next = current;
+            current = target;
+        }
+        return current;
+    }
+
+    // Counts land in each cell's 3x3 block using running column sums
+    private void smooth(byte[] source, byte[] target, int fromRow, int toRow) {
+        int[] columns = new int[width];
+        for (int y = fromRow; y < toRow; y++) {
+            int above = ((y - 1 + height) % height) * width;
+            int row = y * width;
+            int below = ((y + 1) % height) * width;
+            for (int x = 0; x < width; x++) {
+                columns[x] = source[above + x] + source[row + x] + source[below + x];
+            }
+            int window = columns[width - 1] + columns[0] + (width > 1 ? columns[1] : 0);
+            for (int x = 0; x < width; x++) {
+                target[row + x] = window >= LAND_NEIGHBOURHOOD ? LAND : OCEAN;
+                window += columns[(x + 2) % width] - columns[(x - 1 + width) % width];
+            }
+        }
+    }
+
+    // Union-find over ocean cells with 4-neighbour wrap-around links. Stripes are joined internally in
+    // parallel, since their cells only link to each other, then stitched together at stripe borders.
+    private int[] labelOceanRegions(byte[] cells) {
+        int[] parent = new int[cells.length];
+        forEachStripe((from, to) -> {
+            for (int y = from; y < to; y++) {
+                for (int x = 0; x < width; x++) {
+                    int cell = y * width + x;
+                    parent[cell] = cell;
+                    if (cells[cell] == LAND) {
+                        continue;
+                    }
+                    if (x > 0 && cells[cell - 1] != LAND) {
+                        union(parent, cell, cell - 1);
+                    }
+                    if (x == width - 1 && cells[y * width] != LAND) {
+                        union(parent, cell, y * width); // Wraps to the start of the row
+                    }
+                    if (y > from && cells[cell - width] != LAND) {
+                        union(parent, cell, cell - width);
+                    }
+                }
+            }
+        });
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            int top = stripe * STRIPE_ROWS;
+            int above = (top - 1 + height) % height; // The first stripe wraps to the last row
+            if (stripe == 0 && height == 1) {
+                break;
+            }
+            for (int x = 0; x < width; x++) {
+                if (cells[top * width + x] != LAND && cells[above * width + x] != LAND) {
+                    union(parent, top * width + x, above * width + x);
+                }
+            }
+        }
+        forEachStripe((from, to) -> {
+            for (int cell = from * width; cell < to * width; cell++) {
+                parent[cell] = find(parent, cell); // Only roots are written, so concurrent readers stay correct
+            }
+        });
+        return parent;
+    }
+
+    // Root of the ocean region with the most cells; ties go to the lowest root
+    private int largestRegion(byte[] cells, int[] parent) {
+        Map<Integer, Integer> sizes = new HashMap<>();
+        IntStream.range(0, stripes).parallel().mapToObj(stripe -> {
+            Map<Integer, Integer> counts = new HashMap<>();
+            int from = stripe * STRIPE_ROWS * width;
+            int to = Math.min(height, (stripe + 1) * STRIPE_ROWS) * width;
+            int root = -1;
+            int run = 0; // Neighbouring cells mostly share a root, so counts are merged per run
+            for (int cell = from; cell < to; cell++) {
+                if (cells[cell] == LAND) {
+                    continue;
+                }
+                if (parent[cell] != root) {
+                    if (run > 0) {
+                        counts.merge(root, run, Integer::sum);
+                    }
+                    root = parent[cell];
+                    run = 0;
+                }
+                run++;
+            }
+            if (run > 0) {
+                counts.merge(root, run, Integer::sum);
+            }
+            return counts;
+        }).forEachOrdered(counts -> counts.forEach((root, count) -> sizes.merge(root, count, Integer::sum)));
+        int best = -1;
+        int bestSize = -1;
+        for (Map.Entry<Integer, Integer> region : sizes.entrySet()) {
+            if (region.getValue() > bestSize || (region.getValue() == bestSize && region.getKey() < best)) {
+                best = region.getKey();
+                bestSize = region.getValue();
+            }
+        }
+        return best;
+    }
+
+    // Clears the shortest path from the start cell's pocket to the main region, joining the two
+    private void carveChannel(byte[] cells, int[] parent, int main) {
+        int startRoot = find(parent, 0);
+        Map<Integer, Integer> previous = new HashMap<>();
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        previous.put(0, -1);
+        queue.add(0);
+        int reached = -1;
+        while (reached < 0) {
+            int cell = queue.poll();
+            int x = cell % width;
+            int y = cell / width;
+            int[] neighbours = {
+                    y * width + (x + 1) % width, y * width + (x - 1 + width) % width,
+                    ((y + 1) % height) * width + x, ((y - 1 + height) % height) * width + x};
+            for (int neighbour : neighbours) {
+                if (previous.putIfAbsent(neighbour, cell) == null) {
+                    if (cells[neighbour] != LAND && find(parent, neighbour) == main) {
+                        reached = cell;
+                        break;
+                    }
+                    queue.add(neighbour);
+                }
+            }
+        }
+        for (int cell = reached; cell >= 0; cell = previous.get(cell)) {
+            if (cells[cell] == LAND) {
+                cells[cell] = OCEAN;
+            }
+            parent[cell] = main;
+        }
+        parent[startRoot] = main; // The whole pocket is now reachable through the channel
+    }
+
+    // Turns every ocean cell outside the main region into land and scatters switchers over the rest.
+    // Returns, per stripe, how many cells could hold the treasure (ocean without a switcher, not the start).
+    private int[] fillPocketsAndPlaceSwitchers(byte[] cells, int[] parent, int main) {
+        long switcherSeed = hash(seed, -1);
+        int[] candidates = new int[stripes];
+        forEachStripe((from, to) -> {
+            int count = 0;
+            for (int cell = from * width; cell < to * width; cell++) {
+                if (cells[cell] == LAND) {
+                    continue;
+                }
+                if (find(parent, cell) != main) {
+                    cells[cell] = LAND;
+                } else if (cell != 0
+                        && Long.remainderUnsigned(hash(switcherSeed, cell), OceanMap.CELLS_PER_SWITCHER) == 0) {
+                    cells[cell] = SWITCHER;
+                } else if (cell != 0) {
+                    count++;
+                }
+            }
+            candidates[from / STRIPE_ROWS] = count;
+        });
+        return candidates;
+    }
+
+    // Uniform among the candidate cells: picks a rank, then finds its stripe and scans only that stripe
+    private Position pickTreasure(byte[] cells, int[] candidates) {
+        long total = 0;
+        for (int count : candidates) {
+            total += count;
+        }
+        if (total == 0) {
+            throw new IllegalStateException("No open water left for the treasure");
+        }
+        long rank = new SplitMix64(hash(seed, -2)).nextLong(total);
+        int stripe = 0;
+        while (rank >= candidates[stripe]) {
+            rank -= candidates[stripe++];
+        }
+        for (int cell = stripe * STRIPE_ROWS * width; ; cell++) {
+            if (cells[cell] == OCEAN && cell != 0 && rank-- == 0) {
+                return new Position(cell % width, cell / width);
+            }
+        }
+    }
+
+    // Packs cells equal to value into a layer; each task owns whole words, so no bits are shared
+    private CellLayer pack(byte[] cells, byte value) {
+        CellLayer layer = new CellLayer(cells.length);
+        int words = (cells.length + 63) >>> 6;
+        int wordsPerTask = STRIPE_ROWS * 64;
+        IntStream.range(0, (words + wordsPerTask - 1) / wordsPerTask).parallel().forEach(task -> {
+            int end = Math.min(cells.length, Math.min(words, (task + 1) * wordsPerTask) * 64);
+            for (int cell = task * wordsPerTask * 64; cell < end; cell++) {
+                if (cells[cell] == value) {
+                    layer.set(cell);
+                }
+            }
+        });
+        return layer;
+    }
+
+    private interface RowRange {
+        void run(int fromRow, int toRow);
+    }
+
+    private void forEachStripe(RowRange body) {
+        IntStream.range(0, stripes).parallel().forEach(stripe ->
+                body.run(stripe * STRIPE_ROWS, Math.min(height, (stripe + 1) * STRIPE_ROWS)));
+    }
+
+    // Links the roots of a and b, the higher root under the lower. Paths are halved on the way up, which
+    // only rewrites cells of the trees being joined, so stripes never touch each other's cells.
+    private static void union(int[] parent, int a, int b) {
+        int rootA = findAndCompress(parent, a);
+        int rootB = findAndCompress(parent, b);
+        if (rootA < rootB) {
+            parent[rootB] = rootA;
+        } else if (rootB < rootA) {
+            parent[rootA] = rootB;
+        }
+    }
+
+    private static int findAndCompress(int[] parent, int cell) {
+        while (parent[cell] != cell) {
+            parent[cell] = parent[parent[cell]];
+            cell = parent[cell];
+        }
+        return cell;
+    }
+
+    private static int find(int[] parent, int cell) {
+        while (parent[cell] != cell) {
+            cell = parent[cell];
+        }
+        return cell;
+    }
+
+    // SplitMix64's finalizer over seed and cell: a stateless, well-mixed value per cell
+    private static long hash(long seed, long cell) {
+        long z = seed + (cell + 1) * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,19 +1,27 @@
 package com.csci513.finalproject.strategy;
 
+import com.csci513.finalproject.logging.Logger;
 import com.csci513.finalproject.utils.Position;
 
 // Concrete strategy for chasing a target.
 public class ChaseStrategy implements MovementStrategy {
 
+    private static final Logger LOG = Logger.get(ChaseStrategy.class);
+
     private Position targetPosition;
 
     public ChaseStrategy(Position initialTarget) {
         this.targetPosition = initialTarget;
     }
 
+    @Override
+    public ChaseStrategy copy() {
+        return new ChaseStrategy(targetPosition);
+    }
+
     public void setTarget(Position targetPosition) {
         this.targetPosition = targetPosition;
-        System.out.println("ChaseStrategy target updated to: " + targetPosition);
+        LOG.debug("ChaseStrategy target updated to: {}", targetPosition);
     }
 
     // Getter for the target position
@@ -24,7 +32,7 @@ public class ChaseStrategy implements MovementStrategy {
     @Override
     public Position move(Position currentPosition) {
         if (targetPosition == null) {
-            System.out.println("ChaseStrategy: No target set, staying put.");
+            LOG.debug("ChaseStrategy: No target set, staying put.");
             return currentPosition; // Stay put if no target
         }
 
@@ -69,8 +77,9 @@ public class ChaseStrategy implements MovementStrategy {
              }
         }
 
-        System.out.println("ChaseStrategy: Moving from [" + currentX + "," + currentY +
-                           "] towards [" + targetX + "," + targetY + "] -> [" + nextX + "," + nextY + "]");
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("ChaseStrategy: Moving from [{},{}] towards [{},{}] -> [{},{}]", currentX, currentY, targetX, targetY, nextX, nextY);
+        }
 
         // Return the calculated next position
         // The actual update of the character's position should happen in the character's move() method
@@ -6,4 +6,7 @@ import com.csci513.finalproject.utils.Position;
 public interface MovementStrategy {
     // Takes the current position and returns the next position (or modifies the passed position)
     Position move(Position currentPosition);
+
+    // Independent copy in the same state, so a copied game moves exactly like the original
+    MovementStrategy copy();
 } 
\ No newline at end of file
@@ -1,12 +1,30 @@
 package com.csci513.finalproject.strategy;
 
+import com.csci513.finalproject.logging.Logger;
 import com.csci513.finalproject.utils.Position;
-import java.util.Random;
+import com.csci513.finalproject.utils.SplitMix64;
+import java.util.concurrent.ThreadLocalRandom;
 
 // Concrete strategy for patrolling (e.g., random movement).
 public class PatrolStrategy implements MovementStrategy {
 
-    private Random random = new Random();
+    private static final Logger LOG = Logger.get(PatrolStrategy.class);
+
+    private final SplitMix64 random;
+
+    public PatrolStrategy() {
+        this(new SplitMix64(ThreadLocalRandom.current().nextLong()));
+    }
+
+    // Patrols using the given generator, e.g. the entity's own stream split from the game seed
+    public PatrolStrategy(SplitMix64 random) {
+        this.random = random;
+    }
+
+    @Override
+    public PatrolStrategy copy() {
+        return new PatrolStrategy(random.copy());
+    }
 
     @Override
     public Position move(Position currentPosition) {
@@ -29,8 +47,9 @@ public class PatrolStrategy implements MovementStrategy {
         }
 
 
-        System.out.println("PatrolStrategy: Moving randomly from [" + currentX + "," + currentY +
-                           "] -> [" + nextX + "," + nextY + "]");
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("PatrolStrategy: Moving randomly from [{},{}] -> [{},{}]", currentX, currentY, nextX, nextY);
+        }
 
         return new Position(nextX, nextY);
     }
@@ -1,5 +1,6 @@
 package com.csci513.finalproject.strategy;
 
+import com.csci513.finalproject.logging.Logger;
 import com.csci513.finalproject.utils.Position;
 
 import java.util.Objects;
@@ -7,6 +8,8 @@ import java.util.Objects;
 // Concrete strategy that chases a target, predicting the next move based on consecutive directions.
 public class PredictiveChaseStrategy implements MovementStrategy {
 
+    private static final Logger LOG = Logger.get(PredictiveChaseStrategy.class);
+
     private Position targetPosition;
     private Position previousTargetPosition; // To calculate the last move direction
     private String lastDirection = null;
@@ -19,6 +22,16 @@ public class PredictiveChaseStrategy implements MovementStrategy {
         this.previousTargetPosition = initialTarget;
     }
 
+    @Override
+    public PredictiveChaseStrategy copy() {
+        PredictiveChaseStrategy copy = new PredictiveChaseStrategy(targetPosition);
+        copy.previousTargetPosition = previousTargetPosition;
+        copy.lastDirection = lastDirection;
+        copy.secondLastDirection = secondLastDirection;
+        copy.consecutiveMove = consecutiveMove;
+        return copy;
+    }
+
     // Method to update the target's position and track movement history
     public void setTarget(Position newTarget) {
         if (newTarget == null) {
@@ -46,7 +59,7 @@ public class PredictiveChaseStrategy implements MovementStrategy {
             this.consecutiveMove = this.lastDirection != null && this.lastDirection.equals(this.secondLastDirection);
 
             if (this.consecutiveMove) {
-                System.out.println("PredictiveChaseStrategy: Detected consecutive move: " + this.lastDirection);
+                LOG.debug("PredictiveChaseStrategy: Detected consecutive move: {}", this.lastDirection);
             }
         } else if (this.targetPosition == null) {
              // First time setting the target, clear history just in case
@@ -59,7 +72,9 @@ public class PredictiveChaseStrategy implements MovementStrategy {
         // Update positions for the next calculation
         this.previousTargetPosition = this.targetPosition; // Old target becomes previous
         this.targetPosition = newTarget;             // Store the new target position
-        System.out.println("PredictiveChaseStrategy target updated to: " + this.targetPosition + ", Last Dir: " + lastDirection + ", Prev Last Dir: " + secondLastDirection);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("PredictiveChaseStrategy target updated to: {}, Last Dir: {}, Prev Last Dir: {}", this.targetPosition, lastDirection, secondLastDirection);
+        }
     }
 
     // Getter for the target position
@@ -82,7 +97,7 @@ public class PredictiveChaseStrategy implements MovementStrategy {
     @Override
     public Position move(Position currentPosition) {
         if (targetPosition == null) {
-            System.out.println("PredictiveChaseStrategy: No target set, staying put.");
+            LOG.debug("PredictiveChaseStrategy: No target set, staying put.");
             return currentPosition;
         }
 
@@ -115,7 +130,7 @@ public class PredictiveChaseStrategy implements MovementStrategy {
 
         // Apply prediction if applicable
         if (consecutiveMove && lastDirection != null) {
-            System.out.println("PredictiveChaseStrategy: Applying prediction for direction " + lastDirection);
+            LOG.debug("PredictiveChaseStrategy: Applying prediction for direction {}", lastDirection);
             int predStepX = 0;
             int predStepY = 0;
             switch (lastDirection) {
@@ -142,8 +157,9 @@ public class PredictiveChaseStrategy implements MovementStrategy {
         int nextX = currentX + finalStepX;
         int nextY = currentY + finalStepY;
 
-        System.out.println("PredictiveChaseStrategy: Moving from [" + currentX + "," + currentY +
-                           "] towards [" + targetX + "," + targetY + "] -> Step (" + finalStepX + "," + finalStepY + ") -> Next [" + nextX + "," + nextY + "]");
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("PredictiveChaseStrategy: Moving from [{},{}] towards [{},{}] -> Step ({},{}) -> Next [{},{}]", currentX, currentY, targetX, targetY, finalStepX, finalStepY, nextX, nextY);
+        }
 
         return new Position(nextX, nextY);
     }
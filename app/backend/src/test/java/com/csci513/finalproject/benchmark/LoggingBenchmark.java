@@ -0,0 +1,65 @@
+package com.csci513.finalproject.benchmark;
+
+import com.csci513.finalproject.core.GameManager;
+import com.csci513.finalproject.logging.AsyncLogAppender;
+import com.csci513.finalproject.logging.ConsoleLogAppender;
+import com.csci513.finalproject.logging.LogAppender;
+import com.csci513.finalproject.logging.LogLevel;
+import com.csci513.finalproject.logging.Logger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+// Throughput of the move path (processPlayerMove) under different logging setups, all writing to a temp file:
+//   synchronous DEBUG - every message formatted and written on the caller, as the old println calls did
+//   async DEBUG       - every message, handed to the ring-buffer writer
+//   async INFO        - the default: per-move chatter is filtered before anything is built
+// Not a unit test (surefire ignores it). Run with:
+//   mvn -q test-compile exec:java -Dexec.mainClass=com.csci513.finalproject.benchmark.LoggingBenchmark -Dexec.classpathScope=test
+public class LoggingBenchmark {
+
+    private static final long SEED = 42; // Same world on every run, so results are comparable
+    private static final int WARMUP_MOVES = 50_000;
+    private static final int MEASURED_MOVES = 200_000;
+    private static final String[] DIRECTIONS = {"UP", "RIGHT", "DOWN", "LEFT"};
+
+    public static void main(String[] args) throws IOException {
+        File logFile = File.createTempFile("columbus-logging-benchmark", ".log");
+        logFile.deleteOnExit();
+        try (PrintStream file = new PrintStream(new FileOutputStream(logFile), true)) { // Autoflush, like System.out
+            LogAppender synchronous = new ConsoleLogAppender(file, file);
+            AsyncLogAppender async = new AsyncLogAppender(new ConsoleLogAppender(file, file), 8192);
+
+            Logger.setAppender(synchronous);
+            Logger.setLevel(LogLevel.WARN);
+            GameManager gameManager = new GameManager(GameManager.DEFAULT_MAP_WIDTH, GameManager.DEFAULT_MAP_HEIGHT, SEED);
+
+            run("warmup            ", gameManager, synchronous, LogLevel.DEBUG, WARMUP_MOVES);
+            run("synchronous DEBUG ", gameManager, synchronous, LogLevel.DEBUG, MEASURED_MOVES);
+            run("warmup            ", gameManager, async, LogLevel.DEBUG, WARMUP_MOVES);
+            run("async DEBUG       ", gameManager, async, LogLevel.DEBUG, MEASURED_MOVES);
+            run("warmup            ", gameManager, async, LogLevel.INFO, WARMUP_MOVES);
+            run("async INFO        ", gameManager, async, LogLevel.INFO, MEASURED_MOVES);
+            async.flush();
+            System.out.printf("async log events dropped (buffer full): %,d%n", async.getDroppedCount());
+            async.close();
+        }
+    }
+
+    private static void run(String label, GameManager gameManager, LogAppender appender, LogLevel level, int moves) {
+        Logger.setAppender(appender);
+        Logger.setLevel(level);
+        long start = System.nanoTime();
+        for (int i = 0; i < moves; i++) {
+            if (gameManager.getGameState().isGameOver()) {
+                gameManager.restartGame(); // Keeps the same map, so every mode plays comparable games
+            }
+            gameManager.processPlayerMove(DIRECTIONS[i & 3]);
+        }
+        long elapsed = System.nanoTime() - start;
+        Logger.setLevel(LogLevel.WARN);
+        System.out.printf("%s %,12.0f moves/s%n", label, moves / (elapsed / 1e9));
+    }
+}
@@ -0,0 +1,50 @@
+package com.csci513.finalproject.benchmark;
+
+import com.csci513.finalproject.core.GameManager;
+import com.csci513.finalproject.core.GameStateSerializer;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+
+// Micro-benchmark comparing the org.json DOM path with the streaming JsonByteWriter path for /state.
+// Not a unit test (surefire ignores it). Run with:
+//   mvn -q test-compile exec:java -Dexec.mainClass=com.csci513.finalproject.benchmark.StateSerializationBenchmark -Dexec.classpathScope=test
+public class StateSerializationBenchmark {
+
+    private static final long SEED = 42; // Same world on every run, so results are comparable
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+
+    private static volatile int sink; // Keeps the JIT from discarding results
+
+    public static void main(String[] args) {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(PrintStream.nullOutputStream())); // Silence game logging while setting up
+        GameManager gameManager = new GameManager(GameManager.DEFAULT_MAP_WIDTH, GameManager.DEFAULT_MAP_HEIGHT, SEED);
+        gameManager.processPlayerMove("RIGHT");
+        GameStateSerializer serializer = new GameStateSerializer();
+        System.setOut(out);
+
+        Runnable jsonObjectPath = () -> sink += serializer.toJson(gameManager).toString().getBytes().length;
+        Runnable streamingPath = () -> sink += serializer.toJsonBytes(gameManager).length;
+
+        run("warmup JSONObject", jsonObjectPath, WARMUP_ITERATIONS);
+        run("warmup streaming ", streamingPath, WARMUP_ITERATIONS);
+        run("JSONObject       ", jsonObjectPath, MEASURED_ITERATIONS);
+        run("streaming        ", streamingPath, MEASURED_ITERATIONS);
+    }
+
+    private static void run(String label, Runnable body, int iterations) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            body.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        System.out.printf("%s %,12.0f ops/s %,10d bytes/op%n",
+                label, iterations / (elapsed / 1e9), allocated / iterations);
+    }
+}
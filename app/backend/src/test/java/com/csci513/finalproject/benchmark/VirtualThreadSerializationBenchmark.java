@@ -0,0 +1,84 @@
+package com.csci513.finalproject.benchmark;
+
+import com.csci513.finalproject.core.GameManager;
+import com.csci513.finalproject.core.GameStateSerializer;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Streaming /state serialization the way the default server backend runs it: every request on a new
+// virtual thread, so nothing kept per thread survives between requests. Allocation per request should
+// stay close to the platform-thread loop's (the state document plus its copy), since JsonByteWriter
+// buffers come from a pool rather than being created for each new thread.
+// Not a unit test (surefire ignores it). Run with:
+//   mvn -q test-compile exec:java -Dexec.mainClass=com.csci513.finalproject.benchmark.VirtualThreadSerializationBenchmark -Dexec.classpathScope=test
+public class VirtualThreadSerializationBenchmark {
+
+    private static final long SEED = 42; // Same world on every run, so results are comparable
+    private static final int WARMUP_REQUESTS = 100_000;
+    private static final int MEASURED_REQUESTS = 500_000;
+
+    private static volatile int sink; // Keeps the JIT from discarding results
+
+    public static void main(String[] args) throws Exception {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(PrintStream.nullOutputStream())); // Silence game logging while setting up
+        GameManager gameManager = new GameManager(GameManager.DEFAULT_MAP_WIDTH, GameManager.DEFAULT_MAP_HEIGHT, SEED);
+        gameManager.processPlayerMove("RIGHT");
+        GameStateSerializer serializer = new GameStateSerializer();
+        System.setOut(out);
+        Runnable request = () -> sink += serializer.toJsonBytes(gameManager).length;
+
+        runOnPlatformThread("warmup platform thread ", request, WARMUP_REQUESTS);
+        runOnVirtualThreads("warmup virtual threads ", request, WARMUP_REQUESTS);
+        runOnPlatformThread("one platform thread    ", request, MEASURED_REQUESTS);
+        runOnVirtualThreads("virtual thread/request ", request, MEASURED_REQUESTS);
+    }
+
+    private static void runOnPlatformThread(String label, Runnable request, int requests) {
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            request.run();
+        }
+        report(label, requests, System.nanoTime() - start, allocatedBytes() - allocatedBefore, 0);
+    }
+
+    // Requests run one at a time, each on its own virtual thread, so the per-thread cost is all that differs
+    private static void runOnVirtualThreads(String label, Runnable request, int requests) throws Exception {
+        long threadCost = measureEmptyVirtualThreads(requests);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                Future<?> done = executor.submit(request);
+                done.get();
+            }
+            report(label, requests, System.nanoTime() - start, allocatedBytes() - allocatedBefore, threadCost);
+        }
+    }
+
+    // Bytes allocated just to start and join the virtual threads, subtracted from the serializing run
+    private static long measureEmptyVirtualThreads(int requests) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long allocatedBefore = allocatedBytes();
+            for (int i = 0; i < requests; i++) {
+                executor.submit(() -> sink++).get();
+            }
+            return allocatedBytes() - allocatedBefore;
+        }
+    }
+
+    private static void report(String label, int requests, long elapsedNanos, long allocated, long threadCost) {
+        System.out.printf("%s %,12.0f req/s %,10d bytes/req%n",
+                label, requests / (elapsedNanos / 1e9), (allocated - threadCost) / requests);
+    }
+
+    // All threads, including the carrier threads virtual threads run on
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getTotalThreadAllocatedBytes();
+    }
+}
@@ -0,0 +1,51 @@
+package com.csci513.finalproject.benchmark;
+
+import com.csci513.finalproject.logging.LogLevel;
+import com.csci513.finalproject.logging.Logger;
+import com.csci513.finalproject.model.map.OceanMap;
+import com.csci513.finalproject.utils.SplitMix64;
+
+import java.util.concurrent.ForkJoinPool;
+
+// Time to create a generated map (island clusters, connectivity pass, switchers and treasure) at a few
+// sizes below the chunked threshold, with the share of land that ends up on the map. Generation runs on
+// the common fork-join pool; compare core counts with -Djava.util.concurrent.ForkJoinPool.common.parallelism=N.
+// Not a unit test (surefire ignores it). Run with:
+//   mvn -q test-compile exec:java -Dexec.mainClass=com.csci513.finalproject.benchmark.WorldGenerationBenchmark -Dexec.classpathScope=test
+public class WorldGenerationBenchmark {
+
+    private static final int[] SIZES = {1024, 2048, 4000};
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    public static void main(String[] args) {
+        Logger.setLevel(LogLevel.WARN);
+        System.out.printf("fork-join parallelism: %d%n", ForkJoinPool.getCommonPoolParallelism());
+        for (int size : SIZES) {
+            for (int run = 0; run < WARMUP_RUNS; run++) {
+                new OceanMap(size, size, new SplitMix64(run));
+            }
+            long best = Long.MAX_VALUE;
+            OceanMap map = null;
+            for (int run = 0; run < MEASURED_RUNS; run++) {
+                long start = System.nanoTime();
+                map = new OceanMap(size, size, new SplitMix64(100 + run));
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            System.out.printf("%5dx%-5d best of %d: %7.1f ms, land %4.1f%%%n",
+                    size, size, MEASURED_RUNS, best / 1e6, 100.0 * landCells(map) / ((double) size * size));
+        }
+    }
+
+    private static long landCells(OceanMap map) {
+        long land = 0;
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++) {
+                if (map.isIsland(x, y)) {
+                    land++;
+                }
+            }
+        }
+        return land;
+    }
+}
@@ -0,0 +1,76 @@
+package com.csci513.finalproject.core;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControllerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    @DisplayName("A token bucket allows its burst, then refills at its rate")
+    void testTokenBucket() {
+        TokenBucket bucket = new TokenBucket(2, 3); // 2 tokens per second, 3 at most
+        long now = 5 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(now), "Burst token " + i + " should be granted");
+        }
+        long wait = bucket.tryAcquire(now);
+        assertEquals(SECOND / 2, wait, "The next token arrives after one refill interval");
+        assertEquals(0, bucket.tryAcquire(now + wait));
+        assertFalse(bucket.isFull(now + wait));
+        assertTrue(bucket.isFull(now + 10 * SECOND));
+    }
+
+    @Test
+    @DisplayName("In-flight slots are bounded and released on exit")
+    void testInFlightBound() {
+        AdmissionController admission = new AdmissionController(2, 100, 100, 100, 100);
+        assertTrue(admission.tryEnter());
+        assertTrue(admission.tryEnter());
+        assertFalse(admission.tryEnter(), "Third concurrent request should be shed");
+        assertEquals(2, admission.getInFlight());
+        admission.exit();
+        assertTrue(admission.tryEnter());
+        assertEquals(1, admission.getRejectedOverloadCount());
+        assertEquals(3, admission.getAdmittedCount());
+    }
+
+    @Test
+    @DisplayName("Clients are limited independently")
+    void testPerClientLimit() {
+        AdmissionController admission = new AdmissionController(10, 1, 2, 100, 100);
+        assertNull(admission.checkClient("10.0.0.1"));
+        assertNull(admission.checkClient("10.0.0.1"));
+        AdmissionController.Rejection rejection = admission.checkClient("10.0.0.1");
+        assertNotNull(rejection);
+        assertEquals(429, rejection.getStatus());
+        assertEquals(1, rejection.getRetryAfterSeconds());
+        assertNull(admission.checkClient("10.0.0.2"), "Another client has its own bucket");
+        assertEquals(1, admission.getRejectedClientRateCount());
+    }
+
+    @Test
+    @DisplayName("A table full of active clients turns new addresses away instead of scanning for each")
+    void testFullTableRejectsNewKeys() {
+        AdmissionController admission = new AdmissionController(10, 1, 2, 100, 100, 3);
+        for (int i = 1; i <= 3; i++) {
+            assertNull(admission.checkClient("10.0.0." + i)); // Each bucket now needs a second to refill
+        }
+        for (int i = 4; i < 100; i++) {
+            AdmissionController.Rejection rejection = admission.checkClient("10.0.0." + i);
+            assertNotNull(rejection, "No room for 10.0.0." + i);
+            assertEquals(429, rejection.getStatus());
+            assertEquals(1, rejection.getRetryAfterSeconds(), "The next sweep is at most a second away");
+        }
+        assertNull(admission.checkClient("10.0.0.1"), "Tracked clients keep their buckets");
+
+        // Buckets that refill at once are idle again straight away, so the sweep makes room
+        AdmissionController idle = new AdmissionController(10, 1e9, 1, 100, 100, 3);
+        for (int i = 1; i <= 4; i++) {
+            assertNull(idle.checkClient("10.0.0." + i));
+        }
+    }
+}
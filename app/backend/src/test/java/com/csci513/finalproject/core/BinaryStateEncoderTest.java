@@ -0,0 +1,197 @@
+package com.csci513.finalproject.core;
+
+import com.csci513.finalproject.model.characters.PirateShip;
+import com.csci513.finalproject.model.characters.SeaMonster;
+import com.csci513.finalproject.model.map.OceanMap;
+import com.csci513.finalproject.utils.Position;
+import com.csci513.finalproject.utils.SplitMix64;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryStateEncoderTest {
+
+    // Reference decoder for the format documented in BinaryStateEncoder
+    private static class Decoder {
+        private final ByteBuffer in;
+
+        Decoder(byte[] bytes) {
+            this.in = ByteBuffer.wrap(bytes);
+        }
+
+        long varLong() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = in.get() & 0xff;
+                value |= (long) (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        int unsignedByte() {
+            return in.get() & 0xff;
+        }
+
+        String string() {
+            byte[] bytes = new byte[(int) varLong()];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        Position position(int width) {
+            long cell = varLong();
+            return new Position((int) (cell % width), (int) (cell / width));
+        }
+
+        Set<Position> cells(int width) {
+            Set<Position> positions = new HashSet<>();
+            long count = varLong();
+            long cell = 0;
+            for (long i = 0; i < count; i++) {
+                cell += varLong();
+                positions.add(new Position((int) (cell % width), (int) (cell / width)));
+            }
+            return positions;
+        }
+
+        void expectHeader(char kind) {
+            assertEquals('C', in.get());
+            assertEquals(kind, (char) in.get());
+            assertEquals(BinaryStateEncoder.FORMAT_VERSION, unsignedByte());
+        }
+
+        boolean exhausted() {
+            return !in.hasRemaining();
+        }
+    }
+
+    @Test
+    @DisplayName("Binary state round-trips through the decoder")
+    void testStateRoundTrip() {
+        GameManager gameManager = new GameManager();
+        gameManager.processPlayerMove("RIGHT");
+        OceanMap map = gameManager.getOceanMap();
+        int width = map.getWidth();
+
+        Decoder decoder = new Decoder(new BinaryStateEncoder().encodeState(gameManager));
+        decoder.expectHeader('S');
+        assertEquals(gameManager.getVersion(), decoder.varLong());
+        assertEquals(width, decoder.varLong());
+        assertEquals(map.getHeight(), decoder.varLong());
+        assertEquals(map.getMapId(), decoder.string());
+        assertEquals(gameManager.getColumbusShip().getPosition(), decoder.position(width));
+        assertEquals(map.getTreasurePosition(), decoder.position(width));
+        assertEquals(gameManager.getGameState().isGameOver(), decoder.unsignedByte() == 1);
+        assertEquals(gameManager.getGameState().getStatusMessage(), decoder.string());
+
+        List<PirateShip> pirates = gameManager.getPirateShips();
+        assertEquals(pirates.size(), decoder.varLong());
+        for (PirateShip pirate : pirates) {
+            int type = decoder.unsignedByte();
+            String expectedType = pirate.getClass().getSimpleName();
+            if (type == BinaryStateEncoder.PIRATE_OTHER) {
+                assertEquals(expectedType, decoder.string());
+            } else {
+                assertEquals(expectedType, type == BinaryStateEncoder.PIRATE_PATROL ? "PatrolPirateShip" : "ChaserPirateShip");
+            }
+            assertEquals(pirate.getPosition(), decoder.position(width));
+        }
+
+        List<Position> activeMonsters = new ArrayList<>();
+        for (SeaMonster monster : gameManager.getSeaMonsters()) {
+            if (monster.isActive()) {
+                activeMonsters.add(monster.getPosition());
+            }
+        }
+        assertEquals(activeMonsters.size(), decoder.varLong());
+        for (Position monster : activeMonsters) {
+            assertEquals(monster, decoder.position(width));
+        }
+        assertTrue(decoder.exhausted(), "No trailing bytes expected");
+    }
+
+    @Test
+    @DisplayName("Binary map round-trips with both island encodings")
+    void testMapRoundTrip() {
+        // A large sparse map uses the cell list, a tiny crowded one the bitset
+        for (OceanMap map : new OceanMap[] {new OceanMap(500, 500), new OceanMap(4, 4)}) {
+            int width = map.getWidth();
+            Decoder decoder = new Decoder(new BinaryStateEncoder().encodeMap(map));
+            decoder.expectHeader('M');
+            assertEquals(map.getMapId(), decoder.string());
+            assertEquals(width, decoder.varLong());
+            assertEquals(map.getHeight(), decoder.varLong());
+
+            Set<Position> islands;
+            int encoding = decoder.unsignedByte();
+            if (encoding == BinaryStateEncoder.ISLANDS_SPARSE) {
+                islands = decoder.cells(width);
+            } else {
+                assertEquals(BinaryStateEncoder.ISLANDS_BITSET, encoding);
+                islands = new HashSet<>();
+                int cells = width * map.getHeight();
+                int current = 0;
+                for (int cell = 0; cell < cells; cell++) {
+                    if ((cell & 7) == 0) {
+                        current = decoder.unsignedByte();
+                    }
+                    if ((current & (1 << (cell & 7))) != 0) {
+                        islands.add(new Position(cell % width, cell / width));
+                    }
+                }
+            }
+            assertEquals(new HashSet<>(map.getIslandPositions()), islands);
+            assertEquals(new HashSet<>(map.getStrategySwitcherPositions()), decoder.cells(width));
+            assertTrue(decoder.exhausted(), "No trailing bytes expected");
+        }
+    }
+
+    @Test
+    @DisplayName("Maps too large to list are marked tiled, with the tile size, rather than sent without islands")
+    void testTiledMapPayload() {
+        OceanMap map = new OceanMap(1024, 1024, new SplitMix64(5));
+        assertTrue(map.isTiled());
+
+        JSONObject json = new GameStateSerializer().toMapJson(map);
+        assertTrue(json.getBoolean("tiled"));
+        assertEquals(MapTileCache.MAX_TILE_SIZE, json.getInt("tileSize"));
+        assertFalse(json.has("islands"), "A tiled map must not claim to have no islands");
+        assertFalse(json.has("strategySwitchers"));
+        assertFalse(new GameStateSerializer().toMapJson(new OceanMap(20, 20)).getBoolean("tiled"));
+
+        Decoder decoder = new Decoder(new BinaryStateEncoder().encodeMap(map));
+        decoder.expectHeader('M');
+        assertEquals(map.getMapId(), decoder.string());
+        assertEquals(1024, decoder.varLong());
+        assertEquals(1024, decoder.varLong());
+        assertEquals(BinaryStateEncoder.ISLANDS_TILED, decoder.unsignedByte());
+        assertEquals(MapTileCache.MAX_TILE_SIZE, decoder.varLong());
+        assertTrue(decoder.exhausted(), "No trailing bytes expected");
+    }
+
+    @Test
+    @DisplayName("Binary encoding is several times smaller than JSON on a 500x500 map")
+    void testBinaryIsSmallerThanJson() {
+        GameManager gameManager = new GameManager(500, 500);
+        byte[] jsonState = gameManager.getStateSnapshot(StateSnapshot.JSON).getBody();
+        byte[] binaryState = gameManager.getStateSnapshot(StateSnapshot.BINARY).getBody();
+        byte[] jsonMap = gameManager.getMapPayload(StateSnapshot.JSON).getBody();
+        byte[] binaryMap = gameManager.getMapPayload(StateSnapshot.BINARY).getBody();
+
+        assertTrue(binaryState.length * 3 < jsonState.length,
+                   "Binary state (" + binaryState.length + " B) should be several times smaller than JSON (" + jsonState.length + " B)");
+        assertTrue(binaryMap.length * 3 < jsonMap.length,
+                   "Binary map (" + binaryMap.length + " B) should be several times smaller than JSON (" + jsonMap.length + " B)");
+    }
+}
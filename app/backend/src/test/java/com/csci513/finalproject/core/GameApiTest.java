@@ -0,0 +1,198 @@
+package com.csci513.finalproject.core;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameApiTest {
+
+    private GameSessionRegistry sessions;
+    private GameApi api;
+
+    @BeforeEach
+    void setUp() {
+        sessions = new GameSessionRegistry();
+        api = new GameApi(sessions);
+    }
+
+    private ApiRequest request(String method, String path, Map<String, String> headers, String body) {
+        return new ApiRequest(method, path, headers, new HashMap<>(), "127.0.0.1", () -> body);
+    }
+
+    @Test
+    @DisplayName("GET /state returns the cached snapshot with its ETag, and 304 when it matches")
+    void testStateAndNotModified() {
+        ApiResponse response = api.handle(request("GET", "/state", new HashMap<>(), ""));
+        assertEquals(200, response.getStatus());
+        assertEquals("*", response.getHeaders().get("Access-Control-Allow-Origin"));
+        String etag = response.getHeaders().get("ETag");
+        assertNotNull(etag);
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("If-None-Match", etag); // Header names are matched case-insensitively
+        ApiResponse notModified = api.handle(request("GET", "/state", headers, ""));
+        assertEquals(304, notModified.getStatus());
+        assertEquals(0, notModified.getBody().length);
+    }
+
+    @Test
+    @DisplayName("POST /action/move routes to the session named in the path")
+    void testMoveUsesPathSession() {
+        ApiResponse response = api.handle(request("POST", "/games/alice/action/move", new HashMap<>(), "{\"direction\":\"UP\"}"));
+        assertEquals(200, response.getStatus());
+        assertEquals(1, sessions.get("alice").getVersion(), "The move should be applied to alice's game");
+        assertNull(sessions.get(GameSessionRegistry.DEFAULT_SESSION_ID), "The default session should be untouched");
+    }
+
+    @Test
+    @DisplayName("Bad requests and unknown routes get 400 and 404")
+    void testErrors() {
+        assertEquals(400, api.handle(request("POST", "/action/move", new HashMap<>(), "not json")).getStatus());
+        assertEquals(400, api.handle(request("GET", "/games/bad id!/state", new HashMap<>(), "")).getStatus());
+        assertEquals(404, api.handle(request("GET", "/nope", new HashMap<>(), "")).getStatus());
+    }
+
+    @Test
+    @DisplayName("Large responses are gzipped when accepted, small ones are not")
+    void testCompression() {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Accept-Encoding", "gzip");
+        // Session games use the default 20x20 map, whose state is under the compression threshold
+        ApiResponse small = api.handle(request("GET", "/games/big/state", headers, ""));
+        assertNull(small.getHeaders().get("Content-Encoding"));
+
+        StringBuilder directions = new StringBuilder("{\"directions\":[");
+        for (int i = 0; i < 200; i++) {
+            directions.append(i == 0 ? "" : ",").append("\"UP\"");
+        }
+        directions.append("]}");
+        // A batch stops early when the ship is caught, so retry until one is long enough to compress
+        boolean sawGzip = false;
+        for (int attempt = 0; attempt < 50 && !sawGzip; attempt++) {
+            ApiResponse batch = api.handle(request("POST", "/games/big" + attempt + "/action/moves", headers, directions.toString()));
+            assertEquals(200, batch.getStatus());
+            if ("gzip".equals(batch.getHeaders().get("Content-Encoding"))) {
+                assertEquals((byte) 0x1f, batch.getBody()[0], "Body should start with the gzip magic number");
+                sawGzip = true;
+            } else {
+                assertTrue(batch.getBody().length < ResponseCompression.MIN_COMPRESS_BYTES);
+            }
+        }
+        assertTrue(sawGzip, "A long batch response should have been gzipped");
+    }
+
+    @Test
+    @DisplayName("Flooding one session's actions gets 429 with Retry-After, other sessions are unaffected")
+    void testSessionRateLimit() {
+        api = new GameApi(sessions, new AdmissionController(10, 1000, 1000, 1, 3));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, api.handle(request("POST", "/games/flood/action/restart", new HashMap<>(), "")).getStatus());
+        }
+        ApiResponse limited = api.handle(request("POST", "/games/flood/action/restart", new HashMap<>(), ""));
+        assertEquals(429, limited.getStatus());
+        assertNotNull(limited.getHeaders().get("Retry-After"));
+        assertEquals(200, api.handle(request("GET", "/games/flood/state", new HashMap<>(), "")).getStatus(), "Reads are not action-limited");
+        assertEquals(200, api.handle(request("POST", "/games/calm/action/restart", new HashMap<>(), "")).getStatus());
+    }
+
+    @Test
+    @DisplayName("GET /metrics reports route latencies, tick phases and session gauges")
+    void testMetrics() {
+        api.handle(request("POST", "/games/measured/action/move", new HashMap<>(), "{\"direction\":\"UP\"}"));
+        ApiResponse response = api.handle(request("GET", "/metrics", new HashMap<>(), ""));
+        assertEquals(200, response.getStatus());
+        String text = new String(response.getBody(), StandardCharsets.UTF_8);
+        assertTrue(text.contains("columbus_http_request_duration_seconds_count{route=\"/action/move\"}"));
+        assertTrue(text.contains("columbus_tick_phase_duration_seconds_count{phase=\"npc_move\"}"));
+        assertTrue(text.contains("columbus_sessions_active 1\n"));
+    }
+
+    @Test
+    @DisplayName("POST /action/restart with a seed gives every session the same world")
+    void testRestartWithSeed() {
+        ApiResponse alice = api.handle(request("POST", "/games/alice/action/restart", new HashMap<>(), "{\"seed\": 2024}"));
+        ApiResponse bob = api.handle(request("POST", "/games/bob/action/restart", new HashMap<>(), "{\"seed\": 2024}"));
+        assertEquals(200, alice.getStatus());
+        assertEquals("2024", alice.getHeaders().get("X-World-Seed"));
+        assertArrayEquals(alice.getBody(), bob.getBody());
+
+        ApiResponse unseeded = api.handle(request("POST", "/games/carol/action/restart", new HashMap<>(), ""));
+        assertEquals(200, unseeded.getStatus());
+        assertEquals(Long.toString(sessions.get("carol").getSeed()), unseeded.getHeaders().get("X-World-Seed"));
+        assertEquals(400, api.handle(request("POST", "/games/dave/action/restart", new HashMap<>(), "{\"seed\": \"abc\"}")).getStatus());
+    }
+
+    @Test
+    @DisplayName("GET /replay/{id} serves any turn of the session's current game")
+    void testReplay() {
+        assertEquals(404, api.handle(request("GET", "/replay/alice", new HashMap<>(), "")).getStatus());
+        api.handle(request("POST", "/games/alice/action/moves", new HashMap<>(), "{\"directions\":[\"UP\",\"LEFT\"]}"));
+        int length = sessions.get("alice").getRecording().length();
+
+        ApiResponse latest = api.handle(request("GET", "/replay/alice", new HashMap<>(), ""));
+        assertEquals(200, latest.getStatus());
+        JSONObject latestJson = new JSONObject(new String(latest.getBody(), StandardCharsets.UTF_8));
+        assertEquals(length, latestJson.getInt("turn"));
+        assertEquals(length, latestJson.getInt("length"));
+        JSONObject live = new GameStateSerializer().toJson(sessions.get("alice"));
+        assertEquals(live.getJSONObject("player").toString(), latestJson.getJSONObject("state").getJSONObject("player").toString());
+
+        Map<String, String> query = new HashMap<>();
+        query.put("turn", "0");
+        ApiResponse first = api.handle(new ApiRequest("GET", "/replay/alice", new HashMap<>(), query, "127.0.0.1", () -> ""));
+        assertEquals(0, new JSONObject(new String(first.getBody(), StandardCharsets.UTF_8)).getJSONObject("state").getLong("version"));
+        query.put("turn", Integer.toString(length + 1));
+        assertEquals(400, api.handle(new ApiRequest("GET", "/replay/alice", new HashMap<>(), query, "127.0.0.1", () -> "")).getStatus());
+    }
+
+    @Test
+    @DisplayName("GET /map/tiles serves a rectangle's terrain and characters; /map/{id}/tiles is cacheable forever")
+    void testTiles() {
+        GameManager game = sessions.getOrCreate("alice");
+        Map<String, String> query = new HashMap<>();
+        query.put("x", "0");
+        query.put("y", "0");
+        query.put("w", "500"); // Too wide
+        query.put("h", "10");
+        assertEquals(400, api.handle(new ApiRequest("GET", "/games/alice/map/tiles", new HashMap<>(), query, "127.0.0.1", () -> "")).getStatus());
+
+        query.put("w", "20");
+        ApiResponse whole = api.handle(new ApiRequest("GET", "/games/alice/map/tiles", new HashMap<>(), query, "127.0.0.1", () -> ""));
+        assertEquals(200, whole.getStatus());
+        JSONObject tile = new JSONObject(new String(whole.getBody(), StandardCharsets.UTF_8));
+        assertEquals(10, tile.getInt("height"));
+        assertEquals(game.getPirateShips().stream().filter(p -> p.getPosition().getY() < 10).count(),
+                tile.getJSONArray("pirates").length());
+        assertEquals(game.getOceanMap().getIslandPositions().stream().filter(p -> p.getY() < 10).count(),
+                tile.getJSONObject("terrain").getJSONArray("islands").length());
+        assertEquals(game.getColumbusShip().getPosition().getY() < 10, tile.has("player"));
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("If-None-Match", whole.getHeaders().get("ETag"));
+        assertEquals(304, api.handle(new ApiRequest("GET", "/games/alice/map/tiles", headers, query, "127.0.0.1", () -> "")).getStatus());
+
+        String byId = "/games/alice/map/" + game.getOceanMap().getMapId() + "/tiles";
+        ApiResponse terrain = api.handle(new ApiRequest("GET", byId, new HashMap<>(), query, "127.0.0.1", () -> ""));
+        assertEquals(200, terrain.getStatus());
+        assertTrue(terrain.getHeaders().get("Cache-Control").contains("immutable"));
+        assertEquals(tile.getJSONObject("terrain").toString(),
+                new JSONObject(new String(terrain.getBody(), StandardCharsets.UTF_8)).getJSONObject("terrain").toString());
+        assertEquals(404, api.handle(new ApiRequest("GET", "/games/alice/map/0000/tiles", new HashMap<>(), query, "127.0.0.1", () -> "")).getStatus());
+    }
+
+    @Test
+    @DisplayName("Query strings are URL-decoded")
+    void testParseQuery() {
+        Map<String, String> query = ApiRequest.parseQuery("since=5&name=a%20b&flag");
+        assertEquals("5", query.get("since"));
+        assertEquals("a b", query.get("name"));
+        assertEquals("", query.get("flag"));
+    }
+}
@@ -6,11 +6,13 @@ import com.csci513.finalproject.model.characters.PirateShip;
 import com.csci513.finalproject.model.characters.SeaMonster;
 import com.csci513.finalproject.model.map.OceanMap;
 import com.csci513.finalproject.utils.Position;
+import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -20,16 +22,13 @@ import static org.junit.jupiter.api.Assertions.*;
 public class GameManagerTest {
 
     private GameManager gameManager;
-    private OceanMap oceanMap; // Access the singleton map instance used by GameManager
+    private OceanMap oceanMap; // The map instance owned by this GameManager
 
     @BeforeEach
     void setUp() {
-        // Need to reset the singleton before each test if tests modify its state implicitly
-        // This is tricky with singletons. A better approach might involve dependency injection
-        // or a reset method on the singleton for testing.
-        // For now, we assume GameManager() correctly gets/initializes the map.
+        // Every GameManager owns its own map, so each test gets a fresh world
         gameManager = new GameManager();
-        oceanMap = OceanMap.getInstance(); // Get the same instance GameManager uses
+        oceanMap = gameManager.getOceanMap(); // Get the same instance GameManager uses
     }
 
     /**
@@ -404,4 +403,179 @@ public class GameManagerTest {
             // Not testing assertion here since we already verified manual movement above
         }
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Moves and restarts bump the world version")
+    void testVersionBumpsOnMoveAndRestart() {
+        long initialVersion = gameManager.getVersion();
+        gameManager.processPlayerMove("RIGHT");
+        long afterMove = gameManager.getVersion();
+        assertTrue(afterMove > initialVersion, "Version should increase after a move");
+
+        gameManager.restartGame();
+        assertTrue(gameManager.getVersion() > afterMove, "Version should increase after a restart");
+    }
+
+    @Test
+    @DisplayName("State snapshot is cached until the version changes")
+    void testStateSnapshotCachedPerVersion() {
+        StateSnapshot first = gameManager.getStateSnapshot();
+        assertSame(first, gameManager.getStateSnapshot(), "Unchanged game should reuse the cached snapshot");
+        assertTrue(first.matchesETag(first.getETag()), "Snapshot should match its own ETag");
+
+        gameManager.restartGame();
+        StateSnapshot second = gameManager.getStateSnapshot();
+        assertNotSame(first, second, "A new version should produce a new snapshot");
+        assertFalse(second.matchesETag(first.getETag()), "Old ETag should not match the new version");
+    }
+
+    @Test
+    @DisplayName("Delta since a recent version contains only the changes")
+    void testDeltaSinceRecentVersion() {
+        long before = gameManager.getVersion();
+        gameManager.processPlayerMove("RIGHT");
+
+        byte[] delta = gameManager.getDeltaJson(before);
+        assertNotNull(delta, "A delta should be available for the previous version");
+        JSONObject deltaJson = new JSONObject(new String(delta, StandardCharsets.UTF_8));
+        assertTrue(deltaJson.getBoolean("delta"));
+        assertEquals(before, deltaJson.getLong("since"));
+        assertEquals(gameManager.getVersion(), deltaJson.getLong("version"));
+        assertFalse(deltaJson.has("map"), "Delta should not repeat the static map");
+
+        JSONObject upToDate = new JSONObject(new String(gameManager.getDeltaJson(gameManager.getVersion()), StandardCharsets.UTF_8));
+        assertTrue(upToDate.getJSONArray("pirates").isEmpty(), "No changes since the current version");
+        assertFalse(upToDate.has("player"));
+    }
+
+    @Test
+    @DisplayName("Delta falls back to a full snapshot when the version is too old or predates a restart")
+    void testDeltaFallsBackWhenUnavailable() {
+        GameManager game = new GameManager(20, 20, 3); // A world where the player outlives the ring below
+        long before = game.getVersion();
+        game.restartGame();
+        assertNull(game.getDeltaJson(before), "Deltas cannot span a restart");
+        assertNull(game.getDeltaJson(game.getVersion() + 1), "Future versions are unknown");
+
+        long afterRestart = game.getVersion();
+        for (int i = 0; i < GameManager.CHANGE_LOG_TICKS + 10; i++) {
+            game.processPlayerMove(i % 2 == 0 ? "RIGHT" : "LEFT");
+        }
+        assertFalse(game.getGameState().isGameOver());
+        assertTrue(game.getVersion() - afterRestart > GameManager.CHANGE_LOG_TICKS);
+        assertNull(game.getDeltaJson(afterRestart), "Versions older than the ring should need a full snapshot");
+        assertNotNull(game.getDeltaJson(game.getVersion() - 1), "The latest ticks are still in the ring");
+    }
+
+    @Test
+    @DisplayName("State carries only the map id while the static layer is served separately")
+    void testStateReferencesMapPayload() {
+        JSONObject state = new JSONObject(new String(gameManager.getStateSnapshot().getBody(), StandardCharsets.UTF_8));
+        JSONObject stateMap = state.getJSONObject("map");
+        assertEquals(oceanMap.getMapId(), stateMap.getString("id"));
+        assertFalse(stateMap.has("islands"), "Islands should not be repeated in every state");
+
+        MapPayload payload = gameManager.getMapPayload();
+        assertSame(payload, gameManager.getMapPayload(), "Map payload should be built once per map");
+        JSONObject mapJson = new JSONObject(new String(payload.getBody(), StandardCharsets.UTF_8));
+        assertEquals(oceanMap.getIslandPositions().size(), mapJson.getJSONArray("islands").length());
+        assertEquals(oceanMap.getStrategySwitcherPositions().size(), mapJson.getJSONArray("strategySwitchers").length());
+    }
+
+    @Test
+    @DisplayName("Batched moves apply each direction in order and report per-step outcomes")
+    void testProcessPlayerMovesAppliesInOrder() {
+        long before = gameManager.getVersion();
+        List<String> directions = List.of("RIGHT", "DOWN", "LEFT", "UP");
+        MoveBatchResult result = gameManager.processPlayerMoves(directions);
+
+        int applied = result.getSteps().size();
+        assertTrue(applied >= 1 && applied <= directions.size());
+        assertEquals(before + applied, gameManager.getVersion(), "Each applied step is one tick");
+        for (int i = 0; i < applied; i++) {
+            MoveBatchResult.Step step = result.getSteps().get(i);
+            assertEquals(directions.get(i), step.getDirection());
+            assertEquals(before + i + 1, step.getVersion());
+        }
+        MoveBatchResult.Step last = result.getSteps().get(applied - 1);
+        assertEquals(gameManager.getColumbusShip().getPosition(), last.getPlayerPosition());
+        assertEquals(gameManager.getVersion(), result.getFinalState().getVersion(), "Final state should reflect the last step");
+        if (applied < directions.size()) {
+            assertTrue(last.isGameOver(), "A batch should only stop early on game over");
+        }
+    }
+
+    @Test
+    @DisplayName("Batched moves stop immediately once the game is over")
+    void testProcessPlayerMovesStopsOnGameOver() {
+        gameManager.getGameState().setGameOver(true);
+        long before = gameManager.getVersion();
+        MoveBatchResult result = gameManager.processPlayerMoves(List.of("RIGHT", "RIGHT"));
+        assertTrue(result.getSteps().isEmpty(), "No step should be applied after game over");
+        assertEquals(before, gameManager.getVersion());
+    }
+
+    @Test
+    @DisplayName("Equal seeds and moves always produce the same game")
+    void testSeededGamesAreReproducible() {
+        GameManager first = new GameManager(20, 20, 1234);
+        GameManager second = new GameManager(20, 20, 1234);
+        assertEquals(first.getOceanMap().getMapId(), second.getOceanMap().getMapId());
+        assertNotEquals(first.getOceanMap().getMapId(), new GameManager(20, 20, 4321).getOceanMap().getMapId(),
+                "Different seeds should give different maps");
+
+        String[] directions = {"UP", "LEFT", "LEFT", "DOWN", "RIGHT"};
+        for (int i = 0; i < 200; i++) {
+            if (first.getGameState().isGameOver()) {
+                first.restartGame(); // Draws the world's next game seed, so the copies stay in step
+                second.restartGame();
+            }
+            first.processPlayerMove(directions[i % directions.length]);
+            second.processPlayerMove(directions[i % directions.length]);
+            assertArrayEquals(new GameStateSerializer().toJsonBytes(first), new GameStateSerializer().toJsonBytes(second),
+                    "Games diverged after move " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Restarting with a seed rebuilds exactly the world that seed determines")
+    void testRestartWithSeed() {
+        gameManager.processPlayerMove("UP");
+        gameManager.restartGame(99);
+        GameManager fresh = new GameManager(GameManager.DEFAULT_MAP_WIDTH, GameManager.DEFAULT_MAP_HEIGHT, 99);
+
+        assertEquals(99, gameManager.getSeed());
+        assertEquals(fresh.getOceanMap().getMapId(), gameManager.getOceanMap().getMapId());
+        assertEquals(fresh.getGameSeed(), gameManager.getGameSeed());
+        assertEquals(fresh.getColumbusShip().getPosition(), gameManager.getColumbusShip().getPosition());
+        for (int i = 0; i < fresh.getPirateShips().size(); i++) {
+            assertEquals(fresh.getPirateShips().get(i).getPosition(), gameManager.getPirateShips().get(i).getPosition());
+        }
+        assertEquals(fresh.getMapPayload().getMapId(), gameManager.getMapPayload().getMapId(), "The cached map should follow the new world");
+    }
+
+    @Test
+    @DisplayName("Map sizes too small to spawn every character are rejected before a map is built")
+    void testMinimumMapSize() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new GameManager(4, 20, 1));
+        assertTrue(e.getMessage().contains("4x20"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> GameManager.checkMapSize(20, 2));
+    }
+
+    @Test
+    @DisplayName("On the smallest maps every character spawns within reach of the treasure")
+    void testSmallestMapsSpawnInTreasureRegion() {
+        for (long seed = 0; seed < 300; seed++) {
+            GameManager game = new GameManager(GameManager.MIN_MAP_SIDE, GameManager.MIN_MAP_SIDE, seed);
+            OceanMap map = game.getOceanMap();
+            Position treasure = map.getTreasurePosition();
+            assertTrue(map.sameRegion(game.getColumbusShip().getPosition(), treasure), "Seed " + seed);
+            for (PirateShip pirate : game.getPirateShips()) {
+                assertTrue(map.sameRegion(pirate.getPosition(), treasure), "Seed " + seed);
+            }
+            for (SeaMonster monster : game.getSeaMonsters()) {
+                assertTrue(map.sameRegion(monster.getPosition(), treasure), "Seed " + seed);
+            }
+        }
+    }
+}
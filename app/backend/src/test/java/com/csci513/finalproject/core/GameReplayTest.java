@@ -0,0 +1,113 @@
+package com.csci513.finalproject.core;
+
+import com.csci513.finalproject.metrics.GameMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameReplayTest {
+
+    private static final String[] DIRECTIONS = {"UP", "RIGHT", "RIGHT", "DOWN", "LEFT", "UP", "NOWHERE", "DOWN"};
+
+    @Test
+    @DisplayName("Moves pack into 2 bits each and read back in order, unknown directions included")
+    void testRecordingRoundTrip() {
+        GameRecording recording = new GameRecording(20, 20, 1, 2);
+        for (int i = 0; i < 10_000; i++) {
+            recording.append(i % 997 == 0 ? "NOWHERE" : DIRECTIONS[i % 4]);
+        }
+        GameRecording copy = recording.copy();
+        recording.append("UP");
+
+        assertEquals(10_000, copy.length());
+        assertEquals(recording.getId(), copy.getId());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i % 997 == 0 ? "NONE" : DIRECTIONS[i % 4], copy.getDirection(i));
+        }
+        assertTrue(copy.encodedBytes() < 2600, "10,000 moves should take about 2.5 KB");
+        assertThrows(IndexOutOfBoundsException.class, () -> copy.getDirection(10_000));
+    }
+
+    @Test
+    @DisplayName("Seeking to any turn rebuilds the state the live game had at that turn")
+    void testSeekMatchesLiveGame() {
+        GameManager live = new GameManager(20, 20, 42);
+        GameStateSerializer serializer = new GameStateSerializer();
+        List<String> states = new ArrayList<>();
+        states.add(new String(serializer.toJsonBytes(live)));
+        for (int i = 0; i < 30 && !live.getGameState().isGameOver(); i++) {
+            live.processPlayerMove(DIRECTIONS[i % DIRECTIONS.length]);
+            states.add(new String(serializer.toJsonBytes(live)));
+        }
+        GameRecording recording = live.getRecording();
+        assertEquals(states.size() - 1, recording.length());
+
+        GameReplay replay = new GameReplay(4, 8);
+        // Backwards, so most seeks start from checkpoints made by earlier ones
+        for (int turn = recording.length(); turn >= 0; turn--) {
+            assertEquals(states.get(turn), new String(serializer.toJsonBytes(replay.seek(recording, turn))),
+                    "Turn " + turn);
+        }
+        assertThrows(IllegalArgumentException.class, () -> replay.seek(recording, recording.length() + 1));
+    }
+
+    @Test
+    @DisplayName("Replays stay out of the tick metrics and within their memory budget")
+    void testReplayIsUnmeteredAndBounded() {
+        List<GameRecording> recordings = new ArrayList<>();
+        for (long seed = 0; recordings.size() < 3; seed++) {
+            GameManager live = new GameManager(20, 20, seed);
+            for (int i = 0; i < 40 && !live.getGameState().isGameOver(); i++) {
+                live.processPlayerMove(DIRECTIONS[i % DIRECTIONS.length]);
+            }
+            if (live.getRecording().length() >= 20) {
+                recordings.add(live.getRecording());
+            }
+        }
+        GameReplay probe = new GameReplay(4, 8);
+        probe.seek(recordings.get(0), 20);
+        long oneGame = probe.getTotalBytes();
+        assertTrue(oneGame > 0);
+
+        GameReplay replay = new GameReplay(4, 8, oneGame * 2);
+        long ticks = GameMetrics.TICK.getCount();
+        for (GameRecording recording : recordings) {
+            replay.seek(recording, 20);
+        }
+        assertEquals(ticks, GameMetrics.TICK.getCount(), "Replayed ticks should not be timed");
+        assertEquals(2, replay.size(), "The oldest timeline should be dropped to stay within the budget");
+        assertTrue(replay.getTotalBytes() <= oneGame * 2);
+    }
+
+    @Test
+    @DisplayName("A copied game evolves independently of the original")
+    void testCopyIsIndependent() {
+        GameManager original = new GameManager(20, 20, 7);
+        GameManager copy = new GameManager(original);
+        GameStateSerializer serializer = new GameStateSerializer();
+
+        copy.processPlayerMove("UP");
+        original.processPlayerMove("UP");
+        assertEquals(new String(serializer.toJsonBytes(original)), new String(serializer.toJsonBytes(copy)));
+        copy.processPlayerMove("LEFT");
+        assertEquals(1, original.getVersion());
+        assertEquals(1, original.getRecording().length());
+        assertEquals("UP", copy.getRecording().getDirection(0), "The copy records its own moves");
+        assertEquals(original.getRecording().getId(), copy.getRecording().getId());
+    }
+
+    @Test
+    @DisplayName("A copy of an empty recording can still be appended to")
+    void testAppendToEmptyCopy() {
+        GameRecording copy = new GameRecording(20, 20, 1, 2).copy();
+        for (int i = 0; i < 100; i++) {
+            copy.append(DIRECTIONS[i % 4]);
+        }
+        assertEquals(100, copy.length());
+        assertEquals("RIGHT", copy.getDirection(97));
+    }
+}
@@ -0,0 +1,149 @@
+package com.csci513.finalproject.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameSessionRegistryTest {
+
+    private GameSessionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new GameSessionRegistry();
+    }
+
+    @Test
+    @DisplayName("getOrCreate returns the same game for the same session id")
+    void testSameSessionReturnsSameGame() {
+        GameManager first = registry.getOrCreate("alice");
+        GameManager second = registry.getOrCreate("alice");
+        assertSame(first, second, "Same session id should map to the same GameManager");
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    @DisplayName("Requests racing to create a session all get the one game that was kept")
+    void testConcurrentCreateKeepsOneGame() throws InterruptedException {
+        GameManager[] games = new GameManager[8];
+        Thread[] requests = new Thread[games.length];
+        for (int i = 0; i < requests.length; i++) {
+            int request = i;
+            requests[i] = new Thread(() -> games[request] = registry.getOrCreate("alice"));
+            requests[i].start();
+        }
+        for (Thread request : requests) {
+            request.join();
+        }
+        for (GameManager game : games) {
+            assertSame(registry.get("alice"), game);
+        }
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    @DisplayName("Different sessions own independent worlds")
+    void testSessionsAreIndependent() {
+        GameManager alice = registry.getOrCreate("alice");
+        GameManager bob = registry.getOrCreate("bob");
+
+        assertNotSame(alice, bob, "Different sessions should get different games");
+        assertNotSame(alice.getOceanMap(), bob.getOceanMap(), "Sessions should not share a map");
+
+        alice.getGameState().setGameOver(true);
+        assertFalse(bob.getGameState().isGameOver(), "Ending one game should not affect another");
+    }
+
+    @Test
+    @DisplayName("Invalid session ids are rejected")
+    void testInvalidSessionId() {
+        assertThrows(IllegalArgumentException.class, () -> registry.getOrCreate(""));
+        assertThrows(IllegalArgumentException.class, () -> registry.getOrCreate("../etc"));
+        assertThrows(IllegalArgumentException.class, () -> registry.getOrCreate(null));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    @DisplayName("remove drops the session and ends its event streams")
+    void testRemove() throws IOException {
+        GameManager game = registry.getOrCreate("alice");
+        GameUpdateBroadcaster.Subscription stream = game.subscribe();
+        assertSame(game, registry.remove("alice"));
+        byte[] buffer = new byte[4096];
+        while (stream.read(buffer, 0, buffer.length) >= 0) {
+            // Drains the initial frame; the stream then ends instead of sending heartbeats
+        }
+        assertEquals(0, game.getSubscriberCount());
+        assertNull(registry.get("alice"));
+        assertNotSame(game, registry.getOrCreate("alice"), "A removed session should be recreated fresh");
+    }
+
+    @Test
+    @DisplayName("The sweeper expires sessions idle past the timeout")
+    void testIdleExpiry() {
+        GameSessionRegistry expiring = new GameSessionRegistry(100, Long.MAX_VALUE, Duration.ofNanos(1));
+        expiring.getOrCreate("alice");
+        expiring.sweep();
+        assertNull(expiring.get("alice"), "Idle session should have been expired");
+        assertEquals(1, expiring.getEvictedIdleCount());
+        expiring.shutdown();
+    }
+
+    @Test
+    @DisplayName("Past the session limit the least recently used sessions are evicted")
+    void testLruEviction() {
+        GameSessionRegistry bounded = new GameSessionRegistry(2, Long.MAX_VALUE, Duration.ofHours(1));
+        bounded.getOrCreate("a");
+        bounded.getOrCreate("b");
+        bounded.getOrCreate("a"); // "b" is now the least recently used
+        bounded.getOrCreate("c");
+        bounded.sweep();
+        assertEquals(2, bounded.size());
+        assertNull(bounded.get("b"));
+        assertNotNull(bounded.get("a"));
+        assertNotNull(bounded.get("c"));
+        assertEquals(1, bounded.getEvictedOverCapacityCount());
+        bounded.shutdown();
+    }
+
+    @Test
+    @DisplayName("Sessions are evicted to stay within the memory budget")
+    void testMemoryBudget() {
+        long perSession = new GameManager().estimateMemoryBytes();
+        assertTrue(perSession > 0);
+        GameSessionRegistry budgeted = new GameSessionRegistry(100, perSession * 3 / 2, Duration.ofHours(1));
+        budgeted.getOrCreate("old");
+        budgeted.getOrCreate("new");
+        budgeted.sweep();
+
+        assertEquals(1, budgeted.size());
+        assertNotNull(budgeted.get("new"), "The least recently used session should go first");
+        assertTrue(budgeted.getEstimatedMemoryBytes() <= perSession * 3 / 2);
+        assertEquals(budgeted.getEstimatedMemoryBytes(), budgeted.getEstimatedBytesPerSession());
+        budgeted.shutdown();
+    }
+
+    @Test
+    @DisplayName("Sessions with an open event stream are not idle, and closing a game ends its streams")
+    void testEventStreamsKeepSessionsAlive() throws IOException, InterruptedException {
+        GameSessionRegistry expiring = new GameSessionRegistry(100, Long.MAX_VALUE, Duration.ofMillis(50));
+        GameManager watched = expiring.getOrCreate("watched");
+        GameUpdateBroadcaster.Subscription stream = watched.subscribe();
+        Thread.sleep(100); // Longer than the idle timeout
+        expiring.sweep();
+        assertSame(watched, expiring.get("watched"));
+
+        watched.close();
+        byte[] buffer = new byte[4096];
+        while (stream.read(buffer, 0, buffer.length) >= 0) {
+            // Drains the initial frame; the closed stream then ends instead of blocking
+        }
+        assertEquals(0, watched.getSubscriberCount());
+        expiring.shutdown();
+    }
+}
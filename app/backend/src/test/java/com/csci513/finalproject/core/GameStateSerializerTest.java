@@ -0,0 +1,92 @@
+package com.csci513.finalproject.core;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameStateSerializerTest {
+
+    private GameManager gameManager;
+    private GameStateSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        gameManager = new GameManager();
+        serializer = new GameStateSerializer();
+    }
+
+    private String utf8(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Parses both documents, so member order does not matter but every name and value does
+    private void assertSameJson(JSONObject expected, byte[] actual) {
+        JSONObject parsed = new JSONObject(utf8(actual));
+        assertTrue(expected.similar(parsed), "Expected " + expected + " but streamed " + parsed);
+    }
+
+    @Test
+    @DisplayName("Streaming state output parses to the same document as the JSONObject path")
+    void testStateMatchesJsonObject() {
+        String[] moves = {"RIGHT", "DOWN", "LEFT", "UP", "RIGHT"};
+        for (String move : moves) {
+            assertSameJson(serializer.toJson(gameManager), serializer.toJsonBytes(gameManager));
+            gameManager.processPlayerMove(move);
+        }
+        gameManager.getGameState().setStatusMessage("Quotes \" slashes </ \\ tabs\t and \u00fcn\u00efc\u00f6d\u00e9 \u2028 \uD83C\uDFF4");
+        assertSameJson(serializer.toJson(gameManager), serializer.toJsonBytes(gameManager));
+    }
+
+    @Test
+    @DisplayName("Streaming state output has a fixed member order")
+    void testStateMemberOrder() {
+        String json = utf8(serializer.toJsonBytes(gameManager));
+        String[] members = {"\"map\":{\"id\":", "\"width\":", "\"height\":", "\"player\":{\"x\":",
+                            "\"treasure\":{\"x\":", "\"pirates\":[", "\"monsters\":[",
+                            "\"status\":{\"isGameOver\":", "\"message\":", "\"version\":"};
+        int from = 0;
+        for (String member : members) {
+            int at = json.indexOf(member, from);
+            assertTrue(at >= from, member + " should follow the members before it in " + json);
+            from = at + member.length();
+        }
+        assertTrue(json.startsWith("{\"map\":"));
+    }
+
+    @Test
+    @DisplayName("Streaming delta output parses to the same document as the JSONObject path")
+    void testDeltaMatchesJsonObject() {
+        long since = gameManager.getVersion();
+        gameManager.processPlayerMove("RIGHT");
+        gameManager.processPlayerMove("DOWN");
+
+        ChangeLog.ChangeSet changes = new ChangeLog.ChangeSet(gameManager.getVersion());
+        changes.setPlayerMoved(true);
+        changes.setStatusChanged(true);
+        changes.getMovedPirates().set(0, gameManager.getPirateShips().size());
+        changes.getMovedMonsters().set(1);
+        assertSameJson(serializer.toDeltaJson(gameManager, since, changes),
+                       serializer.toDeltaJsonBytes(gameManager, since, changes));
+
+        ChangeLog.ChangeSet empty = new ChangeLog.ChangeSet(gameManager.getVersion());
+        assertSameJson(serializer.toDeltaJson(gameManager, since, empty),
+                       serializer.toDeltaJsonBytes(gameManager, since, empty));
+        assertTrue(utf8(serializer.toDeltaJsonBytes(gameManager, since, empty))
+                .startsWith("{\"delta\":true,\"since\":" + since + ",\"version\":"));
+    }
+
+    @Test
+    @DisplayName("JsonByteWriter escapes strings like JSONObject.quote")
+    void testWriterEscaping() {
+        String tricky = "a/b</c\"d\\e\b\f\n\r\t\u0001\u007f\u0085\u00a0\u2000\u2028\u2100\uD83D\uDE00\uD800x";
+        JsonByteWriter writer = JsonByteWriter.acquire();
+        writer.beginArray().value(tricky).value(-42).value(Long.MIN_VALUE).value(false).endArray();
+        String expected = "[" + JSONObject.quote(tricky) + ",-42," + Long.MIN_VALUE + ",false]";
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), writer.finish());
+    }
+}
@@ -0,0 +1,46 @@
+package com.csci513.finalproject.core;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameUpdateBroadcasterTest {
+
+    // Reads exactly one event frame (terminated by a blank line) from the stream
+    private String readFrame(GameUpdateBroadcaster.Subscription subscription) throws IOException {
+        StringBuilder frame = new StringBuilder();
+        while (!frame.toString().endsWith("\n\n")) {
+            int b = subscription.read();
+            if (b < 0) {
+                break;
+            }
+            frame.append((char) b);
+        }
+        return frame.toString();
+    }
+
+    @Test
+    @DisplayName("Subscribers receive the current state and then every published tick")
+    void testSubscriberReceivesTicks() throws IOException {
+        GameManager gameManager = new GameManager();
+        GameUpdateBroadcaster.Subscription subscription = gameManager.subscribe();
+        assertEquals(1, gameManager.getSubscriberCount());
+
+        String initial = readFrame(subscription);
+        assertTrue(initial.startsWith("id: " + gameManager.getVersion() + "\nevent: state\ndata: {"), initial);
+
+        gameManager.restartGame();
+        String afterRestart = readFrame(subscription);
+        assertTrue(afterRestart.startsWith("id: " + gameManager.getVersion() + "\n"), afterRestart);
+        String expectedJson = new String(gameManager.getStateSnapshot().getBody(), StandardCharsets.UTF_8);
+        assertTrue(afterRestart.contains(expectedJson), "Frame should carry the shared serialized snapshot");
+
+        subscription.close();
+        assertEquals(0, gameManager.getSubscriberCount(), "Closing the stream should unsubscribe it");
+        assertEquals(-1, subscription.read(), "A closed stream should report end of data");
+    }
+}
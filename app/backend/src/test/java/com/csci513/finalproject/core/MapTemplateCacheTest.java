@@ -0,0 +1,89 @@
+package com.csci513.finalproject.core;
+
+import com.csci513.finalproject.model.map.OceanMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MapTemplateCacheTest {
+
+    @Test
+    @DisplayName("Games of the same world share one map, which is not counted in each game's memory")
+    void testGamesShareTemplate() {
+        MapTemplateCache.shared().share(200, 200, 31);
+        GameManager first = new GameManager(200, 200, 31);
+        GameManager second = new GameManager(200, 200, 31);
+        OceanMap map = first.getOceanMap();
+        assertSame(map, second.getOceanMap());
+        assertSame(map, MapTemplateCache.shared().findByMapId(map.getMapId()));
+        assertTrue(MapTemplateCache.shared().contains(map));
+        assertTrue(first.estimateMemoryBytes() < map.estimateMemoryBytes(),
+                "A game on a cached template should cost less than the template itself");
+
+        String before = second.getColumbusShip().getPosition().toString();
+        first.processPlayerMove("RIGHT");
+        first.processPlayerMove("DOWN");
+        assertEquals(before, second.getColumbusShip().getPosition().toString(), "Moves stay with their own game");
+    }
+
+    @Test
+    @DisplayName("Templates beyond the byte budget are dropped, least recently used first")
+    void testEviction() {
+        MapTemplateCache cache = new MapTemplateCache(1);
+        cache.share(40, 40, 1);
+        cache.share(40, 40, 2);
+        OceanMap dropped = cache.get(40, 40, 1);
+        OceanMap kept = cache.get(40, 40, 2);
+        assertEquals(1, cache.size(), "The newest template is kept even over budget");
+        assertNull(cache.findByMapId(dropped.getMapId()));
+        assertFalse(cache.contains(dropped));
+        assertSame(kept, cache.get(40, 40, 2));
+        assertEquals(kept.estimateMemoryBytes(), cache.getTotalBytes());
+        assertEquals(dropped.getMapId(), cache.get(40, 40, 1).getMapId(), "A dropped template is rebuilt identically");
+    }
+
+    @Test
+    @DisplayName("A pinned template, e.g. one opened from a map file, is served for its seed and never dropped")
+    void testPinned() {
+        MapTemplateCache cache = new MapTemplateCache(1);
+        OceanMap prebuilt = new MapTemplateCache(1).get(40, 40, 5);
+        cache.pin(5, prebuilt);
+        cache.share(40, 40, 6);
+        cache.share(40, 40, 7);
+        cache.get(40, 40, 6);
+        cache.get(40, 40, 7);
+        assertSame(prebuilt, cache.get(40, 40, 5));
+        assertSame(prebuilt, cache.findByMapId(prebuilt.getMapId()));
+        assertTrue(cache.contains(prebuilt));
+    }
+
+    @Test
+    @DisplayName("Random worlds bypass the cache and count their map in the game's memory")
+    void testRandomWorldsAreNotCached() {
+        MapTemplateCache cache = new MapTemplateCache(Long.MAX_VALUE);
+        OceanMap first = cache.get(40, 40, 8);
+        assertNotSame(first, cache.get(40, 40, 8));
+        assertEquals(first.getMapId(), cache.get(40, 40, 8).getMapId(), "The seed still fixes the layout");
+        assertEquals(0, cache.size());
+        assertNull(cache.findByMapId(first.getMapId()));
+
+        GameManager game = new GameManager(200, 200, 32);
+        assertFalse(MapTemplateCache.shared().contains(game.getOceanMap()));
+        assertTrue(game.estimateMemoryBytes() > game.getOceanMap().estimateMemoryBytes());
+    }
+
+    @Test
+    @DisplayName("A registry with a world seed gives every session the same curated map")
+    void testCuratedWorld() {
+        GameSessionRegistry registry = new GameSessionRegistry(10, Long.MAX_VALUE, Duration.ofHours(1), null, 30, 30, 77L);
+        try {
+            assertSame(registry.getOrCreate("alice").getOceanMap(), registry.getOrCreate("bob").getOceanMap());
+            assertNotSame(registry.getOrCreate("alice"), registry.getOrCreate("bob"));
+        } finally {
+            registry.shutdown();
+        }
+    }
+}
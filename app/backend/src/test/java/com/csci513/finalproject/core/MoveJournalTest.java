@@ -0,0 +1,210 @@
+package com.csci513.finalproject.core;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveJournalTest {
+
+    private static final String[] DIRECTIONS = {"UP", "RIGHT", "RIGHT", "DOWN", "LEFT", "UP", "UP", "NOWHERE"};
+
+    @TempDir
+    Path directory;
+
+    private MoveJournal journal;
+
+    @AfterEach
+    void tearDown() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Replaying the journal rebuilds the same game")
+    void testRecoverReplaysMoves() throws IOException {
+        journal = new MoveJournal(directory);
+        GameManager game = new GameManager(20, 20, 42);
+        journal.open("alice", game);
+        play(game, 30);
+
+        assertSameGame(game, reopenAndRecover().get("alice"));
+    }
+
+    @Test
+    @DisplayName("A restart starts a new segment and drops the previous game's")
+    void testRestartCompactsPreviousGame() throws IOException {
+        journal = new MoveJournal(directory);
+        GameManager game = new GameManager(20, 20, 7);
+        journal.open("alice", game);
+        play(game, 10);
+        game.restartGame();
+        play(game, 5);
+        journal.flush();
+
+        assertEquals(1, segments().size(), "Only the current game should remain on disk");
+        assertSameGame(game, reopenAndRecover().get("alice"));
+    }
+
+    @Test
+    @DisplayName("Long games roll over into continuation segments, compacted into one when the game ends")
+    void testSegmentsRollOverAndCompact() throws IOException {
+        journal = new MoveJournal(directory, 16);
+        GameManager game = new GameManager(20, 20, seedSurviving(40));
+        journal.open("alice", game);
+        play(game, 40);
+        journal.flush();
+        assertTrue(segments().size() > 1, "40 moves should not fit in one 16 byte segment");
+        GameManager recovered = reopenAndRecover().get("alice");
+        assertSameGame(game, recovered);
+
+        game = recovered; // Keeps appending to the reopened journal
+
+        for (int i = 0; i < 10_000 && !game.getGameState().isGameOver(); i++) {
+            game.processPlayerMove(DIRECTIONS[i % DIRECTIONS.length]);
+        }
+        assertTrue(game.getGameState().isGameOver(), "Pirates should catch a player going in circles");
+        journal.flush();
+        assertEquals(1, segments().size(), "An ended game should be compacted into one segment");
+        assertSameGame(game, reopenAndRecover().get("alice"));
+    }
+
+    @Test
+    @DisplayName("A compaction cut short by a crash leaves the original segments to recover from")
+    void testInterruptedCompactionKeepsOriginals() throws IOException {
+        journal = new MoveJournal(directory, 16);
+        GameManager game = new GameManager(20, 20, seedSurviving(40));
+        journal.open("alice", game);
+        play(game, 40);
+        journal.flush();
+        List<Path> originals = segments();
+        assertTrue(originals.size() > 1, "40 moves should not fit in one 16 byte segment");
+
+        // The copy got the header and part of the first segment before the crash
+        byte[] first = Files.readAllBytes(originals.get(0));
+        Path halfCopied = directory.resolve(String.format("alice.%012d.journal.compacting", originals.size() + 1));
+        Files.write(halfCopied, Arrays.copyOf(first, first.length / 2 + 13));
+
+        assertSameGame(game, reopenAndRecover().get("alice"));
+        assertFalse(Files.exists(halfCopied), "Recovery should clear away the unfinished copy");
+        assertEquals(originals, segments());
+    }
+
+    @Test
+    @DisplayName("Discarding a session whose journal failed still deletes its segments")
+    void testDiscardAfterFailureDeletesJournal() throws IOException {
+        journal = new MoveJournal(directory);
+        GameManager game = new GameManager(20, 20, 7);
+        journal.open("alice", game);
+        play(game, 10);
+        journal.flush();
+
+        // The restart's header needs a new segment; a file already in its place makes opening it fail
+        long next = segments().stream()
+                .mapToLong(path -> Long.parseLong(path.getFileName().toString().split("\\.")[1]))
+                .max().getAsLong() + 1;
+        Files.createFile(directory.resolve(String.format("alice.%012d.journal", next)));
+        game.restartGame();
+        play(game, 3);
+        journal.flush();
+
+        journal.discard(game);
+        journal.flush();
+        assertNull(reopenAndRecover().get("alice"), "A discarded session should not come back");
+    }
+
+    @Test
+    @DisplayName("A torn record at the end of the journal is cut off")
+    void testTornTailIsTruncated() throws IOException {
+        journal = new MoveJournal(directory);
+        GameManager game = new GameManager(20, 20, 11);
+        journal.open("alice", game);
+        play(game, 12);
+        journal.flush();
+        Path segment = segments().get(0);
+        long size = Files.size(segment);
+        Files.write(segment, "G12".getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+
+        assertSameGame(game, reopenAndRecover().get("alice"));
+        assertEquals(size, Files.size(segment));
+    }
+
+    @Test
+    @DisplayName("Discarding a session deletes its journal")
+    void testDiscardDeletesJournal() throws IOException {
+        journal = new MoveJournal(directory);
+        GameSessionRegistry registry = new GameSessionRegistry(10, Long.MAX_VALUE, Duration.ofMinutes(30), journal);
+        play(registry.getOrCreate("alice"), 3);
+        play(registry.getOrCreate("bob"), 3);
+        registry.remove("alice");
+        journal.flush();
+
+        assertTrue(segments().stream().noneMatch(path -> path.getFileName().toString().startsWith("alice.")));
+        journal.close();
+        journal = new MoveJournal(directory);
+        GameSessionRegistry restarted = new GameSessionRegistry(10, Long.MAX_VALUE, Duration.ofMinutes(30), journal);
+        assertEquals(1, restarted.recoverSessions());
+        assertNull(restarted.get("alice"));
+        assertNotNull(restarted.get("bob"));
+        registry.shutdown();
+        restarted.shutdown();
+    }
+
+    private static void play(GameManager game, int moves) {
+        for (int i = 0; i < moves; i++) {
+            game.processPlayerMove(DIRECTIONS[i % DIRECTIONS.length]);
+        }
+    }
+
+    // Finds a seed whose game is still running after the given number of moves
+    private static long seedSurviving(int moves) {
+        for (long seed = 0; ; seed++) {
+            GameManager probe = new GameManager(20, 20, seed);
+            play(probe, moves);
+            if (!probe.getGameState().isGameOver()) {
+                return seed;
+            }
+        }
+    }
+
+    // Simulates a JVM restart: everything written so far is flushed, then read back by a fresh journal
+    private Map<String, GameManager> reopenAndRecover() throws IOException {
+        journal.close();
+        journal = new MoveJournal(directory);
+        return journal.recover();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    // Compares everything a client sees except the version, which restarts from the replayed game's first move
+    private static void assertSameGame(GameManager expected, GameManager actual) {
+        assertNotNull(actual);
+        GameStateSerializer serializer = new GameStateSerializer();
+        JSONObject expectedJson = serializer.toJson(expected);
+        JSONObject actualJson = serializer.toJson(actual);
+        expectedJson.remove("version");
+        actualJson.remove("version");
+        assertEquals(expectedJson.toString(), actualJson.toString());
+        assertEquals(expected.getOceanMap().getMapId(), actual.getOceanMap().getMapId());
+    }
+}
@@ -0,0 +1,62 @@
+package com.csci513.finalproject.core;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCompressionTest {
+
+    private static final int LARGE = ResponseCompression.MIN_COMPRESS_BYTES;
+
+    @Test
+    @DisplayName("Accept-Encoding negotiation honours q-values, wildcards and the size threshold")
+    void testNegotiate() {
+        assertEquals("gzip", ResponseCompression.negotiate("gzip, deflate, br", LARGE));
+        assertEquals("deflate", ResponseCompression.negotiate("gzip;q=0.5, deflate", LARGE));
+        assertEquals("deflate", ResponseCompression.negotiate("gzip;q=0, deflate;q=0.1", LARGE));
+        assertEquals("gzip", ResponseCompression.negotiate("*", LARGE));
+        assertNull(ResponseCompression.negotiate("br", LARGE), "Unsupported codings fall back to identity");
+        assertNull(ResponseCompression.negotiate("gzip;q=0, *;q=0", LARGE));
+        assertNull(ResponseCompression.negotiate(null, LARGE));
+        assertNull(ResponseCompression.negotiate("gzip", LARGE - 1), "Small bodies stay uncompressed");
+    }
+
+    @Test
+    @DisplayName("Compressed bodies decode back to the original bytes")
+    void testRoundTrip() throws IOException {
+        byte[] body = "{\"islands\":[{\"x\":1,\"y\":2}]}".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+        byte[] gzip = ResponseCompression.compress(body, ResponseCompression.GZIP);
+        assertTrue(gzip.length < body.length);
+        assertArrayEquals(body, readAll(new GZIPInputStream(new ByteArrayInputStream(gzip))));
+
+        byte[] deflate = ResponseCompression.compress(body, ResponseCompression.DEFLATE);
+        assertArrayEquals(body, readAll(new InflaterInputStream(new ByteArrayInputStream(deflate))));
+    }
+
+    @Test
+    @DisplayName("A snapshot compresses each encoding only once")
+    void testSnapshotCachesEncodings() {
+        byte[] body = new byte[4096];
+        StateSnapshot snapshot = new StateSnapshot("w", 3, body, StateSnapshot.JSON);
+
+        assertSame(body, snapshot.getBody(null));
+        byte[] gzip = snapshot.getBody(ResponseCompression.GZIP);
+        assertSame(gzip, snapshot.getBody(ResponseCompression.GZIP), "Compressed bytes should be reused");
+        assertNotSame(gzip, snapshot.getBody(ResponseCompression.DEFLATE));
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+}
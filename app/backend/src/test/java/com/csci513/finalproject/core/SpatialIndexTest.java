@@ -0,0 +1,69 @@
+package com.csci513.finalproject.core;
+
+import com.csci513.finalproject.model.characters.GameCharacter;
+import com.csci513.finalproject.utils.Position;
+import com.csci513.finalproject.utils.SplitMix64;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpatialIndexTest {
+
+    // Character that jumps wherever the test puts it
+    private static final class Marker extends GameCharacter {
+        Marker(int x, int y) {
+            super(x, y);
+        }
+
+        void moveTo(int x, int y) {
+            setPosition(new Position(x, y));
+        }
+
+        @Override
+        public void move() {
+        }
+    }
+
+    @Test
+    @DisplayName("Rectangle queries find exactly the characters inside, also after they move between buckets")
+    void testQueryMatchesScan() {
+        SplitMix64 random = new SplitMix64(2);
+        List<Marker> monsters = new ArrayList<>();
+        SpatialIndex index = new SpatialIndex();
+        for (int i = 0; i < 300; i++) {
+            Marker monster = new Marker(random.nextInt(200), random.nextInt(200));
+            monsters.add(monster);
+            index.add(SpatialIndex.Kind.MONSTER, i, monster);
+        }
+
+        for (int round = 0; round < 20; round++) {
+            for (Marker monster : monsters) {
+                monster.moveTo(random.nextInt(200), random.nextInt(200));
+            }
+            index.refresh();
+            int x = random.nextInt(150);
+            int y = random.nextInt(150);
+            int width = 1 + random.nextInt(50);
+            int height = 1 + random.nextInt(50);
+
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < monsters.size(); i++) {
+                Position position = monsters.get(i).getPosition();
+                if (position.getX() >= x && position.getX() < x + width && position.getY() >= y && position.getY() < y + height) {
+                    expected.add(i);
+                }
+            }
+            Set<Integer> found = new HashSet<>();
+            for (SpatialIndex.Entry entry : index.query(x, y, width, height)) {
+                assertTrue(found.add(entry.index), "Each character should be found once");
+            }
+            assertEquals(expected, found);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.csci513.finalproject.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoggerTest {
+
+    private LogAppender originalAppender;
+    private LogLevel originalLevel;
+    private final List<String> templates = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        originalLevel = Logger.getLevel();
+        originalAppender = Logger.setAppender((time, level, logger, template, args, error) -> templates.add(level + " " + template));
+    }
+
+    @AfterEach
+    void tearDown() {
+        Logger.setAppender(originalAppender);
+        Logger.setLevel(originalLevel);
+    }
+
+    @Test
+    @DisplayName("Messages below the configured level never reach the appender")
+    void testLevelGating() {
+        Logger log = Logger.get(LoggerTest.class);
+        Logger.setLevel(LogLevel.INFO);
+        log.debug("hidden {}", 1);
+        log.info("shown {}", 2);
+        log.warn("warned");
+        assertEquals(List.of("INFO shown {}", "WARN warned"), templates);
+        assertFalse(log.isDebugEnabled());
+
+        Logger.setLevel(LogLevel.OFF);
+        log.error("nothing");
+        assertEquals(2, templates.size());
+    }
+
+    @Test
+    @DisplayName("muted() drops the current thread's messages below WARN until it returns")
+    void testMuted() {
+        Logger log = Logger.get(LoggerTest.class);
+        Logger.setLevel(LogLevel.INFO);
+        int result = Logger.muted(() -> {
+            log.info("hidden");
+            log.warn("warned");
+            return 7;
+        });
+        log.info("shown");
+        assertEquals(7, result);
+        assertEquals(List.of("WARN warned", "INFO shown"), templates);
+    }
+
+    @Test
+    @DisplayName("Placeholders are filled in order; extra placeholders stay as-is")
+    void testFormatting() {
+        StringBuilder out = new StringBuilder();
+        ConsoleLogAppender.formatTo(out, "[{},{}] -> {}", new Object[]{1, 2});
+        assertEquals("[1,2] -> {}", out.toString());
+    }
+
+    @Test
+    @DisplayName("The async appender writes every event in order on its own thread")
+    void testAsyncAppender() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream stream = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        AsyncLogAppender async = new AsyncLogAppender(new ConsoleLogAppender(stream, stream), 1024);
+        for (int i = 0; i < 100; i++) {
+            async.append(0, LogLevel.INFO, "Test", "line {}", new Object[]{i}, null);
+        }
+        async.flush();
+        async.close();
+
+        String[] lines = bytes.toString(StandardCharsets.UTF_8).split("\\R");
+        assertEquals(100, lines.length);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(lines[i].endsWith("INFO Test - line " + i), lines[i]);
+        }
+        assertEquals(0, async.getDroppedCount());
+    }
+
+    @Test
+    @DisplayName("A full ring drops events instead of blocking the caller")
+    void testDropWhenFull() {
+        LogAppender stalled = (time, level, logger, template, args, error) -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        AsyncLogAppender async = new AsyncLogAppender(stalled, 4);
+        for (int i = 0; i < 20; i++) {
+            async.append(0, LogLevel.INFO, "Test", "x", null, null);
+        }
+        assertTrue(async.getDroppedCount() > 0);
+    }
+}
@@ -0,0 +1,69 @@
+package com.csci513.finalproject.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    @DisplayName("Histogram buckets bound every value within ~6%")
+    void testBucketPrecision() {
+        for (long value : new long[]{0, 1, 15, 16, 17, 1000, 123_456, 987_654_321L}) {
+            int bucket = LatencyHistogram.bucketIndex(value);
+            long upper = LatencyHistogram.bucketUpperBound(bucket);
+            assertTrue(value < upper, value + " should be below its bucket's upper bound " + upper);
+            long lower = bucket == 0 ? 0 : LatencyHistogram.bucketUpperBound(bucket - 1);
+            assertTrue(value >= lower, value + " should be at or above its bucket's lower bound " + lower);
+            assertTrue(upper - lower <= Math.max(1, value / 16 + 1), "Bucket for " + value + " is too wide");
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE >>> 22));
+    }
+
+    @Test
+    @DisplayName("Percentiles and cumulative counts follow the recorded values")
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000_000L); // 1ms .. 100ms
+        }
+        assertEquals(100, histogram.getCount());
+        long p50 = histogram.getValueAtPercentile(50);
+        assertTrue(p50 >= 50_000_000L && p50 <= 53_000_000L, "p50 was " + p50);
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(p99 >= 99_000_000L && p99 <= 105_000_000L, "p99 was " + p99);
+
+        long[] counts = histogram.countsAtOrBelow(new long[]{500_000L, 10_000_000L, 1_000_000_000L});
+        assertEquals(0, counts[0]);
+        assertTrue(counts[1] >= 9 && counts[1] <= 10, "About ten values are at most 10ms");
+        assertEquals(100, counts[2]);
+    }
+
+    @Test
+    @DisplayName("scrape() renders counters, gauges and histograms in the Prometheus text format")
+    void testScrape() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("test_requests_total", "Requests", "route", "/state").add(3);
+        registry.gauge("test_sessions", "Sessions", () -> 7);
+        registry.histogram("test_duration_seconds", "Durations", "phase", "tick").record(2_000_000L);
+
+        String text = registry.scrape();
+        assertTrue(text.contains("# TYPE test_requests_total counter\n"));
+        assertTrue(text.contains("test_requests_total{route=\"/state\"} 3\n"));
+        assertTrue(text.contains("test_sessions 7\n"));
+        assertTrue(text.contains("# TYPE test_duration_seconds histogram\n"));
+        assertTrue(text.contains("test_duration_seconds_bucket{phase=\"tick\",le=\"0.001\"} 0\n"));
+        assertTrue(text.contains("test_duration_seconds_bucket{phase=\"tick\",le=\"0.0025\"} 1\n"));
+        assertTrue(text.contains("test_duration_seconds_bucket{phase=\"tick\",le=\"+Inf\"} 1\n"));
+        assertTrue(text.contains("test_duration_seconds_count{phase=\"tick\"} 1\n"));
+    }
+
+    @Test
+    @DisplayName("A name cannot be registered as two metric types")
+    void testTypeConflict() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("test_metric", "A counter");
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("test_metric", "A histogram"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.csci513.finalproject.model.map;
+
+import com.csci513.finalproject.utils.SplitMix64;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FreeCellIndexTest {
+
+    @Test
+    @DisplayName("Claimed cells are never sampled again until released")
+    void testClaimAndRelease() {
+        FreeCellIndex index = new FreeCellIndex(10);
+        SplitMix64 random = new SplitMix64(1);
+        for (int cell = 0; cell < 10; cell += 2) {
+            index.claim(cell);
+        }
+        assertEquals(5, index.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1, index.sample(random) % 2, "Only odd cells are free");
+        }
+        index.release(4);
+        assertTrue(index.isFree(4));
+        index.claim(3);
+        assertThrows(IllegalStateException.class, () -> index.claim(3));
+        assertThrows(IllegalStateException.class, () -> index.release(5));
+    }
+
+    @Test
+    @DisplayName("Filling 90% of a million cells takes one sample per cell")
+    void testDenseFillIsLinear() {
+        FreeCellIndex index = new FreeCellIndex(1_000_000);
+        SplitMix64 random = new SplitMix64(2);
+        long start = System.nanoTime();
+        for (int i = 0; i < 900_000; i++) {
+            index.claim(index.sample(random));
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertEquals(100_000, index.size());
+        assertTrue(millis < 2_000, "Filling took " + millis + " ms");
+    }
+
+    @Test
+    @DisplayName("A draw returns every free cell exactly once and leaves the index unchanged")
+    void testDrawIsDistinctAndReadOnly() {
+        FreeCellIndex index = new FreeCellIndex(50);
+        index.claim(7);
+        index.claim(42);
+        FreeCellIndex.Draw draw = index.draw();
+        SplitMix64 random = new SplitMix64(3);
+        Set<Integer> drawn = new HashSet<>();
+        for (int i = 0; i < 48; i++) {
+            int cell = draw.next(random);
+            assertTrue(index.isFree(cell));
+            assertTrue(drawn.add(cell), "Cells are drawn once");
+        }
+        assertThrows(IllegalStateException.class, () -> draw.next(random));
+        assertEquals(48, index.size());
+    }
+
+    @Test
+    @DisplayName("A subset holds the free cells that pass its filter and changes apart from the index")
+    void testSubset() {
+        FreeCellIndex index = new FreeCellIndex(20);
+        index.claim(4);
+        index.claim(5);
+        FreeCellIndex even = index.subset(cell -> cell % 2 == 0);
+        assertEquals(9, even.size());
+        assertFalse(even.isFree(4), "Claimed cells stay out of the subset");
+        assertFalse(even.isFree(7));
+        SplitMix64 random = new SplitMix64(4);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, even.sample(random) % 2);
+        }
+        even.claim(8);
+        assertTrue(index.isFree(8));
+    }
+}
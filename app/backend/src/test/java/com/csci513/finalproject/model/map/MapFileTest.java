@@ -0,0 +1,99 @@
+package com.csci513.finalproject.model.map;
+
+import com.csci513.finalproject.utils.Position;
+import com.csci513.finalproject.utils.SplitMix64;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MapFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("A generated map reads back cell for cell from its memory-mapped file")
+    void testGeneratedRoundTrip() throws IOException {
+        OceanMap map = new OceanMap(1100, 1000, new SplitMix64(12));
+        Path path = dir.resolve("generated.map");
+        MapFile.write(map, 12, path);
+
+        MapFile file = MapFile.open(path);
+        OceanMap opened = file.getMap();
+        assertTrue(opened.isMapped());
+        assertEquals(12, file.getWorldSeed());
+        assertEquals(map.getMapId(), opened.getMapId());
+        assertEquals(map.getTreasurePosition(), opened.getTreasurePosition());
+        assertSameCells(map, opened);
+        assertTrue(opened.isOceanConnected());
+        assertEquals(map.getRegionSize(new Position(0, 0)), opened.getRegionSize(new Position(0, 0)));
+        assertTrue(opened.estimateMemoryBytes() < 1024, "The layers should stay in the mapping, off the heap");
+    }
+
+    @Test
+    @DisplayName("A classic map keeps its feature lists, and a chunked map exports every chunk")
+    void testClassicAndChunkedRoundTrip() throws IOException {
+        OceanMap classic = new OceanMap(30, 20, new SplitMix64(4));
+        Path classicPath = dir.resolve("classic.map");
+        MapFile.write(classic, 4, classicPath);
+        OceanMap openedClassic = MapFile.open(classicPath).getMap();
+        assertSameCells(classic, openedClassic);
+        assertEquals(classic.getIslandPositions().size(), openedClassic.getIslandPositions().size());
+        assertEquals(classic.getStrategySwitcherPositions().size(), openedClassic.getStrategySwitcherPositions().size());
+
+        OceanMap chunked = new OceanMap(4100, 4100, new SplitMix64(6)); // Partial edge chunks, segments of one
+        Path chunkedPath = dir.resolve("chunked.map");
+        MapFile.write(chunked, 6, chunkedPath);
+        OceanMap openedChunked = MapFile.open(chunkedPath).getMap();
+        for (int y = 3800; y < 4100; y++) {
+            for (int x = 0; x < 4100; x += 3) {
+                assertEquals(chunked.isIsland(x, y), openedChunked.isIsland(x, y));
+                assertEquals(chunked.isStrategySwitcher(x, y), openedChunked.isStrategySwitcher(x, y));
+            }
+        }
+        assertFalse(openedChunked.isChunked());
+    }
+
+    @Test
+    @DisplayName("A mapped split map draws spawn cells by rank, skipping cells sealed off from the treasure")
+    void testSplitMapDraw() throws IOException {
+        OceanMap split = OceanMapTest.splitMap();
+        Path path = dir.resolve("split.map");
+        MapFile.write(split, 0, path);
+        OceanMap opened = MapFile.open(path).getMap();
+        assertFalse(opened.isOceanConnected());
+        OceanMapTest.assertDrawsTreasureRegion(opened);
+    }
+
+    @Test
+    @DisplayName("Files that are not maps, or are cut short, are rejected")
+    void testInvalidFiles() throws IOException {
+        Path text = dir.resolve("text.map");
+        Files.writeString(text, "not a map, just some text that is longer than the header of a map file itself");
+        assertThrows(IOException.class, () -> MapFile.open(text));
+
+        Path truncated = dir.resolve("truncated.map");
+        MapFile.write(new OceanMap(30, 30, new SplitMix64(1)), 1, truncated);
+        byte[] bytes = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IOException.class, () -> MapFile.open(truncated));
+    }
+
+    private static void assertSameCells(OceanMap expected, OceanMap actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.isIsland(x, y), actual.isIsland(x, y), "Island at " + x + "," + y);
+                assertEquals(expected.isStrategySwitcher(x, y), actual.isStrategySwitcher(x, y), "Switcher at " + x + "," + y);
+            }
+        }
+    }
+}
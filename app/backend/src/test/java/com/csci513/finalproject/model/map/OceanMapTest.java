@@ -1,10 +1,14 @@
 package com.csci513.finalproject.model.map;
 
 import com.csci513.finalproject.utils.Position;
+import com.csci513.finalproject.utils.SplitMix64;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class OceanMapTest {
@@ -51,6 +55,63 @@ public class OceanMapTest {
                     "Treasure should not be placed at the starting position (0,0)");
     }
 
+    @Test
+    @DisplayName("Maps too small for their features are rejected up front")
+    void testMinimumSize() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new OceanMap(3, 3));
+        assertTrue(e.getMessage().contains("3x3"), e.getMessage());
+        assertNotNull(new OceanMap(4, 4, new SplitMix64(1)).getMapId(), "16 cells hold every feature");
+    }
+
+    @Test
+    @DisplayName("Spawn draws on a split map cover the treasure's region exactly, then run out")
+    void testDrawStaysInTreasureRegion() {
+        OceanMap map = splitMap();
+        assertDrawsTreasureRegion(map);
+    }
+
+    @Test
+    @DisplayName("Large maps draw distinct spawn cells by rank, on open water only")
+    void testDrawByRank() {
+        OceanMap[] maps = {
+                new OceanMap(300, 300, new SplitMix64(1)), // Classic, too large to keep an index
+                new OceanMap(1024, 1024, new SplitMix64(2)), // Generated, about a third land
+                new OceanMap(4096, 4096, new SplitMix64(3))}; // Chunked
+        for (OceanMap map : maps) {
+            OpenCellDraw draw = map.drawOpenCells();
+            SplitMix64 random = new SplitMix64(4);
+            Set<Position> drawn = new HashSet<>();
+            for (int i = 0; i < 500; i++) {
+                Position cell = draw.next(random);
+                assertFalse(map.isIsland(cell.getX(), cell.getY()), "Spawned on an island at " + cell);
+                assertTrue(drawn.add(cell), "Drawn twice: " + cell);
+            }
+        }
+    }
+
+    // The first of a fixed run of seeds whose 5x5 map seals off a cell from the start
+    static OceanMap splitMap() {
+        for (long seed = 0; ; seed++) {
+            OceanMap map = new OceanMap(5, 5, new SplitMix64(seed));
+            if (!map.isOceanConnected()) {
+                return map;
+            }
+        }
+    }
+
+    static void assertDrawsTreasureRegion(OceanMap map) {
+        Position treasure = map.getTreasurePosition();
+        OpenCellDraw draw = map.drawOpenCells();
+        SplitMix64 random = new SplitMix64(5);
+        Set<Position> drawn = new HashSet<>();
+        for (long i = 0; i < map.getRegionSize(treasure); i++) {
+            Position cell = draw.next(random);
+            assertTrue(map.sameRegion(cell, treasure), cell + " cannot reach the treasure");
+            assertTrue(drawn.add(cell), "Drawn twice: " + cell);
+        }
+        assertThrows(IllegalStateException.class, () -> draw.next(random));
+    }
+
     @Test
     @DisplayName("getCell() returns null for out-of-bounds coordinates")
     void testGetCellBounds() {
@@ -67,4 +128,159 @@ public class OceanMapTest {
          assertNotNull(oceanMapInstance.getCell(TEST_WIDTH - 1, TEST_HEIGHT - 1), "Cell at max bounds should not be null");
          assertNotNull(oceanMapInstance.getCell(TEST_WIDTH / 2, TEST_HEIGHT / 2), "Cell at center should not be null");
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Strategy switchers are recorded as they are placed")
+    void testStrategySwitcherPositions() {
+        assertEquals(3, oceanMapInstance.getStrategySwitcherPositions().size(), "Three switchers should be placed");
+        for (Position switcher : oceanMapInstance.getStrategySwitcherPositions()) {
+            assertTrue(oceanMapInstance.getCell(switcher.getX(), switcher.getY()).isStrategySwitcher(),
+                       "Recorded switcher position should be a switcher cell");
+        }
+    }
+
+    @Test
+    @DisplayName("Map id is fixed for a map and differs between layouts")
+    void testMapId() {
+        assertNotNull(oceanMapInstance.getMapId(), "Map id should be set after initialization");
+        assertEquals(oceanMapInstance.getMapId(), oceanMapInstance.getMapId(), "Map id should be stable");
+        OceanMap first = new OceanMap(TEST_WIDTH, TEST_HEIGHT, new SplitMix64(1));
+        OceanMap second = new OceanMap(TEST_WIDTH, TEST_HEIGHT, new SplitMix64(2));
+        assertNotEquals(first.getIslandPositions(), second.getIslandPositions());
+        assertNotEquals(first.getMapId(), second.getMapId(), "Different layouts should have different ids");
+        assertEquals(first.getMapId(), new OceanMap(TEST_WIDTH, TEST_HEIGHT, new SplitMix64(1)).getMapId());
+    }
+
+    @Test
+    @DisplayName("getCell() and isIsland() views agree with the placed islands, switchers and treasure")
+    void testCellViews() {
+        OceanMap map = new OceanMap(TEST_WIDTH, TEST_HEIGHT);
+        int islandCells = 0;
+        int switcherCells = 0;
+        for (int y = 0; y < TEST_HEIGHT; y++) {
+            for (int x = 0; x < TEST_WIDTH; x++) {
+                MapCell cell = map.getCell(x, y);
+                Position position = new Position(x, y);
+                assertEquals(map.getIslandPositions().contains(position), cell.isIsland());
+                assertEquals(cell.isIsland(), map.isIsland(x, y));
+                assertEquals(map.getStrategySwitcherPositions().contains(position), cell.isStrategySwitcher());
+                assertEquals(position.equals(map.getTreasurePosition()), cell.hasTreasure());
+                islandCells += cell.isIsland() ? 1 : 0;
+                switcherCells += cell.isStrategySwitcher() ? 1 : 0;
+            }
+        }
+        assertEquals(5, islandCells);
+        assertEquals(3, switcherCells);
+        map.getCell(0, 0).setIsland(true);
+        assertFalse(map.isIsland(0, 0), "A cell view is detached from the map");
+    }
+
+    @Test
+    @DisplayName("Cell layers take about two bits per cell")
+    void testLayerMemory() {
+        OceanMap map = new OceanMap(1000, 1000);
+        assertTrue(map.estimateMemoryBytes() < 260_000, "Two 1000x1000 bit layers should take about 250 KB");
+    }
+
+    @Test
+    @DisplayName("A 100,000x100,000 map generates only the chunks that are visited")
+    void testHugeMapIsLazy() {
+        OceanMap map = new OceanMap(OceanMap.MAX_DIMENSION, OceanMap.MAX_DIMENSION, new SplitMix64(3));
+        assertTrue(map.isChunked());
+        assertEquals(1, map.getTerrain().getGeneratedChunks(), "Only the treasure's chunk should have been needed");
+        Position treasure = map.getTreasurePosition();
+        assertFalse(map.isIsland(treasure.getX(), treasure.getY()) || map.isStrategySwitcher(treasure.getX(), treasure.getY()));
+        assertFalse(map.isIsland(0, 0), "The start cell is never an island");
+        map.isIsland(OceanMap.MAX_DIMENSION - 1, OceanMap.MAX_DIMENSION - 1); // Far corner, a partial chunk
+
+        for (int i = 0; i < 200; i++) { // Visit more chunks than the cache holds
+            map.isIsland(i * ChunkedTerrain.CHUNK_SIZE, 5000);
+        }
+        assertTrue(map.estimateMemoryBytes() < 2_000_000, "Cold chunks should have been evicted");
+        assertTrue(map.getIslandPositions().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Evicted chunks are regenerated identically, with the classic island density")
+    void testChunksAreDeterministic() {
+        OceanMap map = new OceanMap(4096, 4096, new SplitMix64(9));
+        OceanMap twin = new OceanMap(4096, 4096, new SplitMix64(9));
+        assertEquals(map.getMapId(), twin.getMapId());
+        assertEquals(map.getTreasurePosition(), twin.getTreasurePosition());
+
+        int islands = 0;
+        int switchers = 0;
+        for (int y = 256; y < 512; y++) { // Chunk (1,1), before and after it is evicted
+            for (int x = 256; x < 512; x++) {
+                islands += map.isIsland(x, y) ? 1 : 0;
+                switchers += map.isStrategySwitcher(x, y) ? 1 : 0;
+            }
+        }
+        assertEquals(256 * 256 / 80, islands);
+        assertEquals(256 * 256 / 133, switchers);
+        for (int i = 0; i < 256; i++) {
+            map.isIsland((i % 16) * ChunkedTerrain.CHUNK_SIZE, (i / 16) * ChunkedTerrain.CHUNK_SIZE);
+        }
+        for (int y = 256; y < 512; y++) {
+            for (int x = 256; x < 512; x++) {
+                assertEquals(twin.isIsland(x, y), map.isIsland(x, y));
+                assertEquals(twin.isStrategySwitcher(x, y), map.isStrategySwitcher(x, y));
+            }
+        }
+        assertNotEquals(map.getMapId(), new OceanMap(4096, 4096, new SplitMix64(10)).getMapId());
+    }
+
+    @Test
+    @DisplayName("Games sharing a chunked map generate each chunk once, each reading its own chunks")
+    void testChunksAreSharedAcrossThreads() throws InterruptedException {
+        OceanMap map = new OceanMap(4096, 4096, new SplitMix64(12));
+        OceanMap twin = new OceanMap(4096, 4096, new SplitMix64(12));
+        long before = map.getTerrain().getGeneratedChunks();
+        Thread[] games = new Thread[4];
+        boolean[] matched = new boolean[games.length];
+        for (int g = 0; g < games.length; g++) {
+            int game = g;
+            games[g] = new Thread(() -> {
+                boolean same = true;
+                for (int i = 0; i < 2000; i++) { // Alternates between a chunk of its own and one all games share
+                    int x = i % 2 == 0 ? 1024 + game * ChunkedTerrain.CHUNK_SIZE + i % 200 : 3072 + i % 200;
+                    same &= map.isIsland(x, 2000) == twin.isIsland(x, 2000);
+                }
+                matched[game] = same;
+            });
+            games[g].start();
+        }
+        for (Thread game : games) {
+            game.join();
+        }
+        for (boolean same : matched) {
+            assertTrue(same, "Every game should read the same terrain");
+        }
+        assertEquals(games.length + 1, map.getTerrain().getGeneratedChunks() - before,
+                "Each visited chunk should be generated exactly once");
+    }
+
+    @Test
+    @DisplayName("Chunked islands never touch, so the whole ocean is one region")
+    void testChunkedOceanIsConnected() {
+        OceanMap map = new OceanMap(4096, 4096, new SplitMix64(4));
+        assertTrue(map.isOceanConnected());
+        for (int y = 0; y < 512; y++) { // Four chunks and the borders between them
+            for (int x = 0; x < 512; x++) {
+                if (!map.isIsland(x, y)) {
+                    continue;
+                }
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        assertFalse((dx != 0 || dy != 0) && map.isIsland(x + dx, y + dy),
+                                "Islands at (" + x + "," + y + ") and a neighbour");
+                    }
+                }
+            }
+        }
+        assertTrue(map.sameRegion(new Position(0, 0), map.getTreasurePosition()));
+        long islands = 4096L * 4096 / ChunkedTerrain.CHUNK_SIZE / ChunkedTerrain.CHUNK_SIZE * (256 * 256 / 80);
+        assertEquals(4096L * 4096 - islands, map.getRegionSize(new Position(0, 0)));
+        assertEquals(0, map.getRegionSize(new Position(-1, 0)));
+    }
+}
@@ -0,0 +1,47 @@
+package com.csci513.finalproject.model.map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OceanRegionsTest {
+
+    @Test
+    @DisplayName("A cell walled in by four islands is its own region")
+    void testSealedPocket() {
+        CellLayer islands = layer(5, 5, new int[][] {{2, 1}, {1, 2}, {3, 2}, {2, 3}});
+        OceanRegions regions = OceanRegions.label(islands, 5, 5);
+        assertFalse(regions.isConnected());
+        int pocket = 2 * 5 + 2;
+        assertEquals(1, regions.size(pocket));
+        assertEquals(20, regions.size(0));
+        assertFalse(regions.same(pocket, 0));
+        assertTrue(regions.same(0, 4 * 5 + 4));
+    }
+
+    @Test
+    @DisplayName("Regions join across the wrapped edges, and a connected ocean keeps no labels")
+    void testWrapAround() {
+        int[][] column2 = {{2, 0}, {2, 1}, {2, 2}, {2, 3}};
+        OceanRegions joined = OceanRegions.label(layer(5, 4, column2), 5, 4);
+        assertTrue(joined.isConnected(), "Columns 3, 4, 0 and 1 connect through the left and right edges");
+        assertEquals(16, joined.size(0));
+        assertEquals(32, joined.estimateMemoryBytes());
+
+        int[][] columns1And3 = {{1, 0}, {1, 1}, {1, 2}, {1, 3}, {3, 0}, {3, 1}, {3, 2}, {3, 3}};
+        OceanRegions split = OceanRegions.label(layer(5, 4, columns1And3), 5, 4);
+        assertTrue(split.same(0, 4), "Columns 0 and 4 touch through the edge");
+        assertFalse(split.same(0, 2));
+        assertEquals(8, split.size(4));
+        assertEquals(4, split.size(3 * 5 + 2));
+    }
+
+    private static CellLayer layer(int width, int height, int[][] cells) {
+        CellLayer layer = new CellLayer(width * height);
+        for (int[] cell : cells) {
+            layer.set(cell[1] * width + cell[0]);
+        }
+        return layer;
+    }
+}
@@ -0,0 +1,35 @@
+package com.csci513.finalproject.model.map;
+
+import com.csci513.finalproject.utils.SplitMix64;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpenCellRanksTest {
+
+    @Test
+    @DisplayName("Ranks map to the open cells in order and back, across blocks and up to the last partial word")
+    void testRanksMatchScan() {
+        int cellCount = 3 * OpenCellRanks.BLOCK_CELLS + 1001; // Ends partway through a block and a word
+        CellLayer islands = new CellLayer(cellCount);
+        SplitMix64 random = new SplitMix64(6);
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (random.nextInt(10) < 3) {
+                islands.set(cell);
+            }
+        }
+        islands.set(cellCount - 1);
+        OpenCellRanks ranks = OpenCellRanks.of(islands, cellCount);
+
+        long rank = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (!islands.get(cell)) {
+                assertEquals(cell, ranks.cellAt(rank), "Rank " + rank);
+                assertEquals(rank, ranks.rankOf(cell));
+                rank++;
+            }
+        }
+        assertEquals(rank, ranks.count(), "Padding after the last cell is not open water");
+    }
+}
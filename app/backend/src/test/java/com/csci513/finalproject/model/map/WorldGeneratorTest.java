@@ -0,0 +1,105 @@
+package com.csci513.finalproject.model.map;
+
+import com.csci513.finalproject.utils.Position;
+import com.csci513.finalproject.utils.SplitMix64;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorldGeneratorTest {
+
+    @Test
+    @DisplayName("A million-cell map grows island clusters around one connected ocean")
+    void testGeneratedMap() {
+        OceanMap map = new OceanMap(1024, 1024, new SplitMix64(5));
+        assertTrue(map.isGenerated());
+        assertFalse(map.isChunked());
+        assertTrue(map.getIslandPositions().isEmpty());
+
+        int land = 0;
+        int landBesideLand = 0;
+        int switchers = 0;
+        for (int y = 0; y < 1024; y++) {
+            for (int x = 0; x < 1024; x++) {
+                if (map.isIsland(x, y)) {
+                    land++;
+                    if (map.isIsland((x + 1) % 1024, y)) {
+                        landBesideLand++;
+                    }
+                    assertFalse(map.isStrategySwitcher(x, y), "Switchers belong on open water");
+                } else if (map.isStrategySwitcher(x, y)) {
+                    switchers++;
+                }
+            }
+        }
+        double landShare = land / (1024.0 * 1024);
+        assertTrue(landShare > 0.2 && landShare < 0.6, "Land share was " + landShare);
+        assertTrue(landBesideLand > 0.8 * land, "Islands should form clusters, not scattered cells");
+        assertTrue(switchers > 0);
+
+        Position treasure = map.getTreasurePosition();
+        assertFalse(map.isIsland(treasure.getX(), treasure.getY()));
+        assertFalse(map.isStrategySwitcher(treasure.getX(), treasure.getY()));
+        assertNotEquals(new Position(0, 0), treasure);
+        assertEquals(1024 * 1024 - land, reachableFromStart(cell -> map.isIsland(cell % 1024, cell / 1024), 1024, 1024),
+                "Every open cell, the treasure included, should be reachable from (0,0)");
+    }
+
+    @Test
+    @DisplayName("The start cell is joined to the main ocean on every seed, whatever the stripe layout")
+    void testOceanIsConnected() {
+        for (long seed = 0; seed < 20; seed++) {
+            WorldGenerator.World world = new WorldGenerator(150, 130, seed).generate(); // Last stripe is partial
+            assertFalse(world.islands.get(0), "Seed " + seed + " covered the start");
+            int land = world.islands.cardinality();
+            assertEquals(150 * 130 - land, reachableFromStart(world.islands::get, 150, 130), "Seed " + seed);
+            Position treasure = world.treasure;
+            assertFalse(world.islands.get(treasure.getY() * 150 + treasure.getX()), "Seed " + seed);
+        }
+    }
+
+    @Test
+    @DisplayName("The same seed generates the same world")
+    void testDeterministic() {
+        OceanMap map = new OceanMap(1100, 1000, new SplitMix64(8));
+        OceanMap twin = new OceanMap(1100, 1000, new SplitMix64(8));
+        assertEquals(map.getMapId(), twin.getMapId());
+        assertEquals(map.getTreasurePosition(), twin.getTreasurePosition());
+        for (int y = 0; y < 1000; y += 7) {
+            for (int x = 0; x < 1100; x++) {
+                assertEquals(map.isIsland(x, y), twin.isIsland(x, y));
+                assertEquals(map.isStrategySwitcher(x, y), twin.isStrategySwitcher(x, y));
+            }
+        }
+        assertNotEquals(map.getMapId(), new OceanMap(1100, 1000, new SplitMix64(9)).getMapId());
+    }
+
+    // Open cells reachable from (0,0) by 4-neighbour moves, wrapping at the edges like ships do
+    private static int reachableFromStart(IntPredicate isLand, int width, int height) {
+        boolean[] seen = new boolean[width * height];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        seen[0] = true;
+        queue.add(0);
+        int reached = 0;
+        while (!queue.isEmpty()) {
+            int cell = queue.poll();
+            reached++;
+            int x = cell % width;
+            int y = cell / width;
+            int[] neighbours = {
+                    y * width + (x + 1) % width, y * width + (x - 1 + width) % width,
+                    ((y + 1) % height) * width + x, ((y - 1 + height) % height) * width + x};
+            for (int neighbour : neighbours) {
+                if (!seen[neighbour] && !isLand.test(neighbour)) {
+                    seen[neighbour] = true;
+                    queue.add(neighbour);
+                }
+            }
+        }
+        return reached;
+    }
+}
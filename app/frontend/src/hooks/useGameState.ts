@@ -1,12 +1,15 @@
-import { useState, useEffect, useCallback } from 'react';
+import { useState, useEffect, useCallback, useRef } from 'react';
 import ApiClient from '../services/ApiClient';
 
 // Define the expected structure of the game state from the backend
 interface MapData {
+    id?: string; // Map id; the static layer is fetched from /map/{id}
     width: number;
     height: number;
     islands?: CharacterPosition[]; // Add islands array (optional)
     strategySwitchers?: CharacterPosition[]; // Add strategy switchers array (optional)
+    tiled?: boolean; // Too large to list: islands and switchers come from /map/{id}/tiles instead
+    tileSize?: number; // Largest tile the server serves
     // grid?: any[][]; // Add later if needed for terrain
 }
 
@@ -15,6 +18,11 @@ interface CharacterPosition {
     y: number;
 }
 
+interface TileTerrain {
+    islands: CharacterPosition[];
+    strategySwitchers: CharacterPosition[];
+}
+
 interface PirateData extends CharacterPosition {
     type: string; // e.g., "ChaserPirateShip"
 }
@@ -25,6 +33,7 @@ interface StatusData {
 }
 
 export interface GameStateData {
+  version?: number; // World version; rises with every move and restart
   map?: MapData;
   player?: CharacterPosition;
   treasure?: CharacterPosition;
@@ -39,6 +48,55 @@ function useGameState() {
   const [gameState, setGameState] = useState<GameStateData | null>(null);
   const [loading, setLoading] = useState<boolean>(true);
   const [error, setError] = useState<Error | null>(null);
+  const mapCache = useRef<MapData | null>(null); // Static map layer for the current map id
+  const tileCache = useRef<Map<string, TileTerrain>>(new Map()); // Loaded tiles of the current tiled map
+  const latestVersion = useRef<number>(-1); // Newest version shown; -1 accepts any state
+
+  // States come from /state, the event stream and move/restart responses, each after an await on the map,
+  // so they can resolve out of order: one older than the state already shown is dropped
+  const applyState = useCallback((stateData: GameStateData) => {
+    const version = stateData.version ?? -1;
+    if (version < latestVersion.current) {
+      console.log(`useGameState: Dropping state ${version}, already showing ${latestVersion.current}`);
+      return;
+    }
+    latestVersion.current = version;
+    setGameState(stateData);
+  }, []);
+
+  // Tiled maps are paged in one tile at a time: loads the tile under the player, then shows every tile loaded so far
+  const withTiles = useCallback(async (map: MapData, player?: CharacterPosition): Promise<MapData> => {
+    const size = map.tileSize!;
+    if (player) {
+      const x = Math.floor(player.x / size) * size;
+      const y = Math.floor(player.y / size) * size;
+      const key = `${x},${y}`;
+      if (!tileCache.current.has(key)) {
+        const tile = await ApiClient.getMapTile(map.id!, x, y, size);
+        tileCache.current.set(key, tile.terrain);
+      }
+    }
+    const tiles = Array.from(tileCache.current.values());
+    return {
+      ...map,
+      islands: tiles.flatMap((tile) => tile.islands),
+      strategySwitchers: tiles.flatMap((tile) => tile.strategySwitchers),
+    };
+  }, []);
+
+  // States only reference the map by id; merge in the (cached) islands and switchers
+  const withMap = useCallback(async (stateData: GameStateData): Promise<GameStateData> => {
+    const mapId = stateData?.map?.id;
+    if (!mapId || stateData.map?.islands) {
+      return stateData;
+    }
+    if (mapCache.current?.id !== mapId) {
+      mapCache.current = await ApiClient.getMap(mapId);
+      tileCache.current.clear();
+    }
+    const map = mapCache.current!.tiled ? await withTiles(mapCache.current!, stateData.player) : mapCache.current;
+    return { ...stateData, map: { ...stateData.map!, ...map } };
+  }, [withTiles]);
 
   // Define fetchState using useCallback to prevent unnecessary re-renders
   const fetchState = useCallback(async () => {
@@ -48,7 +106,7 @@ function useGameState() {
     try {
       const stateData = await ApiClient.getGameState();
       console.log("useGameState: Received state:", stateData);
-      setGameState(stateData);
+      applyState(await withMap(stateData));
     } catch (err) {
       const error = err as Error;
       setError(error);
@@ -58,14 +116,23 @@ function useGameState() {
     } finally {
       setLoading(false);
     }
-  }, []);
+  }, [withMap, applyState]);
 
   useEffect(() => {
     fetchState();
     // Initial fetch on mount
-    // Polling/WebSocket would go here if needed
   }, [fetchState]); // Dependency array ensures this runs only once on mount
 
+  useEffect(() => {
+    // Receive pushed updates instead of polling /state
+    const unsubscribe = ApiClient.subscribeToGameState(async (stateData) => {
+      applyState(await withMap(stateData));
+    }, () => {
+      latestVersion.current = -1; // A reconnect may find a new game whose versions start over
+    });
+    return unsubscribe;
+  }, [withMap, applyState]);
+
   // Function to explicitly trigger a state refresh after an action
   const refreshGameState = useCallback(() => {
        console.log("useGameState: Refresh triggered");
@@ -80,7 +147,7 @@ function useGameState() {
           console.log(`useGameState: Sending move ${direction}...`);
           const updatedState = await ApiClient.sendMoveCommand(direction);
           console.log("useGameState: Received updated state after move:", updatedState);
-          setGameState(updatedState); // Update state immediately with response
+          applyState(await withMap(updatedState)); // Update state immediately with response
       } catch (err) {
           const error = err as Error;
           setError(error);
@@ -90,7 +157,7 @@ function useGameState() {
       } finally {
           setLoading(false);
       }
-  }, []); // Empty dependency array, relies on closure for ApiClient
+  }, [withMap, applyState]); // Depends only on the stable helpers
 
   // Function to handle sending a restart command and refreshing state
   const restartGameAndRefresh = useCallback(async () => {
@@ -100,7 +167,7 @@ function useGameState() {
         console.log(`useGameState: Sending restart command...`);
         const newState = await ApiClient.restartGame();
         console.log("useGameState: Received new state after restart:", newState);
-        setGameState(newState); // Update state immediately with the response
+        applyState(await withMap(newState)); // Update state immediately with the response
     } catch (err) {
         const error = err as Error;
         setError(error);
@@ -110,7 +177,7 @@ function useGameState() {
     } finally {
         setLoading(false);
     }
-}, []); // Empty dependency array, relies on closure for ApiClient
+}, [withMap, applyState]); // Depends only on the stable helpers
 
   return { gameState, loading, error, refreshGameState, sendMoveAndRefresh, restartGameAndRefresh };
 }
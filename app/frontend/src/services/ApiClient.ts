@@ -64,6 +64,60 @@ export const restartGame = async () => {
   }
 };
 
+/**
+ * Fetches the static map layer (islands, strategy switchers) for a map id.
+ * The response never changes for a given id, so the browser may cache it.
+ * @param mapId - The map id referenced by the game state
+ */
+export const getMap = async (mapId: string) => {
+  try {
+    console.log(`ApiClient: Fetching map ${mapId}...`);
+    const response = await apiClient.get(`/map/${mapId}`);
+    return response.data;
+  } catch (error) {
+    console.error('Error fetching map:', error);
+    throw error;
+  }
+};
+
+/**
+ * Fetches the terrain (islands, strategy switchers) of one rectangle of a tiled map.
+ * Like the map itself, a tile never changes for a given id, so the browser may cache it.
+ * @param mapId - The map id referenced by the game state
+ * @param x - Left column of the tile
+ * @param y - Top row of the tile
+ * @param size - Width and height of the tile, at most the map's tileSize
+ */
+export const getMapTile = async (mapId: string, x: number, y: number, size: number) => {
+  try {
+    const response = await apiClient.get(`/map/${mapId}/tiles`, { params: { x, y, w: size, h: size } });
+    return response.data;
+  } catch (error) {
+    console.error('Error fetching map tile:', error);
+    throw error;
+  }
+};
+
+/**
+ * Subscribes to pushed game state updates (Server-Sent Events).
+ * @param onState - Called with every new game state published by the backend
+ * @returns A function that closes the subscription
+ */
+// onOpen runs on every (re)connect, before that connection's first state
+export const subscribeToGameState = (onState: (state: any) => void, onOpen?: () => void) => {
+  console.log('ApiClient: Subscribing to game events...');
+  const source = new EventSource(`${API_BASE_URL}/events`);
+  source.onopen = () => onOpen?.();
+  source.addEventListener('state', (event) => {
+    onState(JSON.parse((event as MessageEvent).data));
+  });
+  source.onerror = (error) => {
+    // EventSource reconnects automatically; just log it
+    console.error('Game event stream error:', error);
+  };
+  return () => source.close();
+};
+
 // TODO: Add functions for other API calls (start game, get map details, etc.)
 
 // Export the functions as part of an object or individually
@@ -71,6 +125,9 @@ const ApiClient = {
   getGameState,
   sendMoveCommand,
   restartGame,
+  getMap,
+  getMapTile,
+  subscribeToGameState,
   // Add other functions here
 };
 